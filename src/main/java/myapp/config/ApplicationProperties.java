@@ -1,6 +1,9 @@
 package myapp.config;
 
+import java.time.Duration;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Sample App.
@@ -13,12 +16,108 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Registration registration = new Registration();
+
+    private final AddressDeduplication addressDeduplication = new AddressDeduplication();
+
+    private final Export export = new Export();
+
+    private final UserDetailsCache userDetailsCache = new UserDetailsCache();
+
+    private final PasswordHashing passwordHashing = new PasswordHashing();
+
+    private final JwtCache jwtCache = new JwtCache();
+
+    private final LoginThrottle loginThrottle = new LoginThrottle();
+
+    private final UserPurge userPurge = new UserPurge();
+
+    private final TokenRevocation tokenRevocation = new TokenRevocation();
+
+    private final MailOutbox mailOutbox = new MailOutbox();
+
+    private final TaskExecutors taskExecutors = new TaskExecutors();
+
+    private final VirtualThreads virtualThreads = new VirtualThreads();
+
+    private final Batch batch = new Batch();
+
+    private final ResponseCache responseCache = new ResponseCache();
+
+    private final Jackson jackson = new Jackson();
+
+    private final Streaming streaming = new Streaming();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Registration getRegistration() {
+        return registration;
+    }
+
+    public AddressDeduplication getAddressDeduplication() {
+        return addressDeduplication;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public UserDetailsCache getUserDetailsCache() {
+        return userDetailsCache;
+    }
+
+    public PasswordHashing getPasswordHashing() {
+        return passwordHashing;
+    }
+
+    public JwtCache getJwtCache() {
+        return jwtCache;
+    }
+
+    public LoginThrottle getLoginThrottle() {
+        return loginThrottle;
+    }
+
+    public UserPurge getUserPurge() {
+        return userPurge;
+    }
+
+    public TokenRevocation getTokenRevocation() {
+        return tokenRevocation;
+    }
+
+    public MailOutbox getMailOutbox() {
+        return mailOutbox;
+    }
+
+    public TaskExecutors getTaskExecutors() {
+        return taskExecutors;
+    }
+
+    public VirtualThreads getVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    public Jackson getJackson() {
+        return jackson;
+    }
+
+    public Streaming getStreaming() {
+        return streaming;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +132,571 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Registration {
+
+        private long bloomFilterExpectedInsertions = 1_000_000;
+
+        private double bloomFilterFalsePositiveProbability = 0.01;
+
+        public long getBloomFilterExpectedInsertions() {
+            return bloomFilterExpectedInsertions;
+        }
+
+        public void setBloomFilterExpectedInsertions(long bloomFilterExpectedInsertions) {
+            this.bloomFilterExpectedInsertions = bloomFilterExpectedInsertions;
+        }
+
+        public double getBloomFilterFalsePositiveProbability() {
+            return bloomFilterFalsePositiveProbability;
+        }
+
+        public void setBloomFilterFalsePositiveProbability(double bloomFilterFalsePositiveProbability) {
+            this.bloomFilterFalsePositiveProbability = bloomFilterFalsePositiveProbability;
+        }
+    }
+
+    public static class AddressDeduplication {
+
+        private int chunkSize = 500;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    public static class Export {
+
+        private Duration timeout = Duration.ofMinutes(30);
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class UserDetailsCache {
+
+        private int maximumSize = 10_000;
+
+        private Duration timeToLive = Duration.ofMinutes(5);
+
+        private Duration pollInterval = Duration.ofSeconds(5);
+
+        private Duration lookback = Duration.ofMinutes(1);
+
+        public int getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public Duration getLookback() {
+            return lookback;
+        }
+
+        public void setLookback(Duration lookback) {
+            this.lookback = lookback;
+        }
+    }
+
+    public static class PasswordHashing {
+
+        private int strength = 10;
+
+        private int poolSize = Runtime.getRuntime().availableProcessors();
+
+        private int queueCapacity = 100;
+
+        public int getStrength() {
+            return strength;
+        }
+
+        public void setStrength(int strength) {
+            this.strength = strength;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public static class JwtCache {
+
+        private int maximumSize = 10_000;
+
+        private Duration timeToLive = Duration.ofMinutes(5);
+
+        public int getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    public static class LoginThrottle {
+
+        private int maximumKeys = 100_000;
+
+        private int loginCapacity = 10;
+
+        private Duration loginRefillPeriod = Duration.ofMinutes(5);
+
+        private int ipCapacity = 100;
+
+        private Duration ipRefillPeriod = Duration.ofMinutes(1);
+
+        private List<String> trustedProxies = List.of("127.0.0.0/8", "::1", "10.0.0.0/8", "172.16.0.0/12", "192.168.0.0/16");
+
+        public int getMaximumKeys() {
+            return maximumKeys;
+        }
+
+        public void setMaximumKeys(int maximumKeys) {
+            this.maximumKeys = maximumKeys;
+        }
+
+        public int getLoginCapacity() {
+            return loginCapacity;
+        }
+
+        public void setLoginCapacity(int loginCapacity) {
+            this.loginCapacity = loginCapacity;
+        }
+
+        public Duration getLoginRefillPeriod() {
+            return loginRefillPeriod;
+        }
+
+        public void setLoginRefillPeriod(Duration loginRefillPeriod) {
+            this.loginRefillPeriod = loginRefillPeriod;
+        }
+
+        public int getIpCapacity() {
+            return ipCapacity;
+        }
+
+        public void setIpCapacity(int ipCapacity) {
+            this.ipCapacity = ipCapacity;
+        }
+
+        public Duration getIpRefillPeriod() {
+            return ipRefillPeriod;
+        }
+
+        public void setIpRefillPeriod(Duration ipRefillPeriod) {
+            this.ipRefillPeriod = ipRefillPeriod;
+        }
+
+        public List<String> getTrustedProxies() {
+            return trustedProxies;
+        }
+
+        public void setTrustedProxies(List<String> trustedProxies) {
+            this.trustedProxies = trustedProxies;
+        }
+    }
+
+    public static class UserPurge {
+
+        private int chunkSize = 1000;
+
+        private int maxRowsPerSecond = 5000;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxRowsPerSecond() {
+            return maxRowsPerSecond;
+        }
+
+        public void setMaxRowsPerSecond(int maxRowsPerSecond) {
+            this.maxRowsPerSecond = maxRowsPerSecond;
+        }
+    }
+
+    public static class TokenRevocation {
+
+        private Duration pollInterval = Duration.ofSeconds(5);
+
+        private Duration lookback = Duration.ofMinutes(1);
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public Duration getLookback() {
+            return lookback;
+        }
+
+        public void setLookback(Duration lookback) {
+            this.lookback = lookback;
+        }
+    }
+
+    public static class MailOutbox {
+
+        private int batchSize = 50;
+
+        private Duration pollInterval = Duration.ofSeconds(5);
+
+        private Duration lease = Duration.ofMinutes(5);
+
+        private int maxAttempts = 8;
+
+        private Duration initialBackoff = Duration.ofSeconds(30);
+
+        private Duration maxBackoff = Duration.ofHours(1);
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public Duration getLease() {
+            return lease;
+        }
+
+        public void setLease(Duration lease) {
+            this.lease = lease;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+    }
+
+    public static class TaskExecutors {
+
+        private final Pool mail = new Pool(2, 100, RejectionPolicy.DISCARD);
+
+        private final Pool export = new Pool(2, 8, RejectionPolicy.ABORT);
+
+        private final Pool jobs = new Pool(2, 16, RejectionPolicy.ABORT);
+
+        private final Pool streaming = new Pool(4, 32, RejectionPolicy.ABORT);
+
+        public Pool getMail() {
+            return mail;
+        }
+
+        public Pool getExport() {
+            return export;
+        }
+
+        public Pool getJobs() {
+            return jobs;
+        }
+
+        public Pool getStreaming() {
+            return streaming;
+        }
+
+        public enum RejectionPolicy {
+            /**
+             * Throw a {@link org.springframework.core.task.TaskRejectedException}.
+             */
+            ABORT,
+            /**
+             * Run the task on the submitting thread.
+             */
+            CALLER_RUNS,
+            /**
+             * Silently drop the task.
+             */
+            DISCARD,
+        }
+
+        public static class Pool {
+
+            private int maxSize;
+
+            private int queueCapacity;
+
+            private Duration keepAlive = Duration.ofSeconds(60);
+
+            private RejectionPolicy rejectionPolicy;
+
+            Pool(int maxSize, int queueCapacity, RejectionPolicy rejectionPolicy) {
+                this.maxSize = maxSize;
+                this.queueCapacity = queueCapacity;
+                this.rejectionPolicy = rejectionPolicy;
+            }
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+
+            public Duration getKeepAlive() {
+                return keepAlive;
+            }
+
+            public void setKeepAlive(Duration keepAlive) {
+                this.keepAlive = keepAlive;
+            }
+
+            public RejectionPolicy getRejectionPolicy() {
+                return rejectionPolicy;
+            }
+
+            public void setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+                this.rejectionPolicy = rejectionPolicy;
+            }
+        }
+    }
+
+    public static class VirtualThreads {
+
+        private int requestsPerConnection = 4;
+
+        private Duration admissionTimeout = Duration.ofSeconds(2);
+
+        private int asyncConcurrencyLimit = 200;
+
+        private Duration pinnedThreshold = Duration.ofMillis(20);
+
+        public int getRequestsPerConnection() {
+            return requestsPerConnection;
+        }
+
+        public void setRequestsPerConnection(int requestsPerConnection) {
+            this.requestsPerConnection = requestsPerConnection;
+        }
+
+        public Duration getAdmissionTimeout() {
+            return admissionTimeout;
+        }
+
+        public void setAdmissionTimeout(Duration admissionTimeout) {
+            this.admissionTimeout = admissionTimeout;
+        }
+
+        public int getAsyncConcurrencyLimit() {
+            return asyncConcurrencyLimit;
+        }
+
+        public void setAsyncConcurrencyLimit(int asyncConcurrencyLimit) {
+            this.asyncConcurrencyLimit = asyncConcurrencyLimit;
+        }
+
+        public Duration getPinnedThreshold() {
+            return pinnedThreshold;
+        }
+
+        public void setPinnedThreshold(Duration pinnedThreshold) {
+            this.pinnedThreshold = pinnedThreshold;
+        }
+    }
+
+    public static class Batch {
+
+        private int maxOperations = 500;
+
+        public int getMaxOperations() {
+            return maxOperations;
+        }
+
+        public void setMaxOperations(int maxOperations) {
+            this.maxOperations = maxOperations;
+        }
+    }
+
+    public static class ResponseCache {
+
+        private boolean enabled = true;
+
+        private int maxEntries = 1000;
+
+        private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+        private Duration timeToLive = Duration.ofMinutes(10);
+
+        private Duration clientMaxAge = Duration.ZERO;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public DataSize getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public void setMaxBodySize(DataSize maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public Duration getClientMaxAge() {
+            return clientMaxAge;
+        }
+
+        public void setClientMaxAge(Duration clientMaxAge) {
+            this.clientMaxAge = clientMaxAge;
+        }
+    }
+
+    public static class Jackson {
+
+        private boolean highThroughput = false;
+
+        private int fragmentCacheMaxEntries = 10_000;
+
+        public boolean isHighThroughput() {
+            return highThroughput;
+        }
+
+        public void setHighThroughput(boolean highThroughput) {
+            this.highThroughput = highThroughput;
+        }
+
+        public int getFragmentCacheMaxEntries() {
+            return fragmentCacheMaxEntries;
+        }
+
+        public void setFragmentCacheMaxEntries(int fragmentCacheMaxEntries) {
+            this.fragmentCacheMaxEntries = fragmentCacheMaxEntries;
+        }
+    }
+
+    public static class Streaming {
+
+        private int minPageSize = 200;
+
+        private Duration timeout = Duration.ofMinutes(5);
+
+        public int getMinPageSize() {
+            return minPageSize;
+        }
+
+        public void setMinPageSize(int minPageSize) {
+            this.minPageSize = minPageSize;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
@@ -0,0 +1,326 @@
+package myapp.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonFormatVisitorWrapper;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.util.NameTransformer;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Version;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.hibernate.Hibernate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Caches the JSON of the versioned entities, keyed by their id, and served while their version is unchanged.
+ * <p>
+ * A cached entity is written as a single pre-encoded raw value, skipping the property accessors, the Hibernate proxy
+ * detection and the formatting of its numbers and dates. The JSON of an entity only depends on its own row when none
+ * of its associations is loaded, so it is only cached then. It is not cached either while a read-write transaction is
+ * active, as the version of an entity is only incremented when its changes are flushed: the entities of a read-only
+ * transaction are not changed, so their versions hold.
+ */
+public class EntityFragmentCacheModule extends SimpleModule {
+
+    private static final String CACHE_NAME = "json-fragments";
+
+    private final ConcurrentMap<FragmentKey, Fragment> fragments = new ConcurrentHashMap<>();
+
+    private final int maxEntries;
+
+    private final Counter hitCounter;
+
+    private final Counter missCounter;
+
+    public EntityFragmentCacheModule(int maxEntries, MeterRegistry meterRegistry) {
+        super(EntityFragmentCacheModule.class.getSimpleName());
+        this.maxEntries = maxEntries;
+        this.hitCounter = Counter.builder("cache.gets")
+            .description("Entities written from their cached JSON")
+            .tag("cache", CACHE_NAME)
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.missCounter = Counter.builder("cache.gets")
+            .description("Entities serialized as their JSON was not cached")
+            .tag("cache", CACHE_NAME)
+            .tag("result", "miss")
+            .register(meterRegistry);
+        Gauge.builder("cache.size", fragments, Map::size)
+            .description("Entities whose JSON is cached")
+            .tag("cache", CACHE_NAME)
+            .register(meterRegistry);
+        setSerializerModifier(new FragmentCachingSerializerModifier());
+    }
+
+    private Fragment get(FragmentKey key, Object version) {
+        Fragment fragment = fragments.get(key);
+        if (fragment != null && fragment.version.equals(version)) {
+            hitCounter.increment();
+            return fragment;
+        }
+        missCounter.increment();
+        return null;
+    }
+
+    private void put(FragmentKey key, Fragment fragment) {
+        if (fragments.size() >= maxEntries && !fragments.containsKey(key)) {
+            // the entries are replaced on each new version, so an arbitrary one is as good a victim as any
+            Iterator<FragmentKey> keys = fragments.keySet().iterator();
+            if (keys.hasNext()) {
+                fragments.remove(keys.next());
+            }
+        }
+        fragments.put(key, fragment);
+    }
+
+    private final class FragmentCachingSerializerModifier extends BeanSerializerModifier {
+
+        @Override
+        public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription beanDesc, JsonSerializer<?> serializer) {
+            Class<?> beanClass = beanDesc.getBeanClass();
+            if (!beanClass.isAnnotationPresent(Entity.class)) {
+                return serializer;
+            }
+            AnnotatedMember id = null;
+            AnnotatedMember version = null;
+            List<AnnotatedMember> associations = new ArrayList<>();
+            for (Field field : beanClass.getDeclaredFields()) {
+                AnnotatedMember accessor = accessor(beanDesc, field.getName());
+                if (field.isAnnotationPresent(Id.class)) {
+                    id = accessor;
+                } else if (field.isAnnotationPresent(Version.class)) {
+                    version = accessor;
+                } else if (isAssociation(field) && accessor != null) {
+                    // the associations ignored altogether are not written, loaded or not
+                    associations.add(accessor);
+                }
+            }
+            if (id == null || version == null) {
+                return serializer;
+            }
+            @SuppressWarnings("unchecked")
+            JsonSerializer<Object> delegate = (JsonSerializer<Object>) serializer;
+            return new FragmentCachingSerializer(delegate, id, version, List.copyOf(associations));
+        }
+
+        private static AnnotatedMember accessor(BeanDescription beanDesc, String name) {
+            for (BeanPropertyDefinition property : beanDesc.findProperties()) {
+                if (property.getInternalName().equals(name)) {
+                    return property.getAccessor();
+                }
+            }
+            return null;
+        }
+
+        private static boolean isAssociation(Field field) {
+            return (
+                field.isAnnotationPresent(ManyToOne.class) ||
+                field.isAnnotationPresent(OneToOne.class) ||
+                field.isAnnotationPresent(OneToMany.class) ||
+                field.isAnnotationPresent(ManyToMany.class)
+            );
+        }
+    }
+
+    /**
+     * Writes an entity from its cached JSON when possible, with the bean serializer otherwise.
+     * <p>
+     * Each contextual instance renders an entity differently, with the properties ignored by its referencing property
+     * for instance, so the instance is part of the key of the fragments.
+     */
+    private final class FragmentCachingSerializer extends JsonSerializer<Object> implements ContextualSerializer, ResolvableSerializer {
+
+        private final JsonSerializer<Object> delegate;
+
+        private final AnnotatedMember id;
+
+        private final AnnotatedMember version;
+
+        private final List<AnnotatedMember> associations;
+
+        FragmentCachingSerializer(
+            JsonSerializer<Object> delegate,
+            AnnotatedMember id,
+            AnnotatedMember version,
+            List<AnnotatedMember> associations
+        ) {
+            this.delegate = delegate;
+            this.id = id;
+            this.version = version;
+            this.associations = associations;
+        }
+
+        @Override
+        public void serialize(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (!isCacheable(value, gen, provider)) {
+                delegate.serialize(value, gen, provider);
+                return;
+            }
+            Object entityId = id.getValue(value);
+            Object entityVersion = version.getValue(value);
+            if (entityId == null || entityVersion == null) {
+                delegate.serialize(value, gen, provider);
+                return;
+            }
+            FragmentKey key = new FragmentKey(this, entityId);
+            Fragment fragment = get(key, entityVersion);
+            if (fragment == null) {
+                fragment = new Fragment(entityVersion, render(value, gen, provider));
+                put(key, fragment);
+            }
+            gen.writeRawValue(fragment.json);
+        }
+
+        private boolean isCacheable(Object value, JsonGenerator gen, SerializerProvider provider) {
+            // token buffers are read back as values rather than text, and pretty printing would differ per generator
+            if (
+                gen instanceof TokenBuffer ||
+                gen.getPrettyPrinter() != null ||
+                gen.getCodec() == null ||
+                provider.getActiveView() != null ||
+                (TransactionSynchronizationManager.isActualTransactionActive() &&
+                    !TransactionSynchronizationManager.isCurrentTransactionReadOnly())
+            ) {
+                return false;
+            }
+            for (AnnotatedMember association : associations) {
+                Object associated = association.getValue(value);
+                if (associated != null && Hibernate.isInitialized(associated)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private SerializableString render(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            StringWriter json = new StringWriter();
+            try (JsonGenerator fragmentGenerator = gen.getCodec().getFactory().createGenerator(json)) {
+                fragmentGenerator.overrideStdFeatures(gen.getFeatureMask(), ~0);
+                if (gen.getCharacterEscapes() != null) {
+                    fragmentGenerator.setCharacterEscapes(gen.getCharacterEscapes());
+                }
+                delegate.serialize(value, fragmentGenerator, provider);
+            }
+            return new SerializedString(json.toString());
+        }
+
+        @Override
+        public void serializeWithType(Object value, JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer)
+            throws IOException {
+            delegate.serializeWithType(value, gen, provider, typeSer);
+        }
+
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) throws JsonMappingException {
+            if (!(delegate instanceof ContextualSerializer contextual)) {
+                return this;
+            }
+            @SuppressWarnings("unchecked")
+            JsonSerializer<Object> contextualDelegate = (JsonSerializer<Object>) contextual.createContextual(provider, property);
+            return contextualDelegate == delegate ? this : new FragmentCachingSerializer(contextualDelegate, id, version, associations);
+        }
+
+        @Override
+        public void resolve(SerializerProvider provider) throws JsonMappingException {
+            if (delegate instanceof ResolvableSerializer resolvable) {
+                resolvable.resolve(provider);
+            }
+        }
+
+        @Override
+        public JsonSerializer<Object> unwrappingSerializer(NameTransformer unwrapper) {
+            return delegate.unwrappingSerializer(unwrapper);
+        }
+
+        @Override
+        public boolean isEmpty(SerializerProvider provider, Object value) {
+            return delegate.isEmpty(provider, value);
+        }
+
+        @Override
+        public boolean usesObjectId() {
+            return delegate.usesObjectId();
+        }
+
+        @Override
+        public Class<Object> handledType() {
+            return delegate.handledType();
+        }
+
+        @Override
+        public void acceptJsonFormatVisitor(JsonFormatVisitorWrapper visitor, JavaType type) throws JsonMappingException {
+            delegate.acceptJsonFormatVisitor(visitor, type);
+        }
+    }
+
+    private static final class FragmentKey {
+
+        private final JsonSerializer<?> serializer;
+
+        private final Object id;
+
+        FragmentKey(JsonSerializer<?> serializer, Object id) {
+            this.serializer = serializer;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof FragmentKey other)) {
+                return false;
+            }
+            return serializer == other.serializer && id.equals(other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(serializer) + id.hashCode();
+        }
+    }
+
+    private static final class Fragment {
+
+        private final Object version;
+
+        private final SerializableString json;
+
+        Fragment(Object version, SerializableString json) {
+            this.version = version;
+            this.json = json;
+        }
+    }
+}
@@ -4,6 +4,9 @@ import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
 import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module.Feature;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -31,4 +34,33 @@ public class JacksonConfiguration {
     public Hibernate6Module hibernate6Module() {
         return new Hibernate6Module().configure(Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS, true);
     }
+
+    /**
+     * High-throughput serialization, when {@code application.jackson.high-throughput} is enabled.
+     * <p>
+     * The properties are read and written through generated lambdas instead of reflection, and the JSON of the
+     * entities is cached by id and version, see {@link EntityFragmentCacheModule}.
+     * @return the customizer registering the corresponding modules.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer highThroughputCustomizer(
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        ApplicationProperties.Jackson properties = applicationProperties.getJackson();
+        if (!properties.isHighThroughput()) {
+            return builder -> {};
+        }
+        // shared by every object mapper built, its fragments being keyed by serializer
+        EntityFragmentCacheModule fragmentCacheModule = properties.getFragmentCacheMaxEntries() > 0
+            ? new EntityFragmentCacheModule(properties.getFragmentCacheMaxEntries(), meterRegistry)
+            : null;
+        return builder ->
+            builder.postConfigurer(objectMapper -> {
+                objectMapper.registerModule(new BlackbirdModule());
+                if (fragmentCacheModule != null) {
+                    objectMapper.registerModule(fragmentCacheModule);
+                }
+            });
+    }
 }
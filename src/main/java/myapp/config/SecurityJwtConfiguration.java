@@ -2,18 +2,30 @@ package myapp.config;
 
 import static myapp.security.SecurityUtils.JWT_ALGORITHM;
 
+import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.BadJWSException;
 import com.nimbusds.jose.util.Base64;
+import java.text.ParseException;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
+import myapp.management.AuthenticationPhase;
 import myapp.management.SecurityMetersService;
+import myapp.security.CachingJwtDecoder;
+import myapp.security.TokenRevocationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 
@@ -26,28 +38,63 @@ public class SecurityJwtConfiguration {
     private String jwtKey;
 
     @Bean
-    public JwtDecoder jwtDecoder(SecurityMetersService metersService) {
+    public JwtDecoder jwtDecoder(
+        SecurityMetersService metersService,
+        ApplicationProperties applicationProperties,
+        TokenRevocationRegistry tokenRevocationRegistry
+    ) {
         NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
-        return token -> {
+        // expiration is the only claim validated, so a JwtValidationException means an expired token
+        jwtDecoder.setJwtValidator(new JwtTimestampValidator());
+        JwtDecoder verifyingDecoder = token -> {
             try {
                 return jwtDecoder.decode(token);
-            } catch (Exception e) {
-                if (e.getMessage().contains("Invalid signature")) {
-                    metersService.trackTokenInvalidSignature();
-                } else if (e.getMessage().contains("Jwt expired at")) {
-                    metersService.trackTokenExpired();
-                } else if (
-                    e.getMessage().contains("Invalid JWT serialization") ||
-                    e.getMessage().contains("Malformed token") ||
-                    e.getMessage().contains("Invalid unsecured/JWS/JWE")
-                ) {
-                    metersService.trackTokenMalformed();
-                } else {
-                    LOG.error("Unknown JWT error {}", e.getMessage());
-                }
+            } catch (JwtException e) {
+                trackInvalidToken(metersService, e);
                 throw e;
             }
         };
+        ApplicationProperties.JwtCache jwtCache = applicationProperties.getJwtCache();
+        JwtDecoder cachingDecoder = new CachingJwtDecoder(
+            verifyingDecoder,
+            jwtCache.getMaximumSize(),
+            jwtCache.getTimeToLive(),
+            metersService
+        );
+        // revocations are checked outside the cache, so a cached token is rejected as soon as it is revoked
+        return token ->
+            metersService.timeAuthenticationPhase(AuthenticationPhase.JWT_DECODE, () -> {
+                Jwt jwt = cachingDecoder.decode(token);
+                if (tokenRevocationRegistry.isRevoked(jwt)) {
+                    throw new BadJwtException("The token was revoked");
+                }
+                return jwt;
+            });
+    }
+
+    private static void trackInvalidToken(SecurityMetersService metersService, JwtException e) {
+        if (e instanceof JwtValidationException) {
+            metersService.trackTokenExpired();
+        } else if (hasCause(e, BadJWSException.class)) {
+            metersService.trackTokenInvalidSignature();
+        } else if (hasCause(e, ParseException.class)) {
+            metersService.trackTokenMalformed();
+        } else if (hasCause(e, BadJOSEException.class) || hasCause(e, JOSEException.class)) {
+            metersService.trackTokenUnsupported();
+        } else if (e instanceof BadJwtException) {
+            metersService.trackTokenMalformed();
+        } else {
+            LOG.error("Unknown JWT error {}", e.getMessage());
+        }
+    }
+
+    private static boolean hasCause(Throwable throwable, Class<? extends Throwable> type) {
+        for (Throwable cause = throwable.getCause(); cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Bean
@@ -0,0 +1,83 @@
+package myapp.config;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.AsyncHandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBodyReturnValueHandler;
+
+/**
+ * Configure the handling of the pages streamed by the entity resources.
+ * <p>
+ * A resource returns either a loaded or a streamed page from the same method, declared to return a
+ * {@code ResponseEntity<?>}. Spring MVC only recognizes a {@link StreamingResponseBody} by the declared type, and
+ * would serialize it as a bean: this recognizes it by the returned value, and writes it asynchronously.
+ * <p>
+ * The pages are written on the bounded streaming executor, which rejects the pages beyond its queue with a
+ * {@code 503 (Service Unavailable)}, and aborted after {@code application.streaming.timeout}. Without it, Spring MVC
+ * would start a new thread per page.
+ */
+@Configuration
+public class StreamingConfiguration implements WebMvcConfigurer {
+
+    private final ThreadPoolTaskExecutor streamingExecutor;
+
+    private final ApplicationProperties.Streaming properties;
+
+    public StreamingConfiguration(
+        @Qualifier(TaskExecutorConfiguration.STREAMING_EXECUTOR) ThreadPoolTaskExecutor streamingExecutor,
+        ApplicationProperties applicationProperties
+    ) {
+        this.streamingExecutor = streamingExecutor;
+        this.properties = applicationProperties.getStreaming();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingExecutor);
+        configurer.setDefaultTimeout(properties.getTimeout().toMillis());
+    }
+
+    @Override
+    public void addReturnValueHandlers(List<HandlerMethodReturnValueHandler> handlers) {
+        handlers.add(new StreamingResponseEntityReturnValueHandler());
+    }
+
+    /**
+     * Handles the {@link ResponseEntity} values with a {@link StreamingResponseBody}. As an asynchronous return value
+     * handler, it is selected for those values before the handlers of the other entities, which are not asynchronous.
+     */
+    private static final class StreamingResponseEntityReturnValueHandler implements AsyncHandlerMethodReturnValueHandler {
+
+        private final StreamingResponseBodyReturnValueHandler delegate = new StreamingResponseBodyReturnValueHandler();
+
+        @Override
+        public boolean isAsyncReturnValue(Object returnValue, MethodParameter returnType) {
+            return returnValue instanceof ResponseEntity<?> responseEntity && responseEntity.getBody() instanceof StreamingResponseBody;
+        }
+
+        @Override
+        public boolean supportsReturnType(MethodParameter returnType) {
+            return ResponseEntity.class.isAssignableFrom(returnType.getParameterType());
+        }
+
+        @Override
+        public void handleReturnValue(
+            Object returnValue,
+            MethodParameter returnType,
+            ModelAndViewContainer mavContainer,
+            NativeWebRequest webRequest
+        ) throws Exception {
+            delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+        }
+    }
+}
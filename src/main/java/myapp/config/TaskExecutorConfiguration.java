@@ -0,0 +1,93 @@
+package myapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded executors, one per asynchronous workload, so a burst of one kind of work cannot starve the others.
+ * <p>
+ * Spring Boot binds the pool size, active threads and queue depth of each executor to the {@code executor.*}
+ * metrics, tagged with the executor name. The time tasks wait in the queue is recorded in {@code executor.wait}.
+ */
+@Configuration
+public class TaskExecutorConfiguration {
+
+    public static final String MAIL_EXECUTOR = "mailExecutor";
+
+    public static final String EXPORT_EXECUTOR = "exportExecutor";
+
+    public static final String JOB_EXECUTOR = "jobExecutor";
+
+    public static final String STREAMING_EXECUTOR = "streamingExecutor";
+
+    private static final Logger LOG = LoggerFactory.getLogger(TaskExecutorConfiguration.class);
+
+    private final ApplicationProperties.TaskExecutors taskExecutors;
+
+    private final MeterRegistry meterRegistry;
+
+    public TaskExecutorConfiguration(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.taskExecutors = applicationProperties.getTaskExecutors();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean(name = MAIL_EXECUTOR)
+    public ThreadPoolTaskExecutor mailExecutor() {
+        return createExecutor("mail", taskExecutors.getMail());
+    }
+
+    @Bean(name = EXPORT_EXECUTOR)
+    public ThreadPoolTaskExecutor exportExecutor() {
+        return createExecutor("export", taskExecutors.getExport());
+    }
+
+    @Bean(name = JOB_EXECUTOR)
+    public ThreadPoolTaskExecutor jobExecutor() {
+        return createExecutor("job", taskExecutors.getJobs());
+    }
+
+    @Bean(name = STREAMING_EXECUTOR)
+    public ThreadPoolTaskExecutor streamingExecutor() {
+        return createExecutor("streaming", taskExecutors.getStreaming());
+    }
+
+    private ThreadPoolTaskExecutor createExecutor(String name, ApplicationProperties.TaskExecutors.Pool pool) {
+        LOG.debug("Creating {} Task Executor", name);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // a ThreadPoolExecutor only starts threads beyond its core size once its queue is full,
+        // so all threads are core threads, allowed to time out when idle
+        executor.setCorePoolSize(pool.getMaxSize());
+        executor.setMaxPoolSize(pool.getMaxSize());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setKeepAliveSeconds((int) pool.getKeepAlive().toSeconds());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setThreadNamePrefix(name + "-task-");
+        executor.setRejectedExecutionHandler(
+            switch (pool.getRejectionPolicy()) {
+                case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+                case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+                case DISCARD -> new ThreadPoolExecutor.DiscardPolicy();
+            }
+        );
+        Timer waitTimer = Timer.builder("executor.wait")
+            .description("Time tasks wait in the queue of the executor")
+            .tag("name", name)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        executor.setTaskDecorator(task -> {
+            long submitted = System.nanoTime();
+            return () -> {
+                waitTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                task.run();
+            };
+        });
+        return executor;
+    }
+}
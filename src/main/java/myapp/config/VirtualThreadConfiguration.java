@@ -0,0 +1,85 @@
+package myapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import myapp.web.filter.ConnectionPoolAdmissionFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+/**
+ * Virtual threads mode, enabled with {@code spring.threads.virtual.enabled} on Java 21 or later.
+ * <p>
+ * Undertow dispatches the servlet requests to virtual threads instead of its worker pool, and
+ * {@link AsyncConfiguration} runs the {@code @Async} tasks on virtual threads. As the number of threads is no longer
+ * a bound, the requests processed at once are bounded relative to the connection pool size, and virtual threads
+ * pinned to their carrier are reported.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadConfiguration.class);
+
+    /**
+     * Pool size assumed when the data source is not a Hikari pool.
+     */
+    private static final int DEFAULT_CONNECTION_POOL_SIZE = 10;
+
+    private final ApplicationProperties.VirtualThreads properties;
+
+    public VirtualThreadConfiguration(ApplicationProperties applicationProperties) {
+        this.properties = applicationProperties.getVirtualThreads();
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<UndertowServletWebServerFactory> undertowVirtualThreadsCustomizer() {
+        LOG.info("Dispatching requests to virtual threads");
+        return factory ->
+            factory.addDeploymentInfoCustomizers(deploymentInfo ->
+                deploymentInfo.setExecutor(new VirtualThreadTaskExecutor("undertow-virtual-"))
+            );
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConnectionPoolAdmissionFilter> connectionPoolAdmissionFilter(
+        DataSource dataSource,
+        MeterRegistry meterRegistry
+    ) {
+        int permits = connectionPoolSize(dataSource) * properties.getRequestsPerConnection();
+        LOG.debug("Admitting {} requests at once", permits);
+        FilterRegistrationBean<ConnectionPoolAdmissionFilter> registration = new FilterRegistrationBean<>(
+            new ConnectionPoolAdmissionFilter(permits, properties.getAdmissionTimeout(), meterRegistry)
+        );
+        registration.addUrlPatterns("/api/*");
+        // before the security filters, which may query the database
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(properties.getPinnedThreshold(), meterRegistry);
+    }
+
+    private static int connectionPoolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            LOG.warn("Could not read the connection pool size", e);
+        }
+        return DEFAULT_CONNECTION_POOL_SIZE;
+    }
+}
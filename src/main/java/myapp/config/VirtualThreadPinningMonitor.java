@@ -0,0 +1,61 @@
+package myapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports the virtual threads pinned to their carrier thread, from the JDK Flight Recorder event stream.
+ * <p>
+ * A virtual thread blocking inside a {@code synchronized} block or a native frame keeps its carrier, so a few of
+ * them can stall every virtual thread. Each pinning longer than the threshold is recorded in the
+ * {@code jvm.threads.virtual.pinned} timer, and logged with the top of its stack to find the culprit.
+ */
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int LOGGED_FRAMES = 8;
+
+    private final RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(Duration threshold, MeterRegistry meterRegistry) {
+        Timer pinnedTimer = Timer.builder("jvm.threads.virtual.pinned")
+            .description("Time virtual threads stayed pinned to their carrier thread")
+            .register(meterRegistry);
+        this.recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, event -> {
+            pinnedTimer.record(event.getDuration());
+            LOG.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), topFrames(event));
+        });
+        recordingStream.startAsync();
+    }
+
+    private static String topFrames(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown location";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        return frames
+            .stream()
+            .limit(LOGGED_FRAMES)
+            .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber())
+            .collect(Collectors.joining(" <- "));
+    }
+
+    @PreDestroy
+    public void close() {
+        recordingStream.close();
+    }
+}
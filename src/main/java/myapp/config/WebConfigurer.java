@@ -6,9 +6,12 @@ import jakarta.servlet.*;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
+import myapp.service.ResponseCacheService;
+import myapp.web.filter.ResponseCacheFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.web.server.*;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
 import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
 import org.springframework.context.annotation.Bean;
@@ -100,6 +103,21 @@ public class WebConfigurer implements ServletContextInitializer, WebServerFactor
         return new CorsFilter(source);
     }
 
+    @Bean
+    public FilterRegistrationBean<ResponseCacheFilter> responseCacheFilter(
+        ResponseCacheService responseCacheService,
+        ApplicationProperties applicationProperties
+    ) {
+        ApplicationProperties.ResponseCache properties = applicationProperties.getResponseCache();
+        FilterRegistrationBean<ResponseCacheFilter> registration = new FilterRegistrationBean<>(
+            new ResponseCacheFilter(responseCacheService, properties)
+        );
+        registration.addUrlPatterns("/api/products/*", "/api/categories");
+        // the default order, after the security filters
+        registration.setEnabled(properties.isEnabled());
+        return registration;
+    }
+
     /**
      * Initializes H2 console.
      */
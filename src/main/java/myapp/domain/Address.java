@@ -1,5 +1,6 @@
 package myapp.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
@@ -46,10 +47,19 @@ public class Address implements Serializable {
     @Column(name = "country", length = 2, nullable = false)
     private String country;
 
+    @JsonIgnore
+    @Size(max = 64)
+    @Column(name = "normalized_hash", length = 64)
+    private String normalizedHash;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JsonIgnoreProperties(value = { "wishLists", "addresses", "orders" }, allowSetters = true)
     private Customer customer;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -65,6 +75,19 @@ public class Address implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Address version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getAddress1() {
         return this.address1;
     }
@@ -130,6 +153,19 @@ public class Address implements Serializable {
         this.country = country;
     }
 
+    public String getNormalizedHash() {
+        return this.normalizedHash;
+    }
+
+    public Address normalizedHash(String normalizedHash) {
+        this.setNormalizedHash(normalizedHash);
+        return this;
+    }
+
+    public void setNormalizedHash(String normalizedHash) {
+        this.normalizedHash = normalizedHash;
+    }
+
     public Customer getCustomer() {
         return this.customer;
     }
@@ -59,6 +59,10 @@ public class Category implements Serializable {
     @JsonIgnoreProperties(value = { "wishList", "order", "categories" }, allowSetters = true)
     private Set<Product> products = new HashSet<>();
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -74,6 +78,19 @@ public class Category implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Category version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getDescription() {
         return this.description;
     }
@@ -55,6 +55,10 @@ public class Customer implements Serializable {
     @JsonIgnoreProperties(value = { "products", "shippingAddress", "customer" }, allowSetters = true)
     private Set<Order> orders = new HashSet<>();
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -70,6 +74,19 @@ public class Customer implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Customer version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getFirstName() {
         return this.firstName;
     }
@@ -0,0 +1,247 @@
+package myapp.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import myapp.domain.enumeration.MailStatus;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * An email waiting in the outbox.
+ * <p>
+ * Messages are rendered when they are queued, and deleted once delivered. A {@link MailStatus#PENDING} message is
+ * due at {@code nextAttemptAt}; after too many failed attempts it becomes {@link MailStatus#DEAD} and is kept for
+ * inspection.
+ */
+@Entity
+@Table(name = "mail_outbox")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class MailOutboxMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 254)
+    @Column(name = "recipient", length = 254, nullable = false)
+    private String recipient;
+
+    @NotNull
+    @Size(max = 255)
+    @Column(name = "subject", length = 255, nullable = false)
+    private String subject;
+
+    @NotNull
+    @JdbcTypeCode(SqlTypes.LONGVARCHAR)
+    @Column(name = "content", nullable = false)
+    private String content;
+
+    @NotNull
+    @Column(name = "multipart", nullable = false)
+    private Boolean multipart;
+
+    @NotNull
+    @Column(name = "html", nullable = false)
+    private Boolean html;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private MailStatus status;
+
+    @NotNull
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @NotNull
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Size(max = 500)
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public MailOutboxMessage id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getRecipient() {
+        return this.recipient;
+    }
+
+    public MailOutboxMessage recipient(String recipient) {
+        this.setRecipient(recipient);
+        return this;
+    }
+
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    public String getSubject() {
+        return this.subject;
+    }
+
+    public MailOutboxMessage subject(String subject) {
+        this.setSubject(subject);
+        return this;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getContent() {
+        return this.content;
+    }
+
+    public MailOutboxMessage content(String content) {
+        this.setContent(content);
+        return this;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public Boolean getMultipart() {
+        return this.multipart;
+    }
+
+    public MailOutboxMessage multipart(Boolean multipart) {
+        this.setMultipart(multipart);
+        return this;
+    }
+
+    public void setMultipart(Boolean multipart) {
+        this.multipart = multipart;
+    }
+
+    public Boolean getHtml() {
+        return this.html;
+    }
+
+    public MailOutboxMessage html(Boolean html) {
+        this.setHtml(html);
+        return this;
+    }
+
+    public void setHtml(Boolean html) {
+        this.html = html;
+    }
+
+    public MailStatus getStatus() {
+        return this.status;
+    }
+
+    public MailOutboxMessage status(MailStatus status) {
+        this.setStatus(status);
+        return this;
+    }
+
+    public void setStatus(MailStatus status) {
+        this.status = status;
+    }
+
+    public Integer getAttempts() {
+        return this.attempts;
+    }
+
+    public MailOutboxMessage attempts(Integer attempts) {
+        this.setAttempts(attempts);
+        return this;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public MailOutboxMessage createdDate(Instant createdDate) {
+        this.setCreatedDate(createdDate);
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getNextAttemptAt() {
+        return this.nextAttemptAt;
+    }
+
+    public MailOutboxMessage nextAttemptAt(Instant nextAttemptAt) {
+        this.setNextAttemptAt(nextAttemptAt);
+        return this;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return this.lastError;
+    }
+
+    public MailOutboxMessage lastError(String lastError) {
+        this.setLastError(lastError);
+        return this;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MailOutboxMessage)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((MailOutboxMessage) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "MailOutboxMessage{" +
+            "id=" + getId() +
+            ", recipient='" + getRecipient() + "'" +
+            ", subject='" + getSubject() + "'" +
+            ", status='" + getStatus() + "'" +
+            ", attempts=" + getAttempts() +
+            ", nextAttemptAt='" + getNextAttemptAt() + "'" +
+            "}";
+    }
+}
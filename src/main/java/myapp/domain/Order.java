@@ -62,6 +62,10 @@ public class Order implements Serializable {
     @JsonIgnoreProperties(value = { "wishLists", "addresses", "orders" }, allowSetters = true)
     private Customer customer;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -77,6 +81,19 @@ public class Order implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Order version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Instant getOrderDate() {
         return this.orderDate;
     }
@@ -88,6 +88,10 @@ public class Product implements Serializable {
     @JsonIgnoreProperties(value = { "parent", "products" }, allowSetters = true)
     private Set<Category> categories = new HashSet<>();
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -103,6 +107,19 @@ public class Product implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Product version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getTitle() {
         return this.title;
     }
@@ -0,0 +1,145 @@
+package myapp.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A revocation of JWTs, by token id or by user.
+ * <p>
+ * The tokens matching the key and issued before {@code revokedBefore} are rejected. The row is useless once
+ * every such token has expired, at {@code expiresAt}. Each instance polls the rows by {@code revokedAt}, the time of
+ * the last revocation of the key.
+ */
+@Entity
+@Table(name = "revoked_token")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class RevokedToken implements Serializable, Persistable<String> {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    @Size(max = 100)
+    @Id
+    @Column(name = "token_key", length = 100, nullable = false)
+    private String tokenKey;
+
+    @NotNull
+    @Column(name = "revoked_before", nullable = false)
+    private Instant revokedBefore;
+
+    @NotNull
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @NotNull
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+
+    @Transient
+    private boolean isPersisted;
+
+    public String getTokenKey() {
+        return this.tokenKey;
+    }
+
+    public RevokedToken tokenKey(String tokenKey) {
+        this.setTokenKey(tokenKey);
+        return this;
+    }
+
+    public void setTokenKey(String tokenKey) {
+        this.tokenKey = tokenKey;
+    }
+
+    public Instant getRevokedBefore() {
+        return this.revokedBefore;
+    }
+
+    public RevokedToken revokedBefore(Instant revokedBefore) {
+        this.setRevokedBefore(revokedBefore);
+        return this;
+    }
+
+    public void setRevokedBefore(Instant revokedBefore) {
+        this.revokedBefore = revokedBefore;
+    }
+
+    public Instant getExpiresAt() {
+        return this.expiresAt;
+    }
+
+    public RevokedToken expiresAt(Instant expiresAt) {
+        this.setExpiresAt(expiresAt);
+        return this;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Instant getRevokedAt() {
+        return this.revokedAt;
+    }
+
+    public RevokedToken revokedAt(Instant revokedAt) {
+        this.setRevokedAt(revokedAt);
+        return this;
+    }
+
+    public void setRevokedAt(Instant revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+
+    @PostLoad
+    @PostPersist
+    public void updateEntityState() {
+        this.setIsPersisted();
+    }
+
+    @Override
+    public String getId() {
+        return this.tokenKey;
+    }
+
+    @Transient
+    @Override
+    public boolean isNew() {
+        return !this.isPersisted;
+    }
+
+    public RevokedToken setIsPersisted() {
+        this.isPersisted = true;
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RevokedToken)) {
+            return false;
+        }
+        return getTokenKey() != null && getTokenKey().equals(((RevokedToken) o).getTokenKey());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getTokenKey());
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RevokedToken{" +
+            "tokenKey=" + getTokenKey() +
+            ", revokedBefore=" + getRevokedBefore() +
+            ", expiresAt=" + getExpiresAt() +
+            ", revokedAt=" + getRevokedAt() +
+            "}";
+    }
+}
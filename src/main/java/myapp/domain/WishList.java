@@ -28,8 +28,8 @@ public class WishList implements Serializable {
     @Column(name = "title", length = 100, nullable = false)
     private String title;
 
-    @Column(name = "restricted")
-    private Boolean restricted;
+    @Column(name = "restricted", nullable = false)
+    private Boolean restricted = false;
 
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "wishList")
     @JsonIgnoreProperties(value = { "wishList", "order", "categories" }, allowSetters = true)
@@ -39,6 +39,10 @@ public class WishList implements Serializable {
     @JsonIgnoreProperties(value = { "wishLists", "addresses", "orders" }, allowSetters = true)
     private Customer customer;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -54,6 +58,19 @@ public class WishList implements Serializable {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public WishList version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getTitle() {
         return this.title;
     }
@@ -126,6 +143,18 @@ public class WishList implements Serializable {
 
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
+    /**
+     * A wish list without an explicit restriction is public, so the visibility queries only have to test
+     * {@code restricted = false}.
+     */
+    @PrePersist
+    @PreUpdate
+    public void defaultRestricted() {
+        if (this.restricted == null) {
+            this.restricted = false;
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -0,0 +1,9 @@
+package myapp.domain.enumeration;
+
+/**
+ * The MailStatus enumeration.
+ */
+public enum MailStatus {
+    PENDING,
+    DEAD,
+}
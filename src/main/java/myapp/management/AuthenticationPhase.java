@@ -0,0 +1,21 @@
+package myapp.management;
+
+/**
+ * The timed phases of authentication.
+ */
+public enum AuthenticationPhase {
+    USER_LOOKUP("user-lookup"),
+    PASSWORD_VERIFICATION("password-verification"),
+    JWT_ENCODE("jwt-encode"),
+    JWT_DECODE("jwt-decode");
+
+    private final String tag;
+
+    AuthenticationPhase(String tag) {
+        this.tag = tag;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+}
@@ -0,0 +1,26 @@
+package myapp.management;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event recorded for each {@link AuthenticationPhase}, so phases can be correlated with GC, lock and I/O
+ * events in a flight recording.
+ */
+@Name("myapp.AuthenticationPhase")
+@Label("Authentication Phase")
+@Category({ "Application", "Security" })
+@Description("A phase of a user authentication or of a token verification")
+@StackTrace(false)
+class AuthenticationPhaseEvent extends Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Success")
+    boolean success;
+}
@@ -0,0 +1,67 @@
+package myapp.management;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Management endpoint breaking the {@code /api/authenticate} latency down into its {@link AuthenticationPhase}s.
+ * <p>
+ * Durations are in milliseconds; {@code authenticate} sums all the {@code /api/authenticate} requests.
+ */
+@Component
+@Endpoint(id = "authtimings")
+public class AuthenticationTimingsEndpoint {
+
+    private static final String HTTP_SERVER_REQUESTS_METER_NAME = "http.server.requests";
+
+    private final SecurityMetersService securityMetersService;
+
+    private final MeterRegistry registry;
+
+    public AuthenticationTimingsEndpoint(SecurityMetersService securityMetersService, MeterRegistry registry) {
+        this.securityMetersService = securityMetersService;
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> authenticationTimings() {
+        Map<String, Map<String, Object>> timings = new LinkedHashMap<>();
+        long count = 0;
+        double totalTime = 0;
+        double max = 0;
+        for (Timer timer : registry.find(HTTP_SERVER_REQUESTS_METER_NAME).tag("uri", "/api/authenticate").tag("method", "POST").timers()) {
+            count += timer.count();
+            totalTime += timer.totalTime(TimeUnit.MILLISECONDS);
+            max = Math.max(max, timer.max(TimeUnit.MILLISECONDS));
+        }
+        Map<String, Object> authenticate = new LinkedHashMap<>();
+        authenticate.put("count", count);
+        authenticate.put("mean", count == 0 ? 0 : totalTime / count);
+        authenticate.put("max", max);
+        timings.put("authenticate", authenticate);
+
+        for (AuthenticationPhase phase : AuthenticationPhase.values()) {
+            timings.put(phase.getTag(), describe(securityMetersService.getAuthenticationPhaseTimer(phase).takeSnapshot()));
+        }
+        return timings;
+    }
+
+    private static Map<String, Object> describe(HistogramSnapshot snapshot) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("count", snapshot.count());
+        description.put("mean", snapshot.mean(TimeUnit.MILLISECONDS));
+        description.put("max", snapshot.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            description.put("p" + Math.round(percentile.percentile() * 100), percentile.value(TimeUnit.MILLISECONDS));
+        }
+        return description;
+    }
+}
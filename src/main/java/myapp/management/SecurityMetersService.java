@@ -1,7 +1,13 @@
 package myapp.management;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,16 +19,103 @@ public class SecurityMetersService {
     public static final String INVALID_TOKENS_METER_BASE_UNIT = "errors";
     public static final String INVALID_TOKENS_METER_CAUSE_DIMENSION = "cause";
 
+    public static final String PASSWORD_HASHING_QUEUE_WAIT_METER_NAME = "security.password-hashing.queue-wait";
+    public static final String PASSWORD_HASHING_QUEUE_WAIT_METER_DESCRIPTION =
+        "Time password hashing operations spend waiting for a hashing thread.";
+    public static final String PASSWORD_HASHING_DURATION_METER_NAME = "security.password-hashing.duration";
+    public static final String PASSWORD_HASHING_DURATION_METER_DESCRIPTION = "Time spent computing password hashes.";
+    public static final String PASSWORD_HASHING_REJECTED_METER_NAME = "security.password-hashing.rejected";
+    public static final String PASSWORD_HASHING_REJECTED_METER_DESCRIPTION =
+        "Indicates password hashing operations rejected because the hashing pool was saturated.";
+    public static final String PASSWORD_HASHING_OPERATION_DIMENSION = "operation";
+
+    public static final String JWT_CACHE_METER_NAME = "security.jwt-cache.requests";
+    public static final String JWT_CACHE_METER_DESCRIPTION = "Indicates lookups of presented tokens in the verified tokens cache.";
+    public static final String JWT_CACHE_RESULT_DIMENSION = "result";
+    public static final String JWT_CACHE_SIZE_METER_NAME = "security.jwt-cache.size";
+    public static final String JWT_CACHE_SIZE_METER_DESCRIPTION = "Number of verified tokens in the cache.";
+
+    public static final String REVOKED_TOKENS_SIZE_METER_NAME = "security.revoked-tokens.size";
+    public static final String REVOKED_TOKENS_SIZE_METER_DESCRIPTION = "Number of token revocations held in memory.";
+
+    public static final String LOGIN_THROTTLED_METER_NAME = "security.login-throttle.rejected";
+    public static final String LOGIN_THROTTLED_METER_DESCRIPTION = "Indicates authentication attempts rejected by the login throttle.";
+    public static final String LOGIN_THROTTLED_KEY_DIMENSION = "key";
+
+    public static final String AUTHENTICATION_PHASE_METER_NAME = "security.authentication.phase";
+    public static final String AUTHENTICATION_PHASE_METER_DESCRIPTION = "Time spent in each phase of authentication.";
+    public static final String AUTHENTICATION_PHASE_DIMENSION = "phase";
+
+    private final MeterRegistry registry;
+
     private final Counter tokenInvalidSignatureCounter;
     private final Counter tokenExpiredCounter;
     private final Counter tokenUnsupportedCounter;
     private final Counter tokenMalformedCounter;
+    private final Counter tokenRevokedCounter;
+
+    private final Timer passwordEncodeQueueWaitTimer;
+    private final Timer passwordMatchesQueueWaitTimer;
+    private final Timer passwordEncodeTimer;
+    private final Timer passwordMatchesTimer;
+    private final Counter passwordHashingRejectedCounter;
+
+    private final Counter jwtCacheHitCounter;
+    private final Counter jwtCacheMissCounter;
+
+    private final Counter loginThrottledByLoginCounter;
+    private final Counter loginThrottledByIpCounter;
+
+    private final Map<AuthenticationPhase, Timer> authenticationPhaseTimers = new EnumMap<>(AuthenticationPhase.class);
 
     public SecurityMetersService(MeterRegistry registry) {
+        this.registry = registry;
+
         this.tokenInvalidSignatureCounter = invalidTokensCounterForCauseBuilder("invalid-signature").register(registry);
         this.tokenExpiredCounter = invalidTokensCounterForCauseBuilder("expired").register(registry);
         this.tokenUnsupportedCounter = invalidTokensCounterForCauseBuilder("unsupported").register(registry);
         this.tokenMalformedCounter = invalidTokensCounterForCauseBuilder("malformed").register(registry);
+        this.tokenRevokedCounter = invalidTokensCounterForCauseBuilder("revoked").register(registry);
+
+        this.passwordEncodeQueueWaitTimer = passwordHashingTimerBuilder(
+            PASSWORD_HASHING_QUEUE_WAIT_METER_NAME,
+            PASSWORD_HASHING_QUEUE_WAIT_METER_DESCRIPTION,
+            "encode"
+        ).register(registry);
+        this.passwordMatchesQueueWaitTimer = passwordHashingTimerBuilder(
+            PASSWORD_HASHING_QUEUE_WAIT_METER_NAME,
+            PASSWORD_HASHING_QUEUE_WAIT_METER_DESCRIPTION,
+            "matches"
+        ).register(registry);
+        this.passwordEncodeTimer = passwordHashingTimerBuilder(
+            PASSWORD_HASHING_DURATION_METER_NAME,
+            PASSWORD_HASHING_DURATION_METER_DESCRIPTION,
+            "encode"
+        ).register(registry);
+        this.passwordMatchesTimer = passwordHashingTimerBuilder(
+            PASSWORD_HASHING_DURATION_METER_NAME,
+            PASSWORD_HASHING_DURATION_METER_DESCRIPTION,
+            "matches"
+        ).register(registry);
+        this.passwordHashingRejectedCounter = Counter.builder(PASSWORD_HASHING_REJECTED_METER_NAME)
+            .description(PASSWORD_HASHING_REJECTED_METER_DESCRIPTION)
+            .register(registry);
+
+        this.jwtCacheHitCounter = jwtCacheCounterForResultBuilder("hit").register(registry);
+        this.jwtCacheMissCounter = jwtCacheCounterForResultBuilder("miss").register(registry);
+
+        this.loginThrottledByLoginCounter = loginThrottledCounterForKeyBuilder("login").register(registry);
+        this.loginThrottledByIpCounter = loginThrottledCounterForKeyBuilder("ip").register(registry);
+
+        for (AuthenticationPhase phase : AuthenticationPhase.values()) {
+            Timer timer = Timer.builder(AUTHENTICATION_PHASE_METER_NAME)
+                .description(AUTHENTICATION_PHASE_METER_DESCRIPTION)
+                .tag(AUTHENTICATION_PHASE_DIMENSION, phase.getTag())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+            this.authenticationPhaseTimers.put(phase, timer);
+        }
     }
 
     private Counter.Builder invalidTokensCounterForCauseBuilder(String cause) {
@@ -32,6 +125,58 @@ public class SecurityMetersService {
             .tag(INVALID_TOKENS_METER_CAUSE_DIMENSION, cause);
     }
 
+    private Timer.Builder passwordHashingTimerBuilder(String name, String description, String operation) {
+        return Timer.builder(name).description(description).tag(PASSWORD_HASHING_OPERATION_DIMENSION, operation).publishPercentileHistogram();
+    }
+
+    private Counter.Builder jwtCacheCounterForResultBuilder(String result) {
+        return Counter.builder(JWT_CACHE_METER_NAME).description(JWT_CACHE_METER_DESCRIPTION).tag(JWT_CACHE_RESULT_DIMENSION, result);
+    }
+
+    private Counter.Builder loginThrottledCounterForKeyBuilder(String key) {
+        return Counter.builder(LOGIN_THROTTLED_METER_NAME).description(LOGIN_THROTTLED_METER_DESCRIPTION).tag(LOGIN_THROTTLED_KEY_DIMENSION, key);
+    }
+
+    /**
+     * Run a phase of authentication, recording its duration in a timer and in a JFR event.
+     *
+     * @param phase the phase.
+     * @param action the work of the phase.
+     * @param <T> the type of the result.
+     * @return the result of the action.
+     */
+    public <T> T timeAuthenticationPhase(AuthenticationPhase phase, Supplier<T> action) {
+        AuthenticationPhaseEvent event = new AuthenticationPhaseEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = action.get();
+            success = true;
+            return result;
+        } finally {
+            this.authenticationPhaseTimers.get(phase).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = phase.getTag();
+                event.success = success;
+                event.commit();
+            }
+        }
+    }
+
+    public Timer getAuthenticationPhaseTimer(AuthenticationPhase phase) {
+        return this.authenticationPhaseTimers.get(phase);
+    }
+
+    public void registerJwtCacheSize(Supplier<Number> size) {
+        Gauge.builder(JWT_CACHE_SIZE_METER_NAME, size).description(JWT_CACHE_SIZE_METER_DESCRIPTION).register(registry);
+    }
+
+    public void registerRevokedTokensSize(Supplier<Number> size) {
+        Gauge.builder(REVOKED_TOKENS_SIZE_METER_NAME, size).description(REVOKED_TOKENS_SIZE_METER_DESCRIPTION).register(registry);
+    }
+
     public void trackTokenInvalidSignature() {
         this.tokenInvalidSignatureCounter.increment();
     }
@@ -47,4 +192,36 @@ public class SecurityMetersService {
     public void trackTokenMalformed() {
         this.tokenMalformedCounter.increment();
     }
+
+    public void trackTokenRevoked() {
+        this.tokenRevokedCounter.increment();
+    }
+
+    public void trackPasswordHashingQueueWait(boolean encode, long nanos) {
+        (encode ? this.passwordEncodeQueueWaitTimer : this.passwordMatchesQueueWaitTimer).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackPasswordHashing(boolean encode, long nanos) {
+        (encode ? this.passwordEncodeTimer : this.passwordMatchesTimer).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void trackPasswordHashingRejected() {
+        this.passwordHashingRejectedCounter.increment();
+    }
+
+    public void trackJwtCacheHit() {
+        this.jwtCacheHitCounter.increment();
+    }
+
+    public void trackJwtCacheMiss() {
+        this.jwtCacheMissCounter.increment();
+    }
+
+    public void trackLoginThrottledByLogin() {
+        this.loginThrottledByLoginCounter.increment();
+    }
+
+    public void trackLoginThrottledByIp() {
+        this.loginThrottledByIpCounter.increment();
+    }
 }
@@ -1,7 +1,15 @@
 package myapp.repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 import myapp.domain.Address;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +17,48 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AddressRepository extends JpaRepository<Address, Long> {}
+public interface AddressRepository extends JpaRepository<Address, Long> {
+    Optional<Address> findFirstByCustomerIdAndNormalizedHashOrderByIdAsc(Long customerId, String normalizedHash);
+
+    List<Address> findAllByNormalizedHashIsNullOrderByIdAsc(Pageable pageable);
+
+    @Query(
+        "select min(address.id) from Address address where address.customer is not null and address.normalizedHash is not null " +
+        "group by address.customer.id, address.normalizedHash having count(address) > 1 order by min(address.id)"
+    )
+    List<Long> findDuplicateKeeperIds(Pageable pageable);
+
+    @Query(
+        "select address.id, keeper.id from Address address, Address keeper where keeper.id in :keeperIds " +
+        "and address.customer = keeper.customer and address.normalizedHash = keeper.normalizedHash and address.id > keeper.id"
+    )
+    List<Object[]> findDuplicateIdsByKeeperIds(@Param("keeperIds") Collection<Long> keeperIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query(
+        value = "update jhi_order set shipping_address_id = :keeperId, version = version + 1 where shipping_address_id in (:addressIds)",
+        nativeQuery = true
+    )
+    int repointShippingAddress(@Param("addressIds") Collection<Long> addressIds, @Param("keeperId") Long keeperId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Address address where address.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select address from Address address where address.customer.id = :customerId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Address> streamAllByCustomerId(@Param("customerId") Long customerId);
+
+    @Query("select address.version from Address address where address.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Stream a page of addresses, read from a database cursor rather than loaded at once.
+     *
+     * @param pageable the pagination information.
+     * @return the addresses, to be closed by the caller.
+     */
+    @Query("select address from Address address")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<Address> streamAllBy(Pageable pageable);
+}
@@ -1,11 +1,15 @@
 package myapp.repository;
 
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import myapp.domain.Category;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -27,4 +31,17 @@ public interface CategoryRepository extends CategoryRepositoryWithBagRelationshi
     default Page<Category> findAllWithEagerRelationships(Pageable pageable) {
         return this.fetchBagRelationships(this.findAll(pageable));
     }
+
+    @Query("select category.version from Category category where category.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Stream a page of categories, read from a database cursor rather than loaded at once.
+     *
+     * @param pageable the pagination information.
+     * @return the categories, to be closed by the caller.
+     */
+    @Query("select category from Category category")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<Category> streamAllBy(Pageable pageable);
 }
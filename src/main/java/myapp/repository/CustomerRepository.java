@@ -1,7 +1,13 @@
 package myapp.repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.Optional;
+import java.util.stream.Stream;
 import myapp.domain.Customer;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +15,26 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {}
+public interface CustomerRepository extends JpaRepository<Customer, Long> {
+    /**
+     * Stream the autocomplete terms of every customer, as {@code [id, firstName, lastName, email]} tuples.
+     *
+     * @return the tuples, to be closed by the caller.
+     */
+    @Query("select customer.id, customer.firstName, customer.lastName, customer.email from Customer customer")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamAllSuggestionTerms();
+
+    @Query("select customer.version from Customer customer where customer.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Stream a page of customers, read from a database cursor rather than loaded at once.
+     *
+     * @param pageable the pagination information.
+     * @return the customers, to be closed by the caller.
+     */
+    @Query("select customer from Customer customer")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<Customer> streamAllBy(Pageable pageable);
+}
@@ -0,0 +1,41 @@
+package myapp.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import myapp.domain.MailOutboxMessage;
+import myapp.domain.enumeration.MailStatus;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the MailOutboxMessage entity.
+ */
+@Repository
+public interface MailOutboxMessageRepository extends JpaRepository<MailOutboxMessage, Long> {
+    /**
+     * Lock the pending messages due for delivery, skipping the ones already locked by another instance.
+     *
+     * @param status the status of the messages, {@link MailStatus#PENDING}.
+     * @param now the current time.
+     * @param pageable the size of the batch.
+     * @return the due messages, oldest first.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query(
+        "select message from MailOutboxMessage message where message.status = :status and message.nextAttemptAt <= :now order by message.nextAttemptAt"
+    )
+    List<MailOutboxMessage> findDueForUpdate(@Param("status") MailStatus status, @Param("now") Instant now, Pageable pageable);
+
+    long countByStatus(MailStatus status);
+
+    @Modifying
+    @Query("delete from MailOutboxMessage message where message.id in :ids")
+    void deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+}
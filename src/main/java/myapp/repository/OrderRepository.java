@@ -1,7 +1,13 @@
 package myapp.repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.Optional;
+import java.util.stream.Stream;
 import myapp.domain.Order;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +15,21 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {}
+public interface OrderRepository extends JpaRepository<Order, Long> {
+    @Query("select customerOrder from Order customerOrder where customerOrder.customer.id = :customerId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Order> streamAllByCustomerId(@Param("customerId") Long customerId);
+
+    @Query("select customerOrder.version from Order customerOrder where customerOrder.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Stream a page of orders, read from a database cursor rather than loaded at once.
+     *
+     * @param pageable the pagination information.
+     * @return the orders, to be closed by the caller.
+     */
+    @Query("select customerOrder from Order customerOrder")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<Order> streamAllBy(Pageable pageable);
+}
@@ -1,7 +1,13 @@
 package myapp.repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.Optional;
+import java.util.stream.Stream;
 import myapp.domain.Product;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +15,39 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {}
+public interface ProductRepository extends JpaRepository<Product, Long> {
+    /**
+     * Stream the autocomplete terms of every product, as {@code [id, title]} tuples.
+     *
+     * @return the tuples, to be closed by the caller.
+     */
+    @Query("select product.id, product.title from Product product")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamAllSuggestionTerms();
+
+    /**
+     * Stream the products of a customer, in one of its wish lists or orders.
+     *
+     * @param customerId the customer id.
+     * @return the products, to be closed by the caller.
+     */
+    @Query(
+        "select product from Product product left join product.wishList wishList left join product.order productOrder " +
+        "where wishList.customer.id = :customerId or productOrder.customer.id = :customerId"
+    )
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Product> streamAllByCustomerId(@Param("customerId") Long customerId);
+
+    @Query("select product.version from Product product where product.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Stream a page of products, read from a database cursor rather than loaded at once.
+     *
+     * @param pageable the pagination information.
+     * @return the products, to be closed by the caller.
+     */
+    @Query("select product from Product product")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<Product> streamAllBy(Pageable pageable);
+}
@@ -0,0 +1,26 @@
+package myapp.repository;
+
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.stream.Stream;
+import myapp.domain.RevokedToken;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the RevokedToken entity.
+ */
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<RevokedToken> streamAllByExpiresAtAfter(Instant instant);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<RevokedToken> streamAllByRevokedAtAfter(Instant instant);
+
+    @Modifying
+    @Query("delete from RevokedToken revokedToken where revokedToken.expiresAt <= :instant")
+    int deleteAllExpiredAt(@Param("instant") Instant instant);
+}
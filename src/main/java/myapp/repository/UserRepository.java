@@ -1,30 +1,135 @@
 package myapp.repository;
 
+import jakarta.persistence.QueryHint;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import myapp.domain.User;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Spring Data JPA repository for the {@link User} entity.
+ * <p>
+ * Case-insensitive email lookups are written against {@code lower(email)} so they can use the
+ * {@code ix_user_email_lower} functional index.
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findOneByActivationKey(String activationKey);
-    List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
     Optional<User> findOneByResetKey(String resetKey);
-    Optional<User> findOneByEmailIgnoreCase(String email);
+
+    @Query("select user from User user where lower(user.email) = lower(:email)")
+    Optional<User> findOneByEmailIgnoreCase(@Param("email") String email);
+
     Optional<User> findOneByLogin(String login);
 
+    /**
+     * Find the users holding the given login or email, in a single query.
+     *
+     * @param login the lowercase login.
+     * @param email the email, compared case-insensitively.
+     * @return at most two users: the one holding the login and the one holding the email.
+     */
+    @Query("select user from User user where user.login = :login or lower(user.email) = lower(:email)")
+    List<User> findAllByLoginOrEmailIgnoreCase(@Param("login") String login, @Param("email") String email);
+
+    @Query("select user.login from User user")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamAllLogins();
+
+    @Query("select lower(user.email) from User user where user.email is not null")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamAllEmails();
+
+    /**
+     * Stream the logins and emails of the users modified after a date.
+     * <p>
+     * Served by the {@code ix_user_last_modified_date} index.
+     *
+     * @param since the date.
+     * @return the login and email pairs, to be closed by the caller.
+     */
+    @Query("select user.login, user.email from User user where user.lastModifiedDate > :since")
+    Stream<Object[]> streamLoginsAndEmailsByLastModifiedDateAfter(@Param("since") Instant since);
+
     @EntityGraph(attributePaths = "authorities")
     Optional<User> findOneWithAuthoritiesByLogin(String login);
 
     @EntityGraph(attributePaths = "authorities")
-    Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
+    @Query("select user from User user where lower(user.email) = lower(:email)")
+    Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(@Param("email") String email);
 
     Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
+
+    /**
+     * Get a page of user ids, the first phase of listing users with their authorities.
+     * <p>
+     * Paging ids rather than a fetch join keeps the limit in the database instead of in memory.
+     *
+     * @param pageable the pagination information.
+     * @return the page of ids.
+     */
+    @Query(value = "select user.id from User user", countQuery = "select count(user) from User user")
+    Page<Long> findAllIds(Pageable pageable);
+
+    @EntityGraph(attributePaths = "authorities")
+    @Query("select user from User user where user.id in :ids")
+    List<User> findAllWithAuthoritiesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find the next ids of the users never activated, in id order.
+     * <p>
+     * Served by the {@code ix_user_activated_created_date} index.
+     *
+     * @param createdBefore the creation date the users must be older than.
+     * @param afterId the id to start after.
+     * @param pageable the chunk size.
+     * @return the ids.
+     */
+    @Query(
+        "select user.id from User user where user.activated = false and user.activationKey is not null " +
+        "and user.createdDate < :createdBefore and user.id > :afterId order by user.id"
+    )
+    List<Long> findNotActivatedUserIds(
+        @Param("createdBefore") Instant createdBefore,
+        @Param("afterId") Long afterId,
+        Pageable pageable
+    );
+
+    /**
+     * Lock the users of an id range still never activated, so they cannot be activated until they are deleted.
+     *
+     * @param fromId the first id of the range.
+     * @param toId the last id of the range.
+     * @param createdBefore the creation date the users must be older than.
+     * @return the ids of the locked users.
+     */
+    @Query(
+        value = "select id from jhi_user where id between :fromId and :toId and activated = false " +
+        "and activation_key is not null and created_date < :createdBefore for update",
+        nativeQuery = true
+    )
+    List<Long> lockNotActivatedUserIds(
+        @Param("fromId") Long fromId,
+        @Param("toId") Long toId,
+        @Param("createdBefore") Instant createdBefore
+    );
+
+    @Modifying
+    @Query(value = "delete from jhi_user_authority where user_id in :ids", nativeQuery = true)
+    int deleteUserAuthoritiesByUserIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from User user where user.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
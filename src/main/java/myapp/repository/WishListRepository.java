@@ -1,12 +1,38 @@
 package myapp.repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 import myapp.domain.WishList;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Spring Data JPA repository for the WishList entity.
+ * <p>
+ * The {@code VisibleTo} queries only return the wish lists a user may see: the non-restricted ones, served by the
+ * {@code ix_wish_list_unrestricted} partial index, and the ones of the customer sharing the user's email.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface WishListRepository extends JpaRepository<WishList, Long> {}
+public interface WishListRepository extends JpaRepository<WishList, Long> {
+    String VISIBLE_TO_LOGIN =
+        "(wishList.restricted = false or wishList.customer.id in " +
+        "(select customer.id from Customer customer, User user where user.login = :login and lower(customer.email) = user.email))";
+
+    @Query("select wishList from WishList wishList where " + VISIBLE_TO_LOGIN)
+    List<WishList> findAllVisibleTo(@Param("login") String login);
+
+    @Query("select wishList from WishList wishList where wishList.id = :id and " + VISIBLE_TO_LOGIN)
+    Optional<WishList> findOneVisibleTo(@Param("id") Long id, @Param("login") String login);
+
+    @Query("select wishList from WishList wishList where wishList.customer.id = :customerId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<WishList> streamAllByCustomerId(@Param("customerId") Long customerId);
+
+    @Query("select wishList.version from WishList wishList where wishList.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+}
@@ -0,0 +1,124 @@
+package myapp.security;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import myapp.domain.Authority;
+import myapp.repository.AuthorityRepository;
+import myapp.service.util.TransactionCallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory registry of the authorities, so resolving an authority name never queries the database.
+ * <p>
+ * The authorities are a handful of rows that almost never change. They are held in an immutable snapshot behind a
+ * volatile reference: readers never lock, and {@link #refresh()} publishes a whole new snapshot. Writers to the
+ * authority table must call {@link #refreshAfterCommit()}.
+ */
+@Component
+public class AuthorityRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AuthorityRegistry.class);
+
+    private final AuthorityRepository authorityRepository;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    public AuthorityRegistry(AuthorityRepository authorityRepository) {
+        this.authorityRepository = authorityRepository;
+    }
+
+    /**
+     * Load the authorities once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        refresh();
+    }
+
+    /**
+     * Reload the authorities from the database.
+     * <p>
+     * Refreshes are serialized, so a slow refresh can never overwrite the snapshot of a later one.
+     */
+    public void refresh() {
+        // a lock rather than a monitor, which would pin a virtual thread to its carrier during the query
+        refreshLock.lock();
+        try {
+            List<String> names = authorityRepository.findAll().stream().map(Authority::getName).sorted().toList();
+            snapshot = new Snapshot(names);
+            LOG.debug("Authority registry loaded with {} authorities", names.size());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Reload the authorities once the current transaction commits.
+     */
+    public void refreshAfterCommit() {
+        TransactionCallbacks.runAfterCommit(this::refresh);
+    }
+
+    /**
+     * Get the names of all the authorities.
+     *
+     * @return the names, sorted.
+     */
+    public List<String> getNames() {
+        return snapshot().names;
+    }
+
+    /**
+     * Check whether an authority exists.
+     *
+     * @param name the name of the authority.
+     * @return {@code true} if the authority exists.
+     */
+    public boolean contains(String name) {
+        return name != null && snapshot().grantedAuthorities.containsKey(name);
+    }
+
+    /**
+     * Get the shared {@link GrantedAuthority} of an authority.
+     *
+     * @param name the name of the authority.
+     * @return the granted authority, new if the authority is not registered yet.
+     */
+    public GrantedAuthority getGrantedAuthority(String name) {
+        GrantedAuthority grantedAuthority = snapshot().grantedAuthorities.get(name);
+        return grantedAuthority != null ? grantedAuthority : new SimpleGrantedAuthority(name);
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // used before the application is ready
+            refresh();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private static final class Snapshot {
+
+        final List<String> names;
+
+        final Map<String, GrantedAuthority> grantedAuthorities;
+
+        Snapshot(List<String> names) {
+            this.names = names;
+            this.grantedAuthorities = names.stream().collect(Collectors.toUnmodifiableMap(Function.identity(), SimpleGrantedAuthority::new));
+        }
+    }
+}
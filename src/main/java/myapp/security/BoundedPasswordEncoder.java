@@ -0,0 +1,102 @@
+package myapp.security;
+
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import myapp.management.AuthenticationPhase;
+import myapp.management.SecurityMetersService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * A {@link PasswordEncoder} computing hashes on a dedicated, bounded pool of threads.
+ * <p>
+ * Hashing is deliberately slow: running it on the request threads lets a burst of logins starve every other
+ * request. Here at most {@code poolSize} hashes run at once and at most {@code queueCapacity} wait; beyond that
+ * the operation is rejected with a {@link PasswordHashingRejectedException} instead of queueing without limit.
+ * Only the hashes run on the pool: the caller waits for them, and does the rest of its work on its own thread.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+
+    private final SecurityMetersService securityMetersService;
+
+    private final ThreadPoolExecutor executor;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int poolSize, int queueCapacity, SecurityMetersService securityMetersService) {
+        this.delegate = delegate;
+        this.securityMetersService = securityMetersService;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        );
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hash(true, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return securityMetersService.timeAuthenticationPhase(AuthenticationPhase.PASSWORD_VERIFICATION, () ->
+            hash(false, () -> delegate.matches(rawPassword, encodedPassword))
+        );
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T hash(boolean encode, Supplier<T> operation) {
+        long submitted = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(
+                () -> {
+                    long start = System.nanoTime();
+                    securityMetersService.trackPasswordHashingQueueWait(encode, start - submitted);
+                    T result = operation.get();
+                    securityMetersService.trackPasswordHashing(encode, System.nanoTime() - start);
+                    return result;
+                },
+                executor
+            );
+        } catch (RejectedExecutionException e) {
+            securityMetersService.trackPasswordHashingRejected();
+            throw new PasswordHashingRejectedException();
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,82 @@
+package myapp.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import myapp.management.SecurityMetersService;
+import myapp.service.util.ExpiringCache;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * A {@link JwtDecoder} remembering the tokens it already verified.
+ * <p>
+ * Clients send the same token with every request, and verifying it means a HMAC computation and a full claims
+ * parse. The headers and claims of the verified tokens are cached by SHA-256 digest, until the earliest of their
+ * expiration and the cache time to live. The cache never holds the bearer tokens themselves: on a hit, the
+ * {@link Jwt} is rebuilt around the token being decoded. Tokens failing verification are never cached.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+
+    private final ExpiringCache<String, VerifiedToken> verifiedTokens;
+
+    private final SecurityMetersService securityMetersService;
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maximumSize, Duration timeToLive, SecurityMetersService securityMetersService) {
+        this.delegate = delegate;
+        this.verifiedTokens = new ExpiringCache<>(maximumSize, timeToLive);
+        this.securityMetersService = securityMetersService;
+        securityMetersService.registerJwtCacheSize(verifiedTokens::size);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = digest(token);
+        VerifiedToken verified = verifiedTokens.get(key);
+        if (verified != null) {
+            securityMetersService.trackJwtCacheHit();
+            return new Jwt(token, verified.issuedAt, verified.expiresAt, verified.headers, verified.claims);
+        }
+        securityMetersService.trackJwtCacheMiss();
+        Jwt jwt = delegate.decode(token);
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt != null) {
+            verifiedTokens.put(key, new VerifiedToken(jwt), Duration.between(Instant.now(), expiresAt));
+        }
+        return jwt;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class VerifiedToken {
+
+        final Instant issuedAt;
+
+        final Instant expiresAt;
+
+        final Map<String, Object> headers;
+
+        final Map<String, Object> claims;
+
+        VerifiedToken(Jwt jwt) {
+            this.issuedAt = jwt.getIssuedAt();
+            this.expiresAt = jwt.getExpiresAt();
+            this.headers = jwt.getHeaders();
+            this.claims = jwt.getClaims();
+        }
+    }
+}
@@ -3,60 +3,112 @@ package myapp.security;
 import java.util.*;
 import myapp.domain.Authority;
 import myapp.domain.User;
+import myapp.management.AuthenticationPhase;
+import myapp.management.SecurityMetersService;
 import myapp.repository.UserRepository;
 import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
- * Authenticate a user from the database.
+ * Authenticate a user from the database, through the {@link UserDetailsCache}.
+ * <p>
+ * Also upgrades the stored password hash after a successful login, when it was computed with a lower cost than
+ * the current one.
  */
 @Component("userDetailsService")
-public class DomainUserDetailsService implements UserDetailsService {
+public class DomainUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private static final Logger LOG = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final UserDetailsCache userDetailsCache;
+
+    private final AuthorityRegistry authorityRegistry;
+
+    private final SecurityMetersService securityMetersService;
+
+    public DomainUserDetailsService(
+        UserRepository userRepository,
+        UserDetailsCache userDetailsCache,
+        AuthorityRegistry authorityRegistry,
+        SecurityMetersService securityMetersService
+    ) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
+        this.authorityRegistry = authorityRegistry;
+        this.securityMetersService = securityMetersService;
     }
 
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(final String login) {
         LOG.debug("Authenticating {}", login);
+        return securityMetersService.timeAuthenticationPhase(AuthenticationPhase.USER_LOOKUP, () -> loadUser(login));
+    }
 
+    private UserDetails loadUser(String login) {
         if (new EmailValidator().isValid(login, null)) {
+            UserDetails cached = userDetailsCache.getByEmail(login);
+            if (cached != null) {
+                return cached;
+            }
+            long generation = userDetailsCache.generation();
             return userRepository
                 .findOneWithAuthoritiesByEmailIgnoreCase(login)
-                .map(user -> createSpringSecurityUser(login, user))
+                .map(user -> createSpringSecurityUser(generation, login, user))
                 .orElseThrow(() -> new UsernameNotFoundException("User with email " + login + " was not found in the database"));
         }
 
+        UserDetails cached = userDetailsCache.getByLogin(login);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = userDetailsCache.generation();
         String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
         return userRepository
             .findOneWithAuthoritiesByLogin(lowercaseLogin)
-            .map(user -> createSpringSecurityUser(lowercaseLogin, user))
+            .map(user -> createSpringSecurityUser(generation, lowercaseLogin, user))
             .orElseThrow(() -> new UsernameNotFoundException("User " + lowercaseLogin + " was not found in the database"));
     }
 
-    private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
+    private org.springframework.security.core.userdetails.User createSpringSecurityUser(long generation, String lowercaseLogin, User user) {
         if (!user.isActivated()) {
             throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
         }
-        List<SimpleGrantedAuthority> grantedAuthorities = user
+        List<GrantedAuthority> grantedAuthorities = user
             .getAuthorities()
             .stream()
             .map(Authority::getName)
-            .map(SimpleGrantedAuthority::new)
+            .map(authorityRegistry::getGrantedAuthority)
             .toList();
-        return new org.springframework.security.core.userdetails.User(user.getLogin(), user.getPassword(), grantedAuthorities);
+        org.springframework.security.core.userdetails.User userDetails = new org.springframework.security.core.userdetails.User(
+            user.getLogin(),
+            user.getPassword(),
+            grantedAuthorities
+        );
+        userDetailsCache.put(generation, user.getEmail(), userDetails);
+        return userDetails;
+    }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        LOG.debug("Upgrading password hash of {}", userDetails.getUsername());
+        userRepository
+            .findOneByLogin(userDetails.getUsername())
+            .ifPresent(user -> {
+                user.setPassword(newPassword);
+                userDetailsCache.evict(user.getLogin(), user.getEmail());
+            });
+        return org.springframework.security.core.userdetails.User.withUserDetails(userDetails).password(newPassword).build();
     }
 }
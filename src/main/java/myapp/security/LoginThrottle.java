@@ -0,0 +1,110 @@
+package myapp.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.Locale;
+import myapp.config.ApplicationProperties;
+import myapp.management.SecurityMetersService;
+import myapp.service.util.KeyedRateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Throttle of the credential checking endpoints, per login and per client IP.
+ * <p>
+ * Attempts are checked against lock-free token buckets before any database lookup or password hash, so a
+ * credential stuffing run is turned away for the cost of two compare-and-sets.
+ * <p>
+ * The client IP is the remote address of the request, unless it is one of the
+ * {@code application.login-throttle.trusted-proxies}: the {@code X-Forwarded-For} header is then read from the
+ * right, skipping the trusted proxies, so a client cannot pick its IP by sending the header itself.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoginThrottle.class);
+
+    private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+
+    private final KeyedRateLimiter loginLimiter;
+
+    private final KeyedRateLimiter ipLimiter;
+
+    private final List<IpAddressMatcher> trustedProxies;
+
+    private final SecurityMetersService securityMetersService;
+
+    public LoginThrottle(ApplicationProperties applicationProperties, SecurityMetersService securityMetersService) {
+        ApplicationProperties.LoginThrottle properties = applicationProperties.getLoginThrottle();
+        this.loginLimiter = new KeyedRateLimiter(properties.getMaximumKeys(), properties.getLoginCapacity(), properties.getLoginRefillPeriod());
+        this.ipLimiter = new KeyedRateLimiter(properties.getMaximumKeys(), properties.getIpCapacity(), properties.getIpRefillPeriod());
+        this.trustedProxies = properties.getTrustedProxies().stream().map(IpAddressMatcher::new).toList();
+        this.securityMetersService = securityMetersService;
+    }
+
+    /**
+     * Record an attempt to use the credentials of a user.
+     *
+     * @param login the login or email of the user, in any case.
+     * @param request the HTTP request of the attempt.
+     * @throws LoginThrottledException if the client or the user is over its rate.
+     */
+    public void checkAttempt(String login, HttpServletRequest request) {
+        String ip = clientIp(request);
+        if (ip != null && !ipLimiter.tryAcquire(ip)) {
+            LOG.debug("Throttling attempts from {}", ip);
+            securityMetersService.trackLoginThrottledByIp();
+            throw new LoginThrottledException();
+        }
+        if (login != null && !loginLimiter.tryAcquire(login.toLowerCase(Locale.ENGLISH))) {
+            LOG.debug("Throttling attempts for {}", login);
+            securityMetersService.trackLoginThrottledByLogin();
+            throw new LoginThrottledException();
+        }
+    }
+
+    /**
+     * Get the IP address of the client of a request.
+     *
+     * @param request the HTTP request.
+     * @return the address of the first untrusted hop, starting from the remote address.
+     */
+    String clientIp(HttpServletRequest request) {
+        String ip = request.getRemoteAddr();
+        if (ip == null || !isTrustedProxy(ip)) {
+            return ip;
+        }
+        String forwardedFor = request.getHeader(X_FORWARDED_FOR);
+        if (!StringUtils.hasText(forwardedFor)) {
+            return ip;
+        }
+        String[] hops = StringUtils.commaDelimitedListToStringArray(forwardedFor);
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            ip = hop;
+            if (!isTrustedProxy(hop)) {
+                break;
+            }
+        }
+        return ip;
+    }
+
+    private boolean isTrustedProxy(String ip) {
+        try {
+            for (IpAddressMatcher trustedProxy : trustedProxies) {
+                if (trustedProxy.matches(ip)) {
+                    return true;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // not an IP address, so not a proxy of ours
+        }
+        return false;
+    }
+}
@@ -0,0 +1,13 @@
+package myapp.security;
+
+/**
+ * This exception is thrown when a client or a user makes too many authentication attempts.
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LoginThrottledException() {
+        super("Too many authentication attempts");
+    }
+}
@@ -0,0 +1,13 @@
+package myapp.security;
+
+/**
+ * This exception is thrown when the password hashing pool is saturated.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingRejectedException() {
+        super("Too many password hashing requests");
+    }
+}
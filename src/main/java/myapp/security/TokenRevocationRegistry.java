@@ -0,0 +1,251 @@
+package myapp.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.stream.Stream;
+import myapp.config.ApplicationProperties;
+import myapp.domain.RevokedToken;
+import myapp.management.SecurityMetersService;
+import myapp.repository.RevokedTokenRepository;
+import myapp.service.util.ExpiringLongMap;
+import myapp.service.util.TransactionCallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Registry of the revoked JWTs, checked on every authenticated request.
+ * <p>
+ * A token is revoked either by its id ({@code jti} claim), on logout, or with all the tokens of its user issued so
+ * far, when the user is deleted, deactivated or resets their password. Revocations are persisted, and mirrored in
+ * an {@link ExpiringLongMap} of 64-bit fingerprints of their keys to the time before which matching tokens are
+ * rejected. Checking a token is then a couple of array reads without allocation. Each entry expires with the last
+ * token it can match, so memory is bounded by the revocations made within the maximum token validity.
+ * <p>
+ * Token issue times only have a precision of one second. Revoking the tokens of a user therefore rejects those
+ * issued before the next second, and the tokens issued to the user afterwards must take their issue time from
+ * {@link #issuedAt(String, Instant)}, so a login right after the revocation is not rejected with them.
+ * <p>
+ * A revocation is applied on commit by the instance making it, and read from the database by the others every
+ * {@code application.token-revocation.poll-interval}: a revoked token can still be accepted by another instance for
+ * up to one poll interval, plus the time of the poll itself.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+
+    private static final String TOKEN_ID_PREFIX = "jti:";
+
+    private static final String SUBJECT_PREFIX = "sub:";
+
+    private static final long TOKEN_ID_SEED = 0xCBF29CE484222325L;
+
+    private static final long SUBJECT_SEED = 0x84222325CBF29CE4L;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final SecurityMetersService securityMetersService;
+
+    private final UserDetailsCache userDetailsCache;
+
+    private final Duration lookback;
+
+    private final ExpiringLongMap revocations = new ExpiringLongMap();
+
+    /**
+     * Start of the last load or poll, {@code null} until the registry is loaded.
+     */
+    private volatile Instant lastPolledAt;
+
+    @Value("${jhipster.security.authentication.jwt.token-validity-in-seconds:0}")
+    private long tokenValidityInSeconds;
+
+    @Value("${jhipster.security.authentication.jwt.token-validity-in-seconds-for-remember-me:0}")
+    private long tokenValidityInSecondsForRememberMe;
+
+    public TokenRevocationRegistry(
+        RevokedTokenRepository revokedTokenRepository,
+        SecurityMetersService securityMetersService,
+        UserDetailsCache userDetailsCache,
+        ApplicationProperties applicationProperties
+    ) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.securityMetersService = securityMetersService;
+        this.userDetailsCache = userDetailsCache;
+        this.lookback = applicationProperties.getTokenRevocation().getLookback();
+        securityMetersService.registerRevokedTokensSize(revocations::size);
+    }
+
+    /**
+     * Load the revocations still in force once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        Instant start = Instant.now();
+        try (Stream<RevokedToken> revokedTokens = revokedTokenRepository.streamAllByExpiresAtAfter(start)) {
+            revokedTokens.forEach(this::record);
+        }
+        lastPolledAt = start;
+        LOG.debug("Token revocation registry loaded with {} revocations", revocations.size());
+    }
+
+    /**
+     * Apply the revocations made by the other instances.
+     * <p>
+     * This is scheduled to get fired every {@code application.token-revocation.poll-interval}. It reads the rows
+     * revoked since the previous poll started, minus {@code application.token-revocation.lookback}, so the rows of
+     * transactions committed late or stamped by a clock behind are not missed. Rows read twice are applied twice,
+     * which changes nothing.
+     */
+    @Scheduled(
+        initialDelayString = "${application.token-revocation.poll-interval:PT5S}",
+        fixedDelayString = "${application.token-revocation.poll-interval:PT5S}"
+    )
+    @Transactional(readOnly = true)
+    public void poll() {
+        Instant since = lastPolledAt;
+        if (since == null) {
+            // not loaded yet, the load reads every revocation
+            return;
+        }
+        Instant start = Instant.now();
+        try (Stream<RevokedToken> revokedTokens = revokedTokenRepository.streamAllByRevokedAtAfter(since.minus(lookback))) {
+            revokedTokens.forEach(this::record);
+        }
+        lastPolledAt = start;
+    }
+
+    /**
+     * Check whether a decoded token is revoked.
+     *
+     * @param jwt the token.
+     * @return {@code true} if the token or the tokens of its user were revoked.
+     */
+    public boolean isRevoked(Jwt jwt) {
+        long now = System.currentTimeMillis() / 1000;
+        // read the raw claims, the typed getters convert them on each call
+        long issuedAt = jwt.getClaims().get(JwtClaimNames.IAT) instanceof Instant instant ? instant.getEpochSecond() : Long.MIN_VALUE;
+        if (
+            isRevoked(TOKEN_ID_SEED, jwt.getClaims().get(JwtClaimNames.JTI), issuedAt, now) ||
+            isRevoked(SUBJECT_SEED, jwt.getClaims().get(JwtClaimNames.SUB), issuedAt, now)
+        ) {
+            securityMetersService.trackTokenRevoked();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isRevoked(long seed, Object key, long issuedAt, long now) {
+        if (!(key instanceof String string)) {
+            return false;
+        }
+        long revokedBefore = revocations.get(fingerprint(seed, string), now);
+        return revokedBefore != ExpiringLongMap.ABSENT && issuedAt < revokedBefore;
+    }
+
+    /**
+     * Get the issue time of a new token of a user: the current time, or the end of the revocation of the tokens of
+     * the user if it is later.
+     *
+     * @param login the login of the user.
+     * @param now the current time.
+     * @return the issue time, at most one second after {@code now}.
+     */
+    public Instant issuedAt(String login, Instant now) {
+        long revokedBefore = revocations.get(fingerprint(SUBJECT_SEED, login), now.getEpochSecond());
+        return revokedBefore != ExpiringLongMap.ABSENT && revokedBefore > now.getEpochSecond() ? Instant.ofEpochSecond(revokedBefore) : now;
+    }
+
+    /**
+     * Revoke a token.
+     *
+     * @param jwt the token.
+     */
+    @Transactional
+    public void revoke(Jwt jwt) {
+        if (jwt.getId() == null || jwt.getExpiresAt() == null) {
+            // issued before token ids were added, it expires on its own
+            return;
+        }
+        save(TOKEN_ID_PREFIX + jwt.getId(), jwt.getExpiresAt(), jwt.getExpiresAt());
+    }
+
+    /**
+     * Revoke all the tokens issued to a user so far.
+     *
+     * @param login the login of the user.
+     */
+    @Transactional
+    public void revokeAll(String login) {
+        // the tokens issued during the current second are rejected too
+        Instant revokedBefore = Instant.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        long maximumValidity = Math.max(tokenValidityInSeconds, tokenValidityInSecondsForRememberMe);
+        String key = SUBJECT_PREFIX + login;
+        // a previous revocation of the same user is simply pushed back
+        save(key, revokedBefore, revokedBefore.plusSeconds(maximumValidity));
+    }
+
+    private void save(String key, Instant revokedBefore, Instant expiresAt) {
+        RevokedToken revokedToken = revokedTokenRepository.findById(key).orElseGet(() -> new RevokedToken().tokenKey(key));
+        revokedToken.revokedBefore(revokedBefore).expiresAt(expiresAt).revokedAt(Instant.now());
+        revokedTokenRepository.save(revokedToken);
+        TransactionCallbacks.runAfterCommit(() -> record(revokedToken));
+    }
+
+    /**
+     * Delete the expired revocations, every hour.
+     */
+    @Scheduled(cron = "0 30 * * * ?")
+    @Transactional
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int deleted = revokedTokenRepository.deleteAllExpiredAt(now);
+        revocations.purge(now.getEpochSecond());
+        LOG.debug("Deleted {} expired token revocations", deleted);
+    }
+
+    private void record(RevokedToken revokedToken) {
+        String key = revokedToken.getTokenKey();
+        long fingerprint;
+        if (key.startsWith(TOKEN_ID_PREFIX)) {
+            fingerprint = fingerprint(TOKEN_ID_SEED, key.substring(TOKEN_ID_PREFIX.length()));
+        } else {
+            String login = key.substring(SUBJECT_PREFIX.length());
+            fingerprint = fingerprint(SUBJECT_SEED, login);
+            // the user may be deleted, which the polling of the user details cache cannot see
+            userDetailsCache.evictNow(login, null);
+        }
+        revocations.put(
+            fingerprint,
+            revokedToken.getRevokedBefore().getEpochSecond(),
+            revokedToken.getExpiresAt().getEpochSecond(),
+            System.currentTimeMillis() / 1000
+        );
+    }
+
+    /**
+     * 64-bit FNV-1a hash of the characters of a key, with a final mix. At 64 bits, a valid token wrongly matching a
+     * revocation is not a practical concern, and the tokens are signed so clients cannot pick their claims.
+     */
+    private static long fingerprint(long seed, String key) {
+        long hash = seed;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,204 @@
+package myapp.security;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import myapp.config.ApplicationProperties;
+import myapp.repository.UserRepository;
+import myapp.service.util.ExpiringCache;
+import myapp.service.util.TransactionCallbacks;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Cache of the credentials of the activated users, used by {@link DomainUserDetailsService}.
+ * <p>
+ * Entries are immutable snapshots keyed by lowercase login and by lowercase email, so a login attempt with either
+ * does not hit the database. Logins and emails are kept in separate maps: a login may itself look like an email,
+ * and must never match the user owning that email. Each lookup returns a new {@link UserDetails}: Spring Security
+ * erases the password of the instance it authenticated, which must not leak into the cache.
+ * <p>
+ * Loads racing with an eviction are not cached: callers read {@link #generation()} before querying the database,
+ * and {@link #put(long, String, UserDetails)} drops the snapshot if an eviction happened in between.
+ * <p>
+ * A user changed by this instance is evicted on commit. The users changed by the other instances are read from the
+ * database every {@code application.user-details-cache.poll-interval}, by last modified date, and evicted. Deleted
+ * users have no row left, but their tokens are revoked: they are evicted when the {@link TokenRevocationRegistry}
+ * applies the revocation. Another instance can therefore still authenticate a changed user with its previous
+ * credentials for up to one poll interval of either, plus the time of the poll itself.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final ExpiringCache<String, Credentials> byLogin;
+
+    private final ExpiringCache<String, Credentials> byEmail;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final UserRepository userRepository;
+
+    private final Duration lookback;
+
+    /**
+     * Start of the last poll, or creation time of the cache: nothing loaded before can be cached.
+     */
+    private volatile Instant lastPolledAt = Instant.now();
+
+    public UserDetailsCache(UserRepository userRepository, ApplicationProperties applicationProperties) {
+        this.userRepository = userRepository;
+        ApplicationProperties.UserDetailsCache properties = applicationProperties.getUserDetailsCache();
+        this.byLogin = new ExpiringCache<>(properties.getMaximumSize(), properties.getTimeToLive());
+        this.byEmail = new ExpiringCache<>(properties.getMaximumSize(), properties.getTimeToLive());
+        this.lookback = properties.getLookback();
+    }
+
+    /**
+     * Get the cached details of a user by login.
+     *
+     * @param login the login of the user, in any case.
+     * @return the details, or {@code null} if they are not cached.
+     */
+    public UserDetails getByLogin(String login) {
+        return toUserDetails(byLogin.get(login.toLowerCase(Locale.ENGLISH)));
+    }
+
+    /**
+     * Get the cached details of a user by email.
+     *
+     * @param email the email of the user, in any case.
+     * @return the details, or {@code null} if they are not cached.
+     */
+    public UserDetails getByEmail(String email) {
+        Credentials cached = byEmail.get(email.toLowerCase(Locale.ENGLISH));
+        // the entry of the login is the reference, so evicting a login without its email is enough
+        if (cached == null || byLogin.get(cached.login) != cached) {
+            return null;
+        }
+        return toUserDetails(cached);
+    }
+
+    private static UserDetails toUserDetails(Credentials cached) {
+        return cached == null ? null : new User(cached.login, cached.password, cached.authorities);
+    }
+
+    /**
+     * Get the eviction generation, to be read before loading the details to cache.
+     *
+     * @return the number of evictions so far.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Cache the details of an activated user, unless an eviction happened since they were loaded.
+     *
+     * @param loadGeneration the {@link #generation()} read before loading the details.
+     * @param email the email of the user, may be {@code null}.
+     * @param userDetails the details.
+     */
+    public void put(long loadGeneration, String email, UserDetails userDetails) {
+        if (generation.get() != loadGeneration) {
+            return;
+        }
+        Credentials cached = new Credentials(userDetails.getUsername(), userDetails.getPassword(), List.copyOf(userDetails.getAuthorities()));
+        byLogin.put(cached.login, cached);
+        if (email != null) {
+            byEmail.put(email.toLowerCase(Locale.ENGLISH), cached);
+        }
+        if (generation.get() != loadGeneration) {
+            // an eviction ran while we were writing
+            invalidate(cached.login, email);
+        }
+    }
+
+    /**
+     * Evict the details of a user, once the current transaction commits.
+     * <p>
+     * Evicting after the commit prevents a concurrent login from caching the state being replaced.
+     *
+     * @param login the login of the user.
+     * @param email the email of the user, may be {@code null}.
+     */
+    public void evict(String login, String email) {
+        TransactionCallbacks.runAfterCommit(() -> evictNow(login, email));
+    }
+
+    /**
+     * Evict the details of a user right away, for a change already committed.
+     *
+     * @param login the login of the user.
+     * @param email the email of the user, may be {@code null}.
+     */
+    void evictNow(String login, String email) {
+        generation.incrementAndGet();
+        invalidate(login, email);
+    }
+
+    /**
+     * Evict the details of all users, once the current transaction commits.
+     */
+    public void evictAll() {
+        TransactionCallbacks.runAfterCommit(() -> {
+            generation.incrementAndGet();
+            byLogin.invalidateAll();
+            byEmail.invalidateAll();
+        });
+    }
+
+    /**
+     * Evict the users changed by the other instances.
+     * <p>
+     * This is scheduled to get fired every {@code application.user-details-cache.poll-interval}. It reads the users
+     * modified since the previous poll started, minus {@code application.user-details-cache.lookback}, so the rows
+     * of transactions committed late or stamped by a clock behind are not missed. The query is skipped while the
+     * cache is empty.
+     */
+    @Scheduled(
+        initialDelayString = "${application.user-details-cache.poll-interval:PT5S}",
+        fixedDelayString = "${application.user-details-cache.poll-interval:PT5S}"
+    )
+    @Transactional(readOnly = true)
+    public void poll() {
+        Instant since = lastPolledAt;
+        Instant start = Instant.now();
+        if (byLogin.size() > 0) {
+            try (Stream<Object[]> users = userRepository.streamLoginsAndEmailsByLastModifiedDateAfter(since.minus(lookback))) {
+                users.forEach(user -> evictNow((String) user[0], (String) user[1]));
+            }
+        }
+        lastPolledAt = start;
+    }
+
+    private void invalidate(String login, String email) {
+        if (login != null) {
+            byLogin.invalidate(login.toLowerCase(Locale.ENGLISH));
+        }
+        if (email != null) {
+            byEmail.invalidate(email.toLowerCase(Locale.ENGLISH));
+        }
+    }
+
+    private static final class Credentials {
+
+        final String login;
+
+        final String password;
+
+        final List<GrantedAuthority> authorities;
+
+        Credentials(String login, String password, List<GrantedAuthority> authorities) {
+            this.login = login;
+            this.password = password;
+            this.authorities = authorities;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package myapp.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import myapp.config.ApplicationProperties;
+import myapp.config.TaskExecutorConfiguration;
+import myapp.domain.Address;
+import myapp.repository.AddressRepository;
+import myapp.service.util.AddressNormalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service merging duplicate {@link Address} rows of a same customer.
+ * <p>
+ * New addresses are deduplicated when they are created, this service takes care of the historic rows: it first
+ * computes the missing normalized hashes, then merges each group of addresses sharing a customer and a hash into
+ * its oldest address, repointing the orders shipped to the duplicates. Work is done in chunks, each in its own
+ * transaction, so locks are held briefly and an interrupted run resumes where it stopped.
+ */
+@Service
+public class AddressDeduplicationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AddressDeduplicationService.class);
+
+    private final AddressRepository addressRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+
+    public AddressDeduplicationService(
+        AddressRepository addressRepository,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.addressRepository = addressRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = applicationProperties.getAddressDeduplication().getChunkSize();
+    }
+
+    /**
+     * Hash and merge the duplicate addresses.
+     * <p>
+     * This is scheduled to get fired everyday, at 02:00 (am), and runs on the job executor.
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    @Async(TaskExecutorConfiguration.JOB_EXECUTOR)
+    public void deduplicateAddresses() {
+        long hashed = 0;
+        int count;
+        do {
+            count = transactionTemplate.execute(status -> hashChunk());
+            hashed += count;
+        } while (count == chunkSize);
+
+        long merged = 0;
+        do {
+            count = transactionTemplate.execute(status -> mergeChunk());
+            merged += count;
+        } while (count > 0);
+        LOG.debug("Hashed {} addresses and merged {} duplicate addresses", hashed, merged);
+    }
+
+    private int hashChunk() {
+        List<Address> addresses = addressRepository.findAllByNormalizedHashIsNullOrderByIdAsc(PageRequest.ofSize(chunkSize));
+        addresses.forEach(address -> address.setNormalizedHash(AddressNormalizer.hash(address)));
+        addressRepository.saveAll(addresses);
+        return addresses.size();
+    }
+
+    private int mergeChunk() {
+        List<Long> keeperIds = addressRepository.findDuplicateKeeperIds(PageRequest.ofSize(chunkSize));
+        if (keeperIds.isEmpty()) {
+            return 0;
+        }
+        Map<Long, List<Long>> duplicateIdsByKeeperId = new HashMap<>();
+        for (Object[] row : addressRepository.findDuplicateIdsByKeeperIds(keeperIds)) {
+            duplicateIdsByKeeperId.computeIfAbsent((Long) row[1], id -> new ArrayList<>()).add((Long) row[0]);
+        }
+        List<Long> duplicateIds = new ArrayList<>();
+        duplicateIdsByKeeperId.forEach((keeperId, ids) -> {
+            addressRepository.repointShippingAddress(ids, keeperId);
+            duplicateIds.addAll(ids);
+        });
+        addressRepository.deleteAllByIdIn(duplicateIds);
+        return duplicateIds.size();
+    }
+}
@@ -7,6 +7,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,8 +22,11 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
 
-    public CategoryService(CategoryRepository categoryRepository) {
+    private final ResponseCacheService responseCacheService;
+
+    public CategoryService(CategoryRepository categoryRepository, ResponseCacheService responseCacheService) {
         this.categoryRepository = categoryRepository;
+        this.responseCacheService = responseCacheService;
     }
 
     /**
@@ -33,6 +37,7 @@ public class CategoryService {
      */
     public Category save(Category category) {
         LOG.debug("Request to save Category : {}", category);
+        responseCacheService.invalidateAfterCommit(ResponseCacheService.CATEGORY_TAG);
         return categoryRepository.save(category);
     }
 
@@ -44,6 +49,7 @@ public class CategoryService {
      */
     public Category update(Category category) {
         LOG.debug("Request to update Category : {}", category);
+        responseCacheService.invalidateAfterCommit(ResponseCacheService.CATEGORY_TAG);
         return categoryRepository.save(category);
     }
 
@@ -59,6 +65,9 @@ public class CategoryService {
         return categoryRepository
             .findById(category.getId())
             .map(existingCategory -> {
+                if (category.getVersion() != null && !category.getVersion().equals(existingCategory.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Category.class, category.getId());
+                }
                 if (category.getDescription() != null) {
                     existingCategory.setDescription(category.getDescription());
                 }
@@ -77,7 +86,11 @@ public class CategoryService {
 
                 return existingCategory;
             })
-            .map(categoryRepository::save);
+            .map(categoryRepository::save)
+            .map(result -> {
+                responseCacheService.invalidateAfterCommit(ResponseCacheService.CATEGORY_TAG);
+                return result;
+            });
     }
 
     /**
@@ -121,5 +134,6 @@ public class CategoryService {
     public void delete(Long id) {
         LOG.debug("Request to delete Category : {}", id);
         categoryRepository.deleteById(id);
+        responseCacheService.invalidateAfterCommit(ResponseCacheService.CATEGORY_TAG);
     }
 }
@@ -0,0 +1,139 @@
+package myapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import myapp.config.ApplicationProperties;
+import myapp.config.TaskExecutorConfiguration;
+import myapp.repository.AddressRepository;
+import myapp.repository.CustomerRepository;
+import myapp.repository.OrderRepository;
+import myapp.repository.ProductRepository;
+import myapp.repository.WishListRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service exporting all the data of a {@link myapp.domain.Customer}, for data subject access requests.
+ * <p>
+ * The export is a ZIP archive holding one JSON lines file per entity type. Entities are read from database cursors
+ * and detached as soon as they are written, so memory use does not depend on the size of the customer history.
+ * Exports run on the bounded export executor, so they cannot exhaust the request or the async threads.
+ */
+@Service
+public class CustomerExportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CustomerExportService.class);
+
+    private final CustomerRepository customerRepository;
+
+    private final AddressRepository addressRepository;
+
+    private final WishListRepository wishListRepository;
+
+    private final OrderRepository orderRepository;
+
+    private final ProductRepository productRepository;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter objectWriter;
+
+    private final AsyncTaskExecutor executor;
+
+    private final Duration timeout;
+
+    public CustomerExportService(
+        CustomerRepository customerRepository,
+        AddressRepository addressRepository,
+        WishListRepository wishListRepository,
+        OrderRepository orderRepository,
+        ProductRepository productRepository,
+        EntityManager entityManager,
+        ObjectMapper objectMapper,
+        @Qualifier(TaskExecutorConfiguration.EXPORT_EXECUTOR) AsyncTaskExecutor executor,
+        ApplicationProperties applicationProperties
+    ) {
+        this.customerRepository = customerRepository;
+        this.addressRepository = addressRepository;
+        this.wishListRepository = wishListRepository;
+        this.orderRepository = orderRepository;
+        this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.objectWriter = objectMapper
+            .writer()
+            .without(SerializationFeature.INDENT_OUTPUT)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.executor = executor;
+        this.timeout = applicationProperties.getExport().getTimeout();
+    }
+
+    /**
+     * Get the executor exports must run on: its pool and queue are bounded, and it rejects the exports beyond them.
+     *
+     * @return the executor.
+     */
+    public AsyncTaskExecutor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Get the maximum duration of an export.
+     *
+     * @return the timeout.
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Write the export of a customer.
+     *
+     * @param customerId the id of the customer to export.
+     * @param outputStream the stream to write the ZIP archive to, left open.
+     * @throws IOException if the archive could not be written.
+     */
+    @Transactional(readOnly = true)
+    public void export(Long customerId, OutputStream outputStream) throws IOException {
+        LOG.debug("Request to export Customer : {}", customerId);
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        writeEntry(zip, "customer.jsonl", customerRepository.findById(customerId).stream());
+        writeEntry(zip, "addresses.jsonl", addressRepository.streamAllByCustomerId(customerId));
+        writeEntry(zip, "wish-lists.jsonl", wishListRepository.streamAllByCustomerId(customerId));
+        writeEntry(zip, "orders.jsonl", orderRepository.streamAllByCustomerId(customerId));
+        writeEntry(zip, "products.jsonl", productRepository.streamAllByCustomerId(customerId));
+        zip.finish();
+    }
+
+    private void writeEntry(ZipOutputStream zip, String name, Stream<?> entities) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        try (entities; JsonGenerator generator = objectMapper.getFactory().createGenerator(zip)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<?> iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                Object entity = iterator.next();
+                objectWriter.writeValue(generator, entity);
+                generator.writeRaw('\n');
+                entityManager.detach(entity);
+            }
+        }
+        zip.closeEntry();
+    }
+}
@@ -7,6 +7,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,8 +22,11 @@ public class CustomerService {
 
     private final CustomerRepository customerRepository;
 
-    public CustomerService(CustomerRepository customerRepository) {
+    private final SuggestionService suggestionService;
+
+    public CustomerService(CustomerRepository customerRepository, SuggestionService suggestionService) {
         this.customerRepository = customerRepository;
+        this.suggestionService = suggestionService;
     }
 
     /**
@@ -33,7 +37,9 @@ public class CustomerService {
      */
     public Customer save(Customer customer) {
         LOG.debug("Request to save Customer : {}", customer);
-        return customerRepository.save(customer);
+        Customer result = customerRepository.save(customer);
+        suggestionService.indexCustomer(result);
+        return result;
     }
 
     /**
@@ -44,7 +50,9 @@ public class CustomerService {
      */
     public Customer update(Customer customer) {
         LOG.debug("Request to update Customer : {}", customer);
-        return customerRepository.save(customer);
+        Customer result = customerRepository.save(customer);
+        suggestionService.indexCustomer(result);
+        return result;
     }
 
     /**
@@ -59,6 +67,9 @@ public class CustomerService {
         return customerRepository
             .findById(customer.getId())
             .map(existingCustomer -> {
+                if (customer.getVersion() != null && !customer.getVersion().equals(existingCustomer.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Customer.class, customer.getId());
+                }
                 if (customer.getFirstName() != null) {
                     existingCustomer.setFirstName(customer.getFirstName());
                 }
@@ -74,7 +85,11 @@ public class CustomerService {
 
                 return existingCustomer;
             })
-            .map(customerRepository::save);
+            .map(customerRepository::save)
+            .map(result -> {
+                suggestionService.indexCustomer(result);
+                return result;
+            });
     }
 
     /**
@@ -109,5 +124,6 @@ public class CustomerService {
     public void delete(Long id) {
         LOG.debug("Request to delete Customer : {}", id);
         customerRepository.deleteById(id);
+        suggestionService.removeCustomer(id);
     }
 }
@@ -0,0 +1,84 @@
+package myapp.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import myapp.config.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service writing large pages of entities as a JSON array, element by element, while they are read from the database.
+ * <p>
+ * Entities are read from a database cursor and detached as soon as they are written, so neither the time to the first
+ * byte nor the memory use depend on the size of the page. Pages smaller than
+ * {@code application.streaming.min-page-size} are rather loaded at once, to be tagged with an ETag.
+ */
+@Service
+public class ListStreamingService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ListStreamingService.class);
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter objectWriter;
+
+    private final int minPageSize;
+
+    public ListStreamingService(EntityManager entityManager, ObjectMapper objectMapper, ApplicationProperties applicationProperties) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.objectWriter = objectMapper
+            .writer()
+            .without(SerializationFeature.INDENT_OUTPUT)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.minPageSize = applicationProperties.getStreaming().getMinPageSize();
+    }
+
+    /**
+     * Whether a page is large enough to be streamed.
+     *
+     * @param pageable the pagination information.
+     * @return {@code true} if the page should be written with {@link #writeArray(Supplier, OutputStream)}.
+     */
+    public boolean isStreamed(Pageable pageable) {
+        return pageable.isPaged() && pageable.getPageSize() >= minPageSize;
+    }
+
+    /**
+     * Write entities as a JSON array.
+     *
+     * @param entities the query streaming the entities, run in the read-only transaction of the write.
+     * @param outputStream the stream to write the array to, left open.
+     * @throws IOException if the array could not be written.
+     */
+    @Transactional(readOnly = true)
+    public void writeArray(Supplier<? extends Stream<?>> entities, OutputStream outputStream) throws IOException {
+        int count = 0;
+        try (Stream<?> stream = entities.get(); JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            Iterator<?> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                Object entity = iterator.next();
+                objectWriter.writeValue(generator, entity);
+                entityManager.detach(entity);
+                count++;
+            }
+            generator.writeEndArray();
+        }
+        LOG.debug("Streamed {} entities", count);
+    }
+}
@@ -0,0 +1,279 @@
+package myapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import myapp.config.ApplicationProperties;
+import myapp.config.TaskExecutorConfiguration;
+import myapp.domain.MailOutboxMessage;
+import myapp.domain.enumeration.MailStatus;
+import myapp.repository.MailOutboxMessageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Delivers the emails queued in the outbox by {@link MailService}.
+ * <p>
+ * Each run claims batches of due messages and sends every batch over a single SMTP connection. Claiming locks the
+ * rows with {@code SKIP LOCKED} and pushes their next attempt back by the lease, in a short transaction, so other
+ * instances skip them while the SMTP exchange runs outside any transaction. Delivered messages are then deleted,
+ * failed ones are rescheduled with exponential backoff, and dead-lettered after too many attempts. Delivery is at
+ * least once: a message sent by an instance dying before settling it is sent again after the lease.
+ */
+@Service
+public class MailOutboxSender {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MailOutboxSender.class);
+
+    private static final int LAST_ERROR_MAX_LENGTH = 500;
+
+    private final MailOutboxMessageRepository mailOutboxMessageRepository;
+
+    private final JavaMailSender javaMailSender;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TaskExecutor mailExecutor;
+
+    private final ApplicationProperties.MailOutbox properties;
+
+    private final ReentrantLock deliveryLock = new ReentrantLock();
+
+    private final AtomicBoolean deliveryRequested = new AtomicBoolean();
+
+    private final AtomicLong pendingCount = new AtomicLong();
+
+    private final AtomicLong deadCount = new AtomicLong();
+
+    private final Timer batchTimer;
+
+    private final Timer deliveryTimer;
+
+    private final Counter sentCounter;
+
+    private final Counter failedCounter;
+
+    private final Counter deadLetteredCounter;
+
+    public MailOutboxSender(
+        MailOutboxMessageRepository mailOutboxMessageRepository,
+        JavaMailSender javaMailSender,
+        JHipsterProperties jHipsterProperties,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        @Qualifier(TaskExecutorConfiguration.MAIL_EXECUTOR) TaskExecutor mailExecutor
+    ) {
+        this.mailOutboxMessageRepository = mailOutboxMessageRepository;
+        this.javaMailSender = javaMailSender;
+        this.jHipsterProperties = jHipsterProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mailExecutor = mailExecutor;
+        this.properties = applicationProperties.getMailOutbox();
+        Gauge.builder("mail.outbox.pending", pendingCount, AtomicLong::get)
+            .description("Emails waiting in the outbox, as of the last delivery run")
+            .register(meterRegistry);
+        Gauge.builder("mail.outbox.dead", deadCount, AtomicLong::get)
+            .description("Emails given up after too many failed attempts, as of the last delivery run")
+            .register(meterRegistry);
+        this.batchTimer = Timer.builder("mail.outbox.batch")
+            .description("Time spent sending a batch of emails over one SMTP connection")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.deliveryTimer = Timer.builder("mail.outbox.delivery")
+            .description("Time from queuing an email to its delivery")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.sentCounter = Counter.builder("mail.outbox.sent").description("Emails delivered").register(meterRegistry);
+        this.failedCounter = Counter.builder("mail.outbox.failed").description("Failed email delivery attempts").register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("mail.outbox.dead-lettered")
+            .description("Emails given up after too many failed attempts")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Hand the delivery of the due messages to the mail executor.
+     * <p>
+     * This is scheduled to get fired every {@code application.mail-outbox.poll-interval}. Only the trigger runs on
+     * the shared scheduler: the SMTP exchanges run on the mail executor, so a slow mail server cannot hold up the
+     * other scheduled tasks.
+     */
+    @Scheduled(
+        initialDelayString = "${application.mail-outbox.poll-interval:PT5S}",
+        fixedDelayString = "${application.mail-outbox.poll-interval:PT5S}"
+    )
+    public void poll() {
+        mailExecutor.execute(this::deliver);
+    }
+
+    /**
+     * Deliver the due messages on the mail executor, without waiting for the next poll.
+     */
+    @Async(TaskExecutorConfiguration.MAIL_EXECUTOR)
+    public void deliverAsync() {
+        deliver();
+    }
+
+    /**
+     * Deliver the due messages.
+     * <p>
+     * A call made while a delivery is running makes that delivery run once more, rather than claiming messages
+     * concurrently.
+     */
+    public void deliver() {
+        deliveryRequested.set(true);
+        while (deliveryRequested.get() && deliveryLock.tryLock()) {
+            try {
+                deliveryRequested.set(false);
+                deliverDueMessages();
+            } finally {
+                deliveryLock.unlock();
+            }
+        }
+    }
+
+    private void deliverDueMessages() {
+        List<MailOutboxMessage> batch;
+        do {
+            batch = claim();
+            if (!batch.isEmpty()) {
+                settle(send(batch));
+            }
+        } while (batch.size() == properties.getBatchSize());
+        pendingCount.set(mailOutboxMessageRepository.countByStatus(MailStatus.PENDING));
+        deadCount.set(mailOutboxMessageRepository.countByStatus(MailStatus.DEAD));
+    }
+
+    private List<MailOutboxMessage> claim() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<MailOutboxMessage> due = mailOutboxMessageRepository.findDueForUpdate(
+                MailStatus.PENDING,
+                now,
+                PageRequest.of(0, properties.getBatchSize())
+            );
+            due.forEach(message -> message.setNextAttemptAt(now.plus(properties.getLease())));
+            return due;
+        });
+    }
+
+    /**
+     * Send a batch over one connection.
+     *
+     * @return the error of each message, {@code null} for the delivered ones.
+     */
+    private Map<MailOutboxMessage, String> send(List<MailOutboxMessage> batch) {
+        Map<MailOutboxMessage, String> errors = new LinkedHashMap<>();
+        Map<MimeMessage, MailOutboxMessage> messages = new LinkedHashMap<>();
+        for (MailOutboxMessage message : batch) {
+            try {
+                messages.put(toMimeMessage(message), message);
+            } catch (MessagingException e) {
+                errors.put(message, e.toString());
+            }
+        }
+        if (messages.isEmpty()) {
+            return errors;
+        }
+        messages.values().forEach(message -> errors.put(message, null));
+        long start = System.nanoTime();
+        try {
+            javaMailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            Map<Object, Exception> failedMessages = e.getFailedMessages();
+            if (failedMessages.isEmpty()) {
+                messages.values().forEach(message -> errors.put(message, e.toString()));
+            } else {
+                failedMessages.forEach((mimeMessage, cause) -> errors.put(messages.get(mimeMessage), cause.toString()));
+            }
+        } catch (MailException e) {
+            messages.values().forEach(message -> errors.put(message, e.toString()));
+        } finally {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        return errors;
+    }
+
+    private MimeMessage toMimeMessage(MailOutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, message.getMultipart(), StandardCharsets.UTF_8.name());
+        helper.setTo(message.getRecipient());
+        helper.setFrom(jHipsterProperties.getMail().getFrom());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getContent(), message.getHtml());
+        return mimeMessage;
+    }
+
+    private void settle(Map<MailOutboxMessage, String> errors) {
+        Instant now = Instant.now();
+        List<Long> sent = new ArrayList<>();
+        Map<Long, String> failed = new HashMap<>();
+        errors.forEach((message, error) -> {
+            if (error == null) {
+                sent.add(message.getId());
+                deliveryTimer.record(Duration.between(message.getCreatedDate(), now));
+            } else {
+                failed.put(message.getId(), error);
+            }
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                mailOutboxMessageRepository.deleteAllByIdIn(sent);
+            }
+            mailOutboxMessageRepository.findAllById(failed.keySet()).forEach(message -> fail(message, failed.get(message.getId()), now));
+        });
+        sentCounter.increment(sent.size());
+        failedCounter.increment(failed.size());
+    }
+
+    private void fail(MailOutboxMessage message, String error, Instant now) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(error.length() > LAST_ERROR_MAX_LENGTH ? error.substring(0, LAST_ERROR_MAX_LENGTH) : error);
+        if (attempts >= properties.getMaxAttempts()) {
+            message.setStatus(MailStatus.DEAD);
+            deadLetteredCounter.increment();
+            LOG.warn("Email to '{}' given up after {} attempts: {}", message.getRecipient(), attempts, error);
+            return;
+        }
+        message.setNextAttemptAt(now.plus(backoff(attempts)));
+        LOG.debug("Email to '{}' failed, attempt {}: {}", message.getRecipient(), attempts, error);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration maxBackoff = properties.getMaxBackoff();
+        // doubling past 30 attempts overflows, and is past any sensible maximum anyway
+        Duration backoff = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+}
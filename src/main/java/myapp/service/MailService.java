@@ -1,26 +1,25 @@
 package myapp.service;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
-import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Locale;
+import myapp.domain.MailOutboxMessage;
 import myapp.domain.User;
+import myapp.domain.enumeration.MailStatus;
+import myapp.repository.MailOutboxMessageRepository;
+import myapp.service.util.TransactionCallbacks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
-import org.springframework.mail.MailException;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring6.SpringTemplateEngine;
 import tech.jhipster.config.JHipsterProperties;
 
 /**
- * Service for sending emails asynchronously.
+ * Service for sending emails.
  * <p>
- * We use the {@link Async} annotation to send emails asynchronously.
+ * Emails are rendered at once and queued in the outbox, in the current transaction if any, so they are only sent
+ * if it commits. {@link MailOutboxSender} then delivers them on the mail executor, retrying on failure.
  */
 @Service
 public class MailService {
@@ -33,60 +32,54 @@ public class MailService {
 
     private final JHipsterProperties jHipsterProperties;
 
-    private final JavaMailSender javaMailSender;
+    private final MailOutboxMessageRepository mailOutboxMessageRepository;
 
     private final MessageSource messageSource;
 
     private final SpringTemplateEngine templateEngine;
 
+    private final MailOutboxSender mailOutboxSender;
+
     public MailService(
         JHipsterProperties jHipsterProperties,
-        JavaMailSender javaMailSender,
+        MailOutboxMessageRepository mailOutboxMessageRepository,
         MessageSource messageSource,
-        SpringTemplateEngine templateEngine
+        SpringTemplateEngine templateEngine,
+        MailOutboxSender mailOutboxSender
     ) {
         this.jHipsterProperties = jHipsterProperties;
-        this.javaMailSender = javaMailSender;
+        this.mailOutboxMessageRepository = mailOutboxMessageRepository;
         this.messageSource = messageSource;
         this.templateEngine = templateEngine;
+        this.mailOutboxSender = mailOutboxSender;
     }
 
-    @Async
     public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
-        this.sendEmailSync(to, subject, content, isMultipart, isHtml);
-    }
-
-    private void sendEmailSync(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
         LOG.debug(
-            "Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
+            "Queue email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
             isMultipart,
             isHtml,
             to,
             subject,
             content
         );
-
-        // Prepare message using a Spring helper
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-        try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
-            LOG.debug("Sent email to User '{}'", to);
-        } catch (MailException | MessagingException e) {
-            LOG.warn("Email could not be sent to user '{}'", to, e);
-        }
+        Instant now = Instant.now();
+        MailOutboxMessage message = new MailOutboxMessage()
+            .recipient(to)
+            .subject(subject)
+            .content(content)
+            .multipart(isMultipart)
+            .html(isHtml)
+            .status(MailStatus.PENDING)
+            .attempts(0)
+            .createdDate(now)
+            .nextAttemptAt(now);
+        mailOutboxMessageRepository.save(message);
+        TransactionCallbacks.runAfterCommit(mailOutboxSender::deliverAsync);
+        LOG.debug("Queued email to User '{}'", to);
     }
 
-    @Async
     public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
-        this.sendEmailFromTemplateSync(user, templateName, titleKey);
-    }
-
-    private void sendEmailFromTemplateSync(User user, String templateName, String titleKey) {
         if (user.getEmail() == null) {
             LOG.debug("Email doesn't exist for user '{}'", user.getLogin());
             return;
@@ -97,24 +90,21 @@ public class MailService {
         context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
         String content = templateEngine.process(templateName, context);
         String subject = messageSource.getMessage(titleKey, null, locale);
-        this.sendEmailSync(user.getEmail(), subject, content, false, true);
+        this.sendEmail(user.getEmail(), subject, content, false, true);
     }
 
-    @Async
     public void sendActivationEmail(User user) {
         LOG.debug("Sending activation email to '{}'", user.getEmail());
-        this.sendEmailFromTemplateSync(user, "mail/activationEmail", "email.activation.title");
+        this.sendEmailFromTemplate(user, "mail/activationEmail", "email.activation.title");
     }
 
-    @Async
     public void sendCreationEmail(User user) {
         LOG.debug("Sending creation email to '{}'", user.getEmail());
-        this.sendEmailFromTemplateSync(user, "mail/creationEmail", "email.activation.title");
+        this.sendEmailFromTemplate(user, "mail/creationEmail", "email.activation.title");
     }
 
-    @Async
     public void sendPasswordResetMail(User user) {
         LOG.debug("Sending password reset email to '{}'", user.getEmail());
-        this.sendEmailFromTemplateSync(user, "mail/passwordResetEmail", "email.reset.title");
+        this.sendEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
     }
 }
@@ -7,6 +7,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -59,6 +60,9 @@ public class OrderService {
         return orderRepository
             .findById(order.getId())
             .map(existingOrder -> {
+                if (order.getVersion() != null && !order.getVersion().equals(existingOrder.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Order.class, order.getId());
+                }
                 if (order.getOrderDate() != null) {
                     existingOrder.setOrderDate(order.getOrderDate());
                 }
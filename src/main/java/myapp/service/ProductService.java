@@ -7,6 +7,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,8 +22,18 @@ public class ProductService {
 
     private final ProductRepository productRepository;
 
-    public ProductService(ProductRepository productRepository) {
+    private final SuggestionService suggestionService;
+
+    private final ResponseCacheService responseCacheService;
+
+    public ProductService(
+        ProductRepository productRepository,
+        SuggestionService suggestionService,
+        ResponseCacheService responseCacheService
+    ) {
         this.productRepository = productRepository;
+        this.suggestionService = suggestionService;
+        this.responseCacheService = responseCacheService;
     }
 
     /**
@@ -33,7 +44,10 @@ public class ProductService {
      */
     public Product save(Product product) {
         LOG.debug("Request to save Product : {}", product);
-        return productRepository.save(product);
+        Product result = productRepository.save(product);
+        suggestionService.indexProduct(result);
+        responseCacheService.invalidateAfterCommit(ResponseCacheService.PRODUCT_TAG);
+        return result;
     }
 
     /**
@@ -44,7 +58,10 @@ public class ProductService {
      */
     public Product update(Product product) {
         LOG.debug("Request to update Product : {}", product);
-        return productRepository.save(product);
+        Product result = productRepository.save(product);
+        suggestionService.indexProduct(result);
+        responseCacheService.invalidateAfterCommit(ResponseCacheService.PRODUCT_TAG);
+        return result;
     }
 
     /**
@@ -59,6 +76,9 @@ public class ProductService {
         return productRepository
             .findById(product.getId())
             .map(existingProduct -> {
+                if (product.getVersion() != null && !product.getVersion().equals(existingProduct.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Product.class, product.getId());
+                }
                 if (product.getTitle() != null) {
                     existingProduct.setTitle(product.getTitle());
                 }
@@ -95,7 +115,12 @@ public class ProductService {
 
                 return existingProduct;
             })
-            .map(productRepository::save);
+            .map(productRepository::save)
+            .map(result -> {
+                suggestionService.indexProduct(result);
+                responseCacheService.invalidateAfterCommit(ResponseCacheService.PRODUCT_TAG);
+                return result;
+            });
     }
 
     /**
@@ -130,5 +155,7 @@ public class ProductService {
     public void delete(Long id) {
         LOG.debug("Request to delete Product : {}", id);
         productRepository.deleteById(id);
+        suggestionService.removeProduct(id);
+        responseCacheService.invalidateAfterCommit(ResponseCacheService.PRODUCT_TAG);
     }
 }
@@ -0,0 +1,251 @@
+package myapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import myapp.config.ApplicationProperties;
+import myapp.service.util.TransactionCallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cache of serialized responses, tagged with the entities they render, and evicted by tag when those are written.
+ * <p>
+ * A response rendered while an invalidation happens may hold the data from before the write, so it is only stored
+ * if no invalidation happened since {@link #stamp()} was taken before rendering it.
+ * <p>
+ * Invalidations only reach the cache of this instance. A write through another instance, or straight to the
+ * database, only shows here once the responses expire, after {@code application.response-cache.time-to-live}: that
+ * time to live, 10 minutes by default, bounds how stale a response can be across instances.
+ * <p>
+ * When the cache is full, a put first drops the expired responses, then, if it is still full, an arbitrary tenth of
+ * the others, so the cost of scanning the entries is spread over the puts that follow.
+ * <p>
+ * The hit ratio can be derived from the {@code cache.gets} metric, tagged with the {@code hit} or {@code miss}
+ * result, next to {@code cache.puts}, {@code cache.evictions} and {@code cache.size}.
+ */
+@Service
+public class ResponseCacheService {
+
+    public static final String PRODUCT_TAG = "product";
+
+    public static final String CATEGORY_TAG = "category";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResponseCacheService.class);
+
+    private static final String CACHE_NAME = "responses";
+
+    /**
+     * Fraction of the entries dropped when the cache is full and none of them has expired.
+     */
+    private static final int EVICTION_DIVISOR = 10;
+
+    private final ConcurrentMap<String, CachedResponse> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final ApplicationProperties.ResponseCache properties;
+
+    private final Counter hitCounter;
+
+    private final Counter missCounter;
+
+    private final Counter putCounter;
+
+    private final Counter evictionCounter;
+
+    public ResponseCacheService(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.properties = applicationProperties.getResponseCache();
+        this.hitCounter = Counter.builder("cache.gets")
+            .description("Responses served from the cache")
+            .tag("cache", CACHE_NAME)
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.missCounter = Counter.builder("cache.gets")
+            .description("Responses rendered as they were not cached")
+            .tag("cache", CACHE_NAME)
+            .tag("result", "miss")
+            .register(meterRegistry);
+        this.putCounter = Counter.builder("cache.puts").description("Responses stored").tag("cache", CACHE_NAME).register(meterRegistry);
+        this.evictionCounter = Counter.builder("cache.evictions")
+            .description("Responses evicted, invalidated or expired")
+            .tag("cache", CACHE_NAME)
+            .register(meterRegistry);
+        Gauge.builder("cache.size", entries, Map::size)
+            .description("Responses held in the cache")
+            .tag("cache", CACHE_NAME)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Get a response.
+     *
+     * @param key the normalized request.
+     * @return the response, {@code null} if it is not cached or expired.
+     */
+    public CachedResponse get(String key) {
+        CachedResponse response = entries.get(key);
+        if (response != null && response.expiresAt - System.nanoTime() <= 0) {
+            if (entries.remove(key, response)) {
+                evictionCounter.increment();
+            }
+            response = null;
+        }
+        (response != null ? hitCounter : missCounter).increment();
+        return response;
+    }
+
+    /**
+     * Get the stamp to store a response with, to be taken before rendering it.
+     *
+     * @return the stamp.
+     */
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    /**
+     * Store a response, unless an invalidation happened since the stamp was taken.
+     *
+     * @param key the normalized request.
+     * @param stamp the stamp taken before rendering the response.
+     * @param response the response.
+     */
+    public void put(String key, long stamp, CachedResponse response) {
+        if (invalidations.get() != stamp) {
+            return;
+        }
+        if (entries.size() >= properties.getMaxEntries() && !entries.containsKey(key)) {
+            evict();
+        }
+        entries.put(key, response);
+        // an invalidation may have gone through the entries just before this one was added
+        if (invalidations.get() != stamp) {
+            entries.remove(key, response);
+            return;
+        }
+        putCounter.increment();
+    }
+
+    /**
+     * Evict the responses with a tag once the current transaction commits.
+     *
+     * @param tag the tag, such as {@link #PRODUCT_TAG}.
+     */
+    public void invalidateAfterCommit(String tag) {
+        TransactionCallbacks.runAfterCommit(() -> invalidate(tag));
+    }
+
+    /**
+     * Evict the responses with a tag.
+     *
+     * @param tag the tag, such as {@link #PRODUCT_TAG}.
+     */
+    public void invalidate(String tag) {
+        invalidations.incrementAndGet();
+        int evicted = 0;
+        for (Map.Entry<String, CachedResponse> entry : entries.entrySet()) {
+            if (entry.getValue().tags.contains(tag) && entries.remove(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+        evictionCounter.increment(evicted);
+        LOG.debug("Evicted {} responses tagged {}", evicted, tag);
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        Iterator<CachedResponse> expired = entries.values().iterator();
+        while (expired.hasNext()) {
+            if (expired.next().expiresAt - now <= 0) {
+                expired.remove();
+                evicted++;
+            }
+        }
+        int maxEntries = properties.getMaxEntries();
+        int toEvict = entries.size() - maxEntries + Math.max(1, maxEntries / EVICTION_DIVISOR);
+        Iterator<CachedResponse> others = entries.values().iterator();
+        while (toEvict-- > 0 && others.hasNext()) {
+            others.next();
+            others.remove();
+            evicted++;
+        }
+        evictionCounter.increment(evicted);
+    }
+
+    /**
+     * A serialized response, with its body compressed ahead of time.
+     */
+    public static final class CachedResponse {
+
+        private final Set<String> tags;
+
+        private final Map<String, List<String>> headers;
+
+        private final String contentType;
+
+        private final String eTag;
+
+        private final byte[] body;
+
+        private final byte[] gzippedBody;
+
+        private final long expiresAt;
+
+        /**
+         * @param tags the tags of the entities rendered in the response.
+         * @param headers the headers to replay, besides the content ones.
+         * @param contentType the content type.
+         * @param eTag the ETag, if any.
+         * @param body the body.
+         * @param gzippedBody the body compressed with gzip, {@code null} if that does not make it smaller.
+         * @param timeToLive the time to live of the response, in nanoseconds.
+         */
+        public CachedResponse(
+            Set<String> tags,
+            Map<String, List<String>> headers,
+            String contentType,
+            String eTag,
+            byte[] body,
+            byte[] gzippedBody,
+            long timeToLive
+        ) {
+            this.tags = tags;
+            this.headers = headers;
+            this.contentType = contentType;
+            this.eTag = eTag;
+            this.body = body;
+            this.gzippedBody = gzippedBody;
+            this.expiresAt = System.nanoTime() + timeToLive;
+        }
+
+        public Map<String, List<String>> getHeaders() {
+            return headers;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public byte[] getGzippedBody() {
+            return gzippedBody;
+        }
+    }
+}
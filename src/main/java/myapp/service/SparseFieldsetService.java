@@ -0,0 +1,78 @@
+package myapp.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service reading sparse fieldsets of entities: only the requested columns are selected, with tuple queries, and
+ * returned as maps from field name to value, in the requested order.
+ * <p>
+ * The fields are used as is in the queries: callers must check them against the fields allowed for the entity.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SparseFieldsetService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SparseFieldsetService.class);
+
+    private final EntityManager entityManager;
+
+    public SparseFieldsetService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Get a page of entities, restricted to some of their fields.
+     *
+     * @param entityClass the class of the entities.
+     * @param fields the allowed fields to select.
+     * @param pageable the pagination information, sorted by allowed fields only.
+     * @return the page of the selected fields of the entities.
+     */
+    public Page<Map<String, Object>> findAll(Class<?> entityClass, List<String> fields, Pageable pageable) {
+        LOG.debug("Request to get a page of {} fields : {}", entityClass.getSimpleName(), fields);
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<?> root = query.from(entityClass);
+        List<Selection<?>> selections = fields.stream().<Selection<?>>map(field -> root.get(field).alias(field)).toList();
+        query.multiselect(selections);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        List<Map<String, Object>> content = typedQuery
+            .getResultList()
+            .stream()
+            .map(tuple -> {
+                Map<String, Object> row = new LinkedHashMap<>();
+                fields.forEach(field -> row.put(field, tuple.get(field)));
+                return row;
+            })
+            .toList();
+        return new PageImpl<>(content, pageable, count(entityClass));
+    }
+
+    private long count(Class<?> entityClass) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        query.select(criteriaBuilder.count(query.from(entityClass)));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,147 @@
+package myapp.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.stream.Stream;
+import myapp.domain.Customer;
+import myapp.domain.Product;
+import myapp.repository.CustomerRepository;
+import myapp.repository.ProductRepository;
+import myapp.service.dto.SuggestionDTO;
+import myapp.service.util.PrefixIndex;
+import myapp.service.util.TransactionCallbacks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service serving prefix autocomplete for {@link Customer} and {@link Product}.
+ * <p>
+ * Suggestions are answered from in-memory {@link PrefixIndex} instances, loaded once the application is ready
+ * and kept up to date by {@link CustomerService} and {@link ProductService} after each committed write.
+ */
+@Service
+public class SuggestionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SuggestionService.class);
+
+    public static final int SUGGESTION_LIMIT = 10;
+
+    public static final String INDEX_MEMORY_METER_NAME = "suggestion.index.memory";
+    public static final String INDEX_TERMS_METER_NAME = "suggestion.index.terms";
+    public static final String INDEX_DIMENSION = "index";
+
+    private final CustomerRepository customerRepository;
+
+    private final ProductRepository productRepository;
+
+    private final PrefixIndex customerIndex = new PrefixIndex();
+
+    private final PrefixIndex productIndex = new PrefixIndex();
+
+    public SuggestionService(CustomerRepository customerRepository, ProductRepository productRepository, MeterRegistry registry) {
+        this.customerRepository = customerRepository;
+        this.productRepository = productRepository;
+        registerGauges(registry, "customer", customerIndex);
+        registerGauges(registry, "product", productIndex);
+    }
+
+    private static void registerGauges(MeterRegistry registry, String name, PrefixIndex index) {
+        Gauge.builder(INDEX_MEMORY_METER_NAME, index, PrefixIndex::getMemoryFootprint)
+            .baseUnit("bytes")
+            .description("Approximate heap used by the autocomplete index.")
+            .tag(INDEX_DIMENSION, name)
+            .register(registry);
+        Gauge.builder(INDEX_TERMS_METER_NAME, index, PrefixIndex::size)
+            .description("Number of terms held by the autocomplete index.")
+            .tag(INDEX_DIMENSION, name)
+            .register(registry);
+    }
+
+    /**
+     * Load every customer and product once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        try {
+            try (Stream<Object[]> terms = customerRepository.streamAllSuggestionTerms()) {
+                terms.forEach(row -> customerIndex.put((Long) row[0], (String) row[1], (String) row[2], (String) row[3]));
+            }
+            try (Stream<Object[]> terms = productRepository.streamAllSuggestionTerms()) {
+                terms.forEach(row -> productIndex.put((Long) row[0], (String) row[1]));
+            }
+            LOG.debug("Suggestion indexes loaded: {} customer terms, {} product terms", customerIndex.size(), productIndex.size());
+        } catch (RuntimeException e) {
+            LOG.warn("Suggestion indexes could not be loaded", e);
+        }
+    }
+
+    /**
+     * Index a customer once the current transaction commits.
+     *
+     * @param customer the saved customer.
+     */
+    public void indexCustomer(Customer customer) {
+        Long id = customer.getId();
+        String[] terms = { customer.getFirstName(), customer.getLastName(), customer.getEmail() };
+        TransactionCallbacks.runAfterCommit(() -> customerIndex.put(id, terms));
+    }
+
+    /**
+     * Remove a customer once the current transaction commits.
+     *
+     * @param id the id of the deleted customer.
+     */
+    public void removeCustomer(Long id) {
+        TransactionCallbacks.runAfterCommit(() -> customerIndex.remove(id));
+    }
+
+    /**
+     * Index a product once the current transaction commits.
+     *
+     * @param product the saved product.
+     */
+    public void indexProduct(Product product) {
+        Long id = product.getId();
+        String title = product.getTitle();
+        TransactionCallbacks.runAfterCommit(() -> productIndex.put(id, title));
+    }
+
+    /**
+     * Remove a product once the current transaction commits.
+     *
+     * @param id the id of the deleted product.
+     */
+    public void removeProduct(Long id) {
+        TransactionCallbacks.runAfterCommit(() -> productIndex.remove(id));
+    }
+
+    /**
+     * Suggest customers whose first name, last name or email starts with a prefix.
+     *
+     * @param prefix the prefix, compared case-insensitively.
+     * @return at most {@link #SUGGESTION_LIMIT} suggestions.
+     */
+    public List<SuggestionDTO> suggestCustomers(String prefix) {
+        return toSuggestions(customerIndex.search(prefix, SUGGESTION_LIMIT));
+    }
+
+    /**
+     * Suggest products whose title starts with a prefix.
+     *
+     * @param prefix the prefix, compared case-insensitively.
+     * @return at most {@link #SUGGESTION_LIMIT} suggestions.
+     */
+    public List<SuggestionDTO> suggestProducts(String prefix) {
+        return toSuggestions(productIndex.search(prefix, SUGGESTION_LIMIT));
+    }
+
+    private static List<SuggestionDTO> toSuggestions(List<PrefixIndex.Match> matches) {
+        return matches.stream().map(match -> new SuggestionDTO(match.getId(), match.getTerm())).toList();
+    }
+}
@@ -0,0 +1,98 @@
+package myapp.service;
+
+import java.util.Locale;
+import java.util.stream.Stream;
+import myapp.config.ApplicationProperties;
+import myapp.domain.User;
+import myapp.repository.UserRepository;
+import myapp.service.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * In-memory Bloom filters of the logins and emails already taken.
+ * <p>
+ * Used to skip the uniqueness queries when a login and an email are definitely free, which is the common case
+ * during sign-up. Deleted or renamed users stay in the filters: that only produces false positives, which fall
+ * back to the database. Until the filters are loaded every check reports "maybe taken".
+ * <p>
+ * After the load, the filters only learn the users saved by this instance: a login or an email taken by another
+ * instance, or directly in the database, may be reported free. The filters are therefore only a hint, and
+ * {@link UserService} relies on the unique constraints of the database when saving a user.
+ */
+@Service
+public class UserIdentityFilter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(UserIdentityFilter.class);
+
+    private final UserRepository userRepository;
+
+    private final BloomFilter logins;
+
+    private final BloomFilter emails;
+
+    private volatile boolean loaded;
+
+    public UserIdentityFilter(UserRepository userRepository, ApplicationProperties applicationProperties) {
+        this.userRepository = userRepository;
+        ApplicationProperties.Registration registration = applicationProperties.getRegistration();
+        this.logins = new BloomFilter(
+            registration.getBloomFilterExpectedInsertions(),
+            registration.getBloomFilterFalsePositiveProbability()
+        );
+        this.emails = new BloomFilter(
+            registration.getBloomFilterExpectedInsertions(),
+            registration.getBloomFilterFalsePositiveProbability()
+        );
+    }
+
+    /**
+     * Load every existing login and email once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        try {
+            try (Stream<String> allLogins = userRepository.streamAllLogins()) {
+                allLogins.forEach(logins::put);
+            }
+            try (Stream<String> allEmails = userRepository.streamAllEmails()) {
+                allEmails.forEach(emails::put);
+            }
+            loaded = true;
+            LOG.debug("User identity filter loaded, using {} bytes", logins.getMemoryFootprint() + emails.getMemoryFootprint());
+        } catch (RuntimeException e) {
+            LOG.warn("User identity filter could not be loaded, uniqueness checks will always query the database", e);
+        }
+    }
+
+    /**
+     * Check whether a login or an email may already belong to a user.
+     *
+     * @param login the lowercase login.
+     * @param email the email, may be {@code null}.
+     * @return {@code false} only if neither the login nor the email is used.
+     */
+    public boolean mightBeTaken(String login, String email) {
+        if (!loaded) {
+            return true;
+        }
+        return logins.mightContain(login) || (email != null && emails.mightContain(email.toLowerCase(Locale.ENGLISH)));
+    }
+
+    /**
+     * Record the login and email of a saved user.
+     *
+     * @param user the saved user.
+     */
+    public void record(User user) {
+        logins.put(user.getLogin());
+        if (user.getEmail() != null) {
+            emails.put(user.getEmail().toLowerCase(Locale.ENGLISH));
+        }
+    }
+}
@@ -1,26 +1,43 @@
 package myapp.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import myapp.config.ApplicationProperties;
 import myapp.config.Constants;
+import myapp.config.TaskExecutorConfiguration;
 import myapp.domain.Authority;
 import myapp.domain.User;
 import myapp.repository.AuthorityRepository;
 import myapp.repository.UserRepository;
 import myapp.security.AuthoritiesConstants;
+import myapp.security.AuthorityRegistry;
 import myapp.security.SecurityUtils;
+import myapp.security.TokenRevocationRegistry;
+import myapp.security.UserDetailsCache;
 import myapp.service.dto.AdminUserDTO;
 import myapp.service.dto.UserDTO;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import tech.jhipster.security.RandomUtil;
 
 /**
@@ -38,10 +55,51 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository) {
+    private final AuthorityRegistry authorityRegistry;
+
+    private final UserIdentityFilter userIdentityFilter;
+
+    private final UserDetailsCache userDetailsCache;
+
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int purgeChunkSize;
+
+    private final long purgeChunkMinimumNanos;
+
+    private final Counter purgedUsersCounter;
+
+    private final Timer purgeChunkTimer;
+
+    public UserService(
+        UserRepository userRepository,
+        PasswordEncoder passwordEncoder,
+        AuthorityRepository authorityRepository,
+        AuthorityRegistry authorityRegistry,
+        UserIdentityFilter userIdentityFilter,
+        UserDetailsCache userDetailsCache,
+        TokenRevocationRegistry tokenRevocationRegistry,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
+        this.authorityRegistry = authorityRegistry;
+        this.userIdentityFilter = userIdentityFilter;
+        this.userDetailsCache = userDetailsCache;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        ApplicationProperties.UserPurge userPurge = applicationProperties.getUserPurge();
+        this.purgeChunkSize = userPurge.getChunkSize();
+        this.purgeChunkMinimumNanos = TimeUnit.SECONDS.toNanos(userPurge.getChunkSize()) / userPurge.getMaxRowsPerSecond();
+        this.purgedUsersCounter = Counter.builder("users.purge.deleted")
+            .description("Not activated users deleted by the purge job")
+            .register(meterRegistry);
+        this.purgeChunkTimer = Timer.builder("users.purge.chunk").description("Time spent deleting a chunk of not activated users").register(meterRegistry);
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -52,6 +110,7 @@ public class UserService {
                 // activate given user for the registration key.
                 user.setActivated(true);
                 user.setActivationKey(null);
+                userDetailsCache.evict(user.getLogin(), user.getEmail());
                 LOG.debug("Activated user: {}", user);
                 return user;
             });
@@ -66,6 +125,9 @@ public class UserService {
                 user.setPassword(passwordEncoder.encode(newPassword));
                 user.setResetKey(null);
                 user.setResetDate(null);
+                userDetailsCache.evict(user.getLogin(), user.getEmail());
+                // whoever knew the previous password must not stay logged in
+                tokenRevocationRegistry.revokeAll(user.getLogin());
                 return user;
             });
     }
@@ -82,16 +144,22 @@ public class UserService {
     }
 
     public User registerUser(AdminUserDTO userDTO, String password) {
-        userRepository
-            .findOneByLogin(userDTO.getLogin().toLowerCase())
+        String login = userDTO.getLogin().toLowerCase();
+        List<User> existingUsers = findUsersWithLoginOrEmail(login, userDTO.getEmail());
+        existingUsers
+            .stream()
+            .filter(existingUser -> existingUser.getLogin().equals(login))
+            .findFirst()
             .ifPresent(existingUser -> {
                 boolean removed = removeNonActivatedUser(existingUser);
                 if (!removed) {
                     throw new UsernameAlreadyUsedException();
                 }
             });
-        userRepository
-            .findOneByEmailIgnoreCase(userDTO.getEmail())
+        existingUsers
+            .stream()
+            .filter(existingUser -> !existingUser.getLogin().equals(login))
+            .findFirst()
             .ifPresent(existingUser -> {
                 boolean removed = removeNonActivatedUser(existingUser);
                 if (!removed) {
@@ -114,10 +182,8 @@ public class UserService {
         newUser.setActivated(false);
         // new user gets registration key
         newUser.setActivationKey(RandomUtil.generateActivationKey());
-        Set<Authority> authorities = new HashSet<>();
-        authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
-        newUser.setAuthorities(authorities);
-        userRepository.save(newUser);
+        newUser.setAuthorities(resolveAuthorities(Set.of(AuthoritiesConstants.USER)));
+        saveIdentity(newUser);
         LOG.debug("Created Information for User: {}", newUser);
         return newUser;
     }
@@ -151,16 +217,9 @@ public class UserService {
         user.setResetDate(Instant.now());
         user.setActivated(true);
         if (userDTO.getAuthorities() != null) {
-            Set<Authority> authorities = userDTO
-                .getAuthorities()
-                .stream()
-                .map(authorityRepository::findById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toSet());
-            user.setAuthorities(authorities);
+            user.setAuthorities(resolveAuthorities(userDTO.getAuthorities()));
         }
-        userRepository.save(user);
+        saveIdentity(user);
         LOG.debug("Created Information for User: {}", user);
         return user;
     }
@@ -176,6 +235,9 @@ public class UserService {
             .filter(Optional::isPresent)
             .map(Optional::get)
             .map(user -> {
+                userDetailsCache.evict(user.getLogin(), user.getEmail());
+                String previousLogin = user.getLogin();
+                Set<Authority> previousAuthorities = Set.copyOf(user.getAuthorities());
                 user.setLogin(userDTO.getLogin().toLowerCase());
                 user.setFirstName(userDTO.getFirstName());
                 user.setLastName(userDTO.getLastName());
@@ -187,14 +249,12 @@ public class UserService {
                 user.setLangKey(userDTO.getLangKey());
                 Set<Authority> managedAuthorities = user.getAuthorities();
                 managedAuthorities.clear();
-                userDTO
-                    .getAuthorities()
-                    .stream()
-                    .map(authorityRepository::findById)
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .forEach(managedAuthorities::add);
-                userRepository.save(user);
+                managedAuthorities.addAll(resolveAuthorities(userDTO.getAuthorities()));
+                if (!user.isActivated() || !user.getLogin().equals(previousLogin) || !managedAuthorities.equals(previousAuthorities)) {
+                    // the tokens already issued carry the previous login and authorities
+                    tokenRevocationRegistry.revokeAll(previousLogin);
+                }
+                saveIdentity(user);
                 LOG.debug("Changed Information for User: {}", user);
                 return user;
             })
@@ -206,10 +266,22 @@ public class UserService {
             .findOneByLogin(login)
             .ifPresent(user -> {
                 userRepository.delete(user);
+                userDetailsCache.evict(user.getLogin(), user.getEmail());
+                tokenRevocationRegistry.revokeAll(user.getLogin());
                 LOG.debug("Deleted User: {}", user);
             });
     }
 
+    /**
+     * Revoke all the tokens issued so far to a user, forcing them to log in again.
+     *
+     * @param login the login of the user.
+     */
+    public void revokeTokens(String login) {
+        tokenRevocationRegistry.revokeAll(login);
+        LOG.debug("Revoked the tokens of User: {}", login);
+    }
+
     /**
      * Update basic information (first name, last name, email, language) for the current user.
      *
@@ -223,6 +295,7 @@ public class UserService {
         SecurityUtils.getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
             .ifPresent(user -> {
+                userDetailsCache.evict(user.getLogin(), user.getEmail());
                 user.setFirstName(firstName);
                 user.setLastName(lastName);
                 if (email != null) {
@@ -230,7 +303,7 @@ public class UserService {
                 }
                 user.setLangKey(langKey);
                 user.setImageUrl(imageUrl);
-                userRepository.save(user);
+                saveIdentity(user);
                 LOG.debug("Changed Information for User: {}", user);
             });
     }
@@ -246,13 +319,71 @@ public class UserService {
                 }
                 String encryptedPassword = passwordEncoder.encode(newPassword);
                 user.setPassword(encryptedPassword);
+                userDetailsCache.evict(user.getLogin(), user.getEmail());
                 LOG.debug("Changed password for User: {}", user);
             });
     }
 
+    /**
+     * Save a user and flush it, so that a login or an email taken since it was checked fails here rather than at
+     * commit. The checks may skip the database on the {@link UserIdentityFilter}, which only knows the users saved
+     * by this instance: the unique constraints of the database stay the source of truth.
+     */
+    private void saveIdentity(User user) {
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            String constraint = e.getCause() instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                ? violation.getConstraintName().toLowerCase(Locale.ENGLISH)
+                : "";
+            if (constraint.contains("ux_user_login")) {
+                throw new UsernameAlreadyUsedException();
+            }
+            if (constraint.contains("ux_user_email")) {
+                throw new EmailAlreadyUsedException();
+            }
+            throw e;
+        }
+        userIdentityFilter.record(user);
+    }
+
+    /**
+     * Find the users already holding a login or an email.
+     * <p>
+     * The database is only queried when the in-memory filter cannot rule out both values. A value ruled out by
+     * mistake, because another instance just saved it, is caught by the unique constraints when the user is saved.
+     *
+     * @param login the lowercase login.
+     * @param email the email, compared case-insensitively.
+     * @return the users holding the login or the email, empty if both are free.
+     */
+    @Transactional(readOnly = true)
+    public List<User> findUsersWithLoginOrEmail(String login, String email) {
+        if (!userIdentityFilter.mightBeTaken(login, email)) {
+            return Collections.emptyList();
+        }
+        return userRepository.findAllByLoginOrEmailIgnoreCase(login, email);
+    }
+
+    /**
+     * Get a page of users with their authorities, in two queries whatever the page size: one for the page of ids,
+     * one for the users and their authorities.
+     *
+     * @param pageable the pagination information.
+     * @return the page of users.
+     */
     @Transactional(readOnly = true)
     public Page<AdminUserDTO> getAllManagedUsers(Pageable pageable) {
-        return userRepository.findAll(pageable).map(AdminUserDTO::new);
+        Page<Long> ids = userRepository.findAllIds(pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, ids.getTotalElements());
+        }
+        Map<Long, User> users = userRepository
+            .findAllWithAuthoritiesByIdIn(ids.getContent())
+            .stream()
+            .collect(Collectors.toMap(User::getId, user -> user));
+        List<AdminUserDTO> content = ids.getContent().stream().map(users::get).filter(Objects::nonNull).map(AdminUserDTO::new).toList();
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
     }
 
     @Transactional(readOnly = true)
@@ -273,16 +404,51 @@ public class UserService {
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
-     * This is scheduled to get fired everyday, at 01:00 (am).
+     * This is scheduled to get fired everyday, at 01:00 (am). Users are deleted with bulk statements, in id ranges
+     * of {@code application.user-purge.chunk-size} users each committed on its own, and throttled to
+     * {@code application.user-purge.max-rows-per-second}, so the job never holds long locks on {@code jhi_user}.
+     * Each range first locks its users still not activated, then deletes exactly those, so a user activated
+     * meanwhile keeps both its row and its authorities. It runs on the job executor, off the scheduling threads.
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    @Async(TaskExecutorConfiguration.JOB_EXECUTOR)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                LOG.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
+        Instant createdBefore = Instant.now().minus(3, ChronoUnit.DAYS);
+        Long afterId = Long.MIN_VALUE;
+        long deleted = 0;
+        List<Long> ids;
+        do {
+            long start = System.nanoTime();
+            ids = userRepository.findNotActivatedUserIds(createdBefore, afterId, PageRequest.ofSize(purgeChunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            Long fromId = ids.get(0);
+            Long toId = ids.get(ids.size() - 1);
+            int count = transactionTemplate.execute(status -> {
+                // the authorities and the users are deleted for the same locked ids, whatever commits meanwhile
+                List<Long> lockedIds = userRepository.lockNotActivatedUserIds(fromId, toId, createdBefore);
+                if (lockedIds.isEmpty()) {
+                    return 0;
+                }
+                userRepository.deleteUserAuthoritiesByUserIdIn(lockedIds);
+                return userRepository.deleteByIdIn(lockedIds);
             });
+            long elapsed = System.nanoTime() - start;
+            purgedUsersCounter.increment(count);
+            purgeChunkTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            deleted += count;
+            afterId = toId;
+            LOG.debug("Deleted {} not activated users up to id {}", count, toId);
+            try {
+                TimeUnit.NANOSECONDS.sleep(purgeChunkMinimumNanos - elapsed);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        } while (ids.size() == purgeChunkSize);
+        LOG.debug("Deleted {} not activated users", deleted);
     }
 
     /**
@@ -291,6 +457,13 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public List<String> getAuthorities() {
-        return authorityRepository.findAll().stream().map(Authority::getName).toList();
+        return authorityRegistry.getNames();
+    }
+
+    /**
+     * Resolve authority names without querying the database: unknown names are dropped, known ones become references.
+     */
+    private Set<Authority> resolveAuthorities(Collection<String> names) {
+        return names.stream().filter(authorityRegistry::contains).map(authorityRepository::getReferenceById).collect(Collectors.toSet());
     }
 }
@@ -0,0 +1,67 @@
+package myapp.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO representing an autocomplete suggestion: the id of a matching entity and the value that matched.
+ */
+public class SuggestionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+
+    private String value;
+
+    public SuggestionDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public SuggestionDTO(Long id, String value) {
+        this.id = id;
+        this.value = value;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SuggestionDTO that = (SuggestionDTO) o;
+        return Objects.equals(id, that.id) && Objects.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, value);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SuggestionDTO{" +
+            "id=" + id +
+            ", value='" + value + '\'' +
+            "}";
+    }
+}
@@ -0,0 +1,56 @@
+package myapp.service.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import myapp.domain.Address;
+
+/**
+ * Utility class computing the canonical hash of an {@link Address}.
+ * <p>
+ * Two addresses differing only by case, surrounding or repeated whitespace, or spaces inside the postcode get the
+ * same hash, so they can be recognized as the same place.
+ */
+public final class AddressNormalizer {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final char FIELD_SEPARATOR = '\u001f';
+
+    private AddressNormalizer() {}
+
+    /**
+     * Compute the canonical hash of an address.
+     *
+     * @param address the address.
+     * @return the hex-encoded SHA-256 of the normalized fields.
+     */
+    public static String hash(Address address) {
+        String canonical =
+            normalize(address.getAddress1()) +
+            FIELD_SEPARATOR +
+            normalize(address.getAddress2()) +
+            FIELD_SEPARATOR +
+            normalize(address.getCity()) +
+            FIELD_SEPARATOR +
+            WHITESPACE.matcher(normalize(address.getPostcode())).replaceAll("") +
+            FIELD_SEPARATOR +
+            normalize(address.getCountry());
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        return WHITESPACE.matcher(value.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
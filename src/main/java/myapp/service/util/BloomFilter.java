@@ -0,0 +1,135 @@
+package myapp.service.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Bloom filter over {@link CharSequence} keys.
+ * <p>
+ * A negative answer from {@link #mightContain(CharSequence)} is definitive, a positive one only means the key
+ * may have been added. Keys can never be removed, so callers must treat every positive answer as "check the
+ * source of truth".
+ * <p>
+ * Bits are stored in an {@link AtomicLongArray}, so concurrent writers never lose updates and readers never
+ * block. Hashing walks the characters directly, so neither operation allocates.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+
+    private final long bitCount;
+
+    private final int hashCount;
+
+    /**
+     * Create a filter sized for the given number of keys.
+     *
+     * @param expectedInsertions the number of keys the filter is expected to hold.
+     * @param falsePositiveProbability the accepted false positive rate once {@code expectedInsertions} keys are added.
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive");
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("falsePositiveProbability must be between 0 and 1");
+        }
+        long optimalBits = (long) Math.ceil((-expectedInsertions * Math.log(falsePositiveProbability)) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round(((double) bitCount / expectedInsertions) * Math.log(2)));
+    }
+
+    /**
+     * Add a key to the filter.
+     *
+     * @param key the key to add, ignored if {@code null}.
+     */
+    public void put(CharSequence key) {
+        if (key == null) {
+            return;
+        }
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            setBit(index(h1 + i * h2));
+        }
+    }
+
+    /**
+     * Check whether a key may have been added.
+     *
+     * @param key the key to check.
+     * @return {@code false} if the key was definitely never added, {@code true} otherwise.
+     */
+    public boolean mightContain(CharSequence key) {
+        if (key == null) {
+            return false;
+        }
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            if (!getBit(index(h1 + i * h2))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove every key from the filter.
+     */
+    public void clear() {
+        for (int i = 0; i < bits.length(); i++) {
+            bits.set(i, 0L);
+        }
+    }
+
+    /**
+     * @return the approximate heap used by the bit array, in bytes.
+     */
+    public long getMemoryFootprint() {
+        return (long) bits.length() * Long.BYTES;
+    }
+
+    private long index(int combinedHash) {
+        // flip negative values so the modulo spreads uniformly
+        return (combinedHash < 0 ? ~combinedHash : combinedHash) % bitCount;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+
+    private boolean getBit(long index) {
+        return (bits.get((int) (index >>> 6)) & (1L << index)) != 0;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 code units, finalized with the MurmurHash3 mixer so both halves are usable
+     * as independent hashes.
+     */
+    private static long hash(CharSequence key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,135 @@
+package myapp.service.util;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A concurrent cache whose entries expire after a time to live, holding at most a fixed number of entries.
+ * <p>
+ * Reads are a single {@link ConcurrentHashMap} lookup and never block. When the cache is full, a write first drops
+ * the expired entries, then, if it is still full, an arbitrary slice of the others: eviction is approximate, which
+ * is fine for caches of data that can always be reloaded.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values, which should be immutable.
+ */
+public final class ExpiringCache<K, V> {
+
+    /**
+     * Fraction of the entries dropped when the cache is full and none of them has expired.
+     */
+    private static final int EVICTION_DIVISOR = 10;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final int maximumSize;
+
+    private final long timeToLiveNanos;
+
+    public ExpiringCache(int maximumSize, Duration timeToLive) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = timeToLive.toNanos();
+    }
+
+    /**
+     * Get a value.
+     *
+     * @param key the key.
+     * @return the value, or {@code null} if it is absent or expired.
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt - System.nanoTime() <= 0) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Put a value, expiring after the time to live of the cache.
+     *
+     * @param key the key.
+     * @param value the value.
+     */
+    public void put(K key, V value) {
+        put(key, value, timeToLiveNanos);
+    }
+
+    /**
+     * Put a value, expiring after the shortest of the given time to live and the time to live of the cache.
+     *
+     * @param key the key.
+     * @param value the value.
+     * @param timeToLive the time to live of this value.
+     */
+    public void put(K key, V value, Duration timeToLive) {
+        long nanos = Math.min(timeToLiveNanos, timeToLive.toNanos());
+        if (nanos > 0) {
+            put(key, value, nanos);
+        }
+    }
+
+    private void put(K key, V value, long nanos) {
+        if (entries.size() >= maximumSize && !entries.containsKey(key)) {
+            evict();
+        }
+        entries.put(key, new Entry<>(value, System.nanoTime() + nanos));
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.expiresAt - now <= 0);
+        int toEvict = entries.size() - maximumSize + Math.max(1, maximumSize / EVICTION_DIVISOR);
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (toEvict-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Remove a value.
+     *
+     * @param key the key.
+     */
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Remove all the values.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Get the number of entries, including the expired ones not yet dropped.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private static final class Entry<V> {
+
+        final V value;
+
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package myapp.service.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A compact map of {@code long} keys to {@code long} values, each entry expiring at its own time.
+ * <p>
+ * Entries are stored inline in a single {@link AtomicLongArray}, as an open addressing table with linear probing:
+ * a lookup is a few array reads, never locks and never allocates. Writes are serialized. They fill free slots in
+ * place, publishing the key last so readers never see a half-written entry, and rebuild the table without its
+ * expired entries when it gets half full.
+ * <p>
+ * Times are in whatever unit the caller uses consistently, typically epoch seconds.
+ */
+public final class ExpiringLongMap {
+
+    /**
+     * Returned by {@link #get(long, long)} for an absent or expired key.
+     */
+    public static final long ABSENT = Long.MIN_VALUE;
+
+    private static final int KEY = 0;
+    private static final int VALUE = 1;
+    private static final int EXPIRES_AT = 2;
+    private static final int STRIDE = 3;
+
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private volatile AtomicLongArray table = new AtomicLongArray(MINIMUM_CAPACITY * STRIDE);
+
+    /**
+     * Number of slots holding a key, expired or not. Guarded by {@code this}.
+     */
+    private int used;
+
+    /**
+     * Get the value of a key.
+     *
+     * @param key the key.
+     * @param now the current time.
+     * @return the value, or {@link #ABSENT} if the key is absent or expired.
+     */
+    public long get(long key, long now) {
+        AtomicLongArray current = table;
+        int index = indexOf(current, nonZero(key));
+        if (current.get(index + KEY) == 0 || current.get(index + EXPIRES_AT) <= now) {
+            return ABSENT;
+        }
+        return current.get(index + VALUE);
+    }
+
+    /**
+     * Put the value of a key. If the key is already present, the greatest value and expiration time are kept.
+     *
+     * @param key the key.
+     * @param value the value.
+     * @param expiresAt the time the entry expires.
+     * @param now the current time.
+     */
+    public synchronized void put(long key, long value, long expiresAt, long now) {
+        if (expiresAt <= now) {
+            return;
+        }
+        long nonZeroKey = nonZero(key);
+        AtomicLongArray current = table;
+        int index = indexOf(current, nonZeroKey);
+        if (current.get(index + KEY) == nonZeroKey) {
+            boolean expired = current.get(index + EXPIRES_AT) <= now;
+            current.set(index + VALUE, expired ? value : Math.max(value, current.get(index + VALUE)));
+            current.set(index + EXPIRES_AT, expired ? expiresAt : Math.max(expiresAt, current.get(index + EXPIRES_AT)));
+            return;
+        }
+        if ((used + 1) * 2 > current.length() / STRIDE) {
+            current = rebuild(now, 1);
+            index = indexOf(current, nonZeroKey);
+        }
+        current.set(index + VALUE, value);
+        current.set(index + EXPIRES_AT, expiresAt);
+        current.set(index + KEY, nonZeroKey);
+        used++;
+    }
+
+    /**
+     * Drop the expired entries, shrinking the table if possible.
+     *
+     * @param now the current time.
+     */
+    public synchronized void purge(long now) {
+        rebuild(now, 0);
+    }
+
+    /**
+     * Get the number of entries, including the expired ones not yet dropped.
+     *
+     * @return the number of entries.
+     */
+    public synchronized int size() {
+        return used;
+    }
+
+    private AtomicLongArray rebuild(long now, int extra) {
+        AtomicLongArray current = table;
+        int live = 0;
+        for (int index = 0; index < current.length(); index += STRIDE) {
+            if (current.get(index + KEY) != 0 && current.get(index + EXPIRES_AT) > now) {
+                live++;
+            }
+        }
+        // leave the table at most a quarter full, so the next rebuild is as far away as this one
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity < (live + extra) * 4) {
+            capacity <<= 1;
+        }
+        AtomicLongArray next = new AtomicLongArray(capacity * STRIDE);
+        for (int index = 0; index < current.length(); index += STRIDE) {
+            long key = current.get(index + KEY);
+            if (key != 0 && current.get(index + EXPIRES_AT) > now) {
+                int nextIndex = indexOf(next, key);
+                next.set(nextIndex + KEY, key);
+                next.set(nextIndex + VALUE, current.get(index + VALUE));
+                next.set(nextIndex + EXPIRES_AT, current.get(index + EXPIRES_AT));
+            }
+        }
+        table = next;
+        used = live;
+        return next;
+    }
+
+    /**
+     * Find the slot of a key, or the free slot ending its probe sequence. The table always has free slots.
+     */
+    private static int indexOf(AtomicLongArray table, long key) {
+        int mask = table.length() / STRIDE - 1;
+        int slot = spread(key) & mask;
+        while (true) {
+            long candidate = table.get(slot * STRIDE + KEY);
+            if (candidate == key || candidate == 0) {
+                return slot * STRIDE;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static long nonZero(long key) {
+        // zero marks the free slots
+        return key == 0 ? 1 : key;
+    }
+
+    private static int spread(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return (int) (key ^ (key >>> 32));
+    }
+}
@@ -0,0 +1,117 @@
+package myapp.service.util;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * A lock-free token bucket rate limiter, with one bucket per key, holding at most a fixed number of buckets.
+ * <p>
+ * Each bucket is a single {@code long} holding its theoretical arrival time, as in the generic cell rate algorithm:
+ * a bucket of {@code capacity} tokens refilled at one token per {@code emissionInterval} accepts a request at time
+ * {@code now} if its arrival time is at most {@code now + (capacity - 1) * emissionInterval}, and then pushes it
+ * back by one interval. Updating it is a single compare-and-set, so concurrent requests never block each other.
+ * <p>
+ * Keys never share a bucket, so no key is limited by the requests of another. When the limiter is full, a new key
+ * first drops the buckets that refilled completely, which are the same as absent ones, then, if it is still full, an
+ * arbitrary slice of the others: under a flood of distinct keys the limiter fails open for the dropped keys, rather
+ * than limiting every key.
+ */
+public final class KeyedRateLimiter {
+
+    /**
+     * Fraction of the buckets dropped when the limiter is full and none of them has refilled.
+     */
+    private static final int EVICTION_DIVISOR = 10;
+
+    private final ConcurrentHashMap<String, AtomicLong> arrivalTimes = new ConcurrentHashMap<>();
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final int maximumKeys;
+
+    private final long emissionIntervalNanos;
+
+    private final long burstToleranceNanos;
+
+    private final LongSupplier nanoTime;
+
+    /**
+     * Create a rate limiter.
+     *
+     * @param maximumKeys the maximum number of buckets held.
+     * @param capacity the number of tokens of a full bucket.
+     * @param refillPeriod the time to refill an empty bucket.
+     */
+    public KeyedRateLimiter(int maximumKeys, int capacity, Duration refillPeriod) {
+        this(maximumKeys, capacity, refillPeriod, System::nanoTime);
+    }
+
+    KeyedRateLimiter(int maximumKeys, int capacity, Duration refillPeriod, LongSupplier nanoTime) {
+        if (maximumKeys <= 0 || capacity <= 0 || refillPeriod.isNegative() || refillPeriod.isZero()) {
+            throw new IllegalArgumentException("Maximum keys, capacity and refill period must be positive");
+        }
+        this.maximumKeys = maximumKeys;
+        this.emissionIntervalNanos = Math.max(1, refillPeriod.toNanos() / capacity);
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Take a token from the bucket of a key.
+     *
+     * @param key the key.
+     * @return {@code true} if a token was taken, {@code false} if the key is over its rate.
+     */
+    public boolean tryAcquire(String key) {
+        AtomicLong arrivalTime = arrivalTimes.get(key);
+        if (arrivalTime == null) {
+            if (arrivalTimes.size() >= maximumKeys) {
+                evict();
+            }
+            arrivalTime = arrivalTimes.computeIfAbsent(key, k -> new AtomicLong(nanoTime.getAsLong() - emissionIntervalNanos));
+        }
+        while (true) {
+            long now = nanoTime.getAsLong();
+            long current = arrivalTime.get();
+            long start = current - now > 0 ? current : now;
+            if (start - now > burstToleranceNanos) {
+                return false;
+            }
+            if (arrivalTime.compareAndSet(current, start + emissionIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            // another request is already making room
+            return;
+        }
+        try {
+            long now = nanoTime.getAsLong();
+            arrivalTimes.values().removeIf(arrivalTime -> arrivalTime.get() - now <= 0);
+            int toEvict = arrivalTimes.size() - maximumKeys + Math.max(1, maximumKeys / EVICTION_DIVISOR);
+            Iterator<AtomicLong> iterator = arrivalTimes.values().iterator();
+            while (toEvict-- > 0 && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of buckets, including the refilled ones not yet dropped.
+     *
+     * @return the number of buckets.
+     */
+    public int size() {
+        return arrivalTimes.size();
+    }
+}
@@ -0,0 +1,169 @@
+package myapp.service.util;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A concurrent, incrementally maintained index answering "top N terms starting with a prefix" queries.
+ * <p>
+ * Terms are kept in a {@link ConcurrentSkipListMap} ordered by their normalized (trimmed, lowercase) form, so a
+ * prefix lookup is a {@code O(log n)} seek followed by a scan of at most {@code limit} matching entries,
+ * whatever the size of the index. Each document (an entity id) may contribute several terms; updating or removing
+ * a document replaces all of them atomically with respect to other writers of the same document.
+ */
+public final class PrefixIndex {
+
+    /**
+     * Rough per-term heap overhead: the key and term strings, the match holder and the skip list node and index levels.
+     */
+    private static final long TERM_OVERHEAD_BYTES = 176;
+
+    private static final char SEPARATOR = '\u0000';
+
+    private final ConcurrentSkipListMap<String, Match> terms = new ConcurrentSkipListMap<>();
+
+    private final ConcurrentHashMap<Long, String[]> keysById = new ConcurrentHashMap<>();
+
+    private final AtomicLong memoryFootprint = new AtomicLong();
+
+    /**
+     * Index a document, replacing the terms it was previously indexed with.
+     *
+     * @param id the document id.
+     * @param documentTerms the terms of the document, {@code null} and blank terms are ignored.
+     */
+    public void put(Long id, String... documentTerms) {
+        Objects.requireNonNull(id, "id");
+        keysById.compute(id, (key, previousKeys) -> {
+            removeKeys(previousKeys);
+            Set<String> keys = new LinkedHashSet<>();
+            for (String term : documentTerms) {
+                String normalized = normalize(term);
+                if (normalized.isEmpty()) {
+                    continue;
+                }
+                String termKey = normalized + SEPARATOR + id;
+                if (keys.add(termKey)) {
+                    terms.put(termKey, new Match(id, term.trim()));
+                    memoryFootprint.addAndGet(footprintOf(termKey));
+                }
+            }
+            return keys.isEmpty() ? null : keys.toArray(String[]::new);
+        });
+    }
+
+    /**
+     * Remove a document and all its terms.
+     *
+     * @param id the document id.
+     */
+    public void remove(Long id) {
+        keysById.computeIfPresent(id, (key, previousKeys) -> {
+            removeKeys(previousKeys);
+            return null;
+        });
+    }
+
+    /**
+     * Remove every document.
+     */
+    public void clear() {
+        keysById.keySet().forEach(this::remove);
+    }
+
+    /**
+     * Find the first documents, in term order, having a term starting with the given prefix.
+     *
+     * @param prefix the prefix, compared case-insensitively.
+     * @param limit the maximum number of matches to return.
+     * @return at most {@code limit} matches, one per document.
+     */
+    public List<Match> search(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        List<Match> result = new ArrayList<>(limit);
+        if (normalized.isEmpty() || limit <= 0) {
+            return result;
+        }
+        Set<Long> seen = new HashSet<>();
+        NavigableMap<String, Match> candidates = terms.tailMap(normalized, true);
+        for (Map.Entry<String, Match> candidate : candidates.entrySet()) {
+            if (!candidate.getKey().startsWith(normalized)) {
+                break;
+            }
+            if (seen.add(candidate.getValue().getId())) {
+                result.add(candidate.getValue());
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of indexed terms.
+     */
+    public int size() {
+        return terms.size();
+    }
+
+    /**
+     * @return the approximate heap used by the index, in bytes.
+     */
+    public long getMemoryFootprint() {
+        return memoryFootprint.get();
+    }
+
+    private void removeKeys(String[] keys) {
+        if (keys == null) {
+            return;
+        }
+        for (String termKey : keys) {
+            if (terms.remove(termKey) != null) {
+                memoryFootprint.addAndGet(-footprintOf(termKey));
+            }
+        }
+    }
+
+    private static long footprintOf(String termKey) {
+        // the key holds the normalized term, the match holds the original one of about the same length
+        return TERM_OVERHEAD_BYTES + 2L * termKey.length();
+    }
+
+    private static String normalize(String term) {
+        return term == null ? "" : term.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A document matching a prefix, with the term that matched.
+     */
+    public static final class Match {
+
+        private final Long id;
+
+        private final String term;
+
+        Match(Long id, String term) {
+            this.id = id;
+            this.term = term;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getTerm() {
+            return term;
+        }
+    }
+}
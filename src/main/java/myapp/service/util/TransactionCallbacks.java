@@ -0,0 +1,35 @@
+package myapp.service.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utility class to defer work until the surrounding transaction has committed.
+ */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {}
+
+    /**
+     * Run an action once the current transaction commits, or immediately when no transaction is active.
+     * <p>
+     * The action is dropped if the transaction rolls back, so in-memory structures mirroring the database never
+     * see writes that did not happen.
+     *
+     * @param action the action to run.
+     */
+    public static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                }
+            );
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Service utilities.
+ */
+package myapp.service.util;
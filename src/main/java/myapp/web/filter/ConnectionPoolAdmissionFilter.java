@@ -0,0 +1,66 @@
+package myapp.web.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Bounds the number of requests processed at once, relative to the size of the connection pool.
+ * <p>
+ * With a thread per request, the worker pool bounds how many requests compete for database connections. Virtual
+ * threads remove that bound: a burst would have every request waiting inside the connection pool, and time out there
+ * together. Requests beyond {@code permits} instead wait here, in arrival order, for at most {@code timeout}, and are
+ * then answered with {@code 503 (Service Unavailable)}.
+ */
+public class ConnectionPoolAdmissionFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+
+    private final long timeoutNanos;
+
+    private final Counter rejectedCounter;
+
+    public ConnectionPoolAdmissionFilter(int permits, Duration timeout, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(permits, true);
+        this.timeoutNanos = timeout.toNanos();
+        Gauge.builder("http.server.admission.in-flight", this.permits, semaphore -> permits - semaphore.availablePermits())
+            .description("Requests admitted and being processed")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("http.server.admission.rejected")
+            .description("Requests rejected after waiting for admission")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        boolean admitted;
+        try {
+            admitted = permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            rejectedCounter.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package myapp.web.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+import myapp.config.ApplicationProperties;
+import myapp.service.ResponseCacheService;
+import myapp.service.ResponseCacheService.CachedResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Serves the catalog reads from the {@link ResponseCacheService}, and stores their successful responses in it.
+ * <p>
+ * Requests are keyed by their path and their query parameters, sorted by name, so equivalent URLs share a response.
+ * Responses are stored serialized and compressed, then served compressed to the clients accepting it, and answered
+ * with {@code 304 (Not Modified)} when they match the {@code If-None-Match} of the request. This filter runs after
+ * the security filters: only authorized requests are served.
+ * <p>
+ * The bodies written asynchronously, such as the pages streamed by the {@link myapp.service.ListStreamingService},
+ * are written through to the client as they are produced, and never stored: buffering them would defeat the
+ * streaming.
+ */
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final Pattern PRODUCTS = Pattern.compile("/api/products(/\\d+)?");
+
+    private static final Pattern CATEGORIES = Pattern.compile("/api/categories");
+
+    private static final String GZIP = "gzip";
+
+    /**
+     * Headers set by this filter, or describing the body as sent rather than as stored.
+     */
+    private static final Set<String> EXCLUDED_HEADERS = Set.of(
+        HttpHeaders.CACHE_CONTROL.toLowerCase(),
+        HttpHeaders.EXPIRES.toLowerCase(),
+        HttpHeaders.PRAGMA.toLowerCase(),
+        HttpHeaders.VARY.toLowerCase(),
+        HttpHeaders.CONTENT_TYPE.toLowerCase(),
+        HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+        HttpHeaders.CONTENT_ENCODING.toLowerCase(),
+        HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+        HttpHeaders.SET_COOKIE.toLowerCase(),
+        HttpHeaders.DATE.toLowerCase()
+    );
+
+    private final ResponseCacheService responseCacheService;
+
+    private final ApplicationProperties.ResponseCache properties;
+
+    private final String cacheControl;
+
+    public ResponseCacheFilter(ResponseCacheService responseCacheService, ApplicationProperties.ResponseCache properties) {
+        this.responseCacheService = responseCacheService;
+        this.properties = properties;
+        this.cacheControl = CacheControl.maxAge(properties.getClientMaxAge()).cachePrivate().getHeaderValue();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod()) || tags(request) == null || !acceptsJson(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        String key = key(request);
+        CachedResponse cached = responseCacheService.get(key);
+        if (cached != null) {
+            write(cached, request, response);
+            return;
+        }
+
+        long stamp = responseCacheService.stamp();
+        ContentCachingResponseWrapper responseWrapper = new AsyncWriteThroughResponseWrapper(request, response);
+        filterChain.doFilter(request, responseWrapper);
+        if (request.isAsyncStarted()) {
+            // the body is written through, on the async thread
+            return;
+        }
+        if (
+            responseWrapper.getStatus() != HttpServletResponse.SC_OK ||
+            responseWrapper.getContentSize() > properties.getMaxBodySize().toBytes() ||
+            responseWrapper.containsHeader(HttpHeaders.CONTENT_ENCODING)
+        ) {
+            responseWrapper.copyBodyToResponse();
+            return;
+        }
+        CachedResponse rendered = capture(tags(request), responseWrapper);
+        responseCacheService.put(key, stamp, rendered);
+        write(rendered, request, response);
+    }
+
+    private CachedResponse capture(Set<String> tags, ContentCachingResponseWrapper response) throws IOException {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (!EXCLUDED_HEADERS.contains(name.toLowerCase())) {
+                headers.put(name, List.copyOf(response.getHeaders(name)));
+            }
+        }
+        byte[] body = response.getContentAsByteArray();
+        byte[] gzippedBody = gzip(body);
+        return new CachedResponse(
+            tags,
+            Collections.unmodifiableMap(headers),
+            response.getContentType(),
+            response.getHeader(HttpHeaders.ETAG),
+            body,
+            gzippedBody.length < body.length ? gzippedBody : null,
+            properties.getTimeToLive().toNanos()
+        );
+    }
+
+    private void write(CachedResponse cached, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        cached
+            .getHeaders()
+            .forEach((name, values) -> {
+                response.setHeader(name, values.get(0));
+                values.stream().skip(1).forEach(value -> response.addHeader(name, value));
+            });
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (cached.getETag() != null && new ServletWebRequest(request, response).checkNotModified(cached.getETag())) {
+            return;
+        }
+        byte[] body = cached.getBody();
+        if (cached.getGzippedBody() != null && acceptsGzip(request)) {
+            body = cached.getGzippedBody();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+        response.setContentType(cached.getContentType());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static Set<String> tags(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (PRODUCTS.matcher(path).matches()) {
+            return Set.of(ResponseCacheService.PRODUCT_TAG);
+        }
+        if (CATEGORIES.matcher(path).matches()) {
+            // the categories embed their products
+            return Set.of(ResponseCacheService.CATEGORY_TAG, ResponseCacheService.PRODUCT_TAG);
+        }
+        return null;
+    }
+
+    private static String key(HttpServletRequest request) {
+        StringJoiner query = new StringJoiner("&", request.getRequestURI() + "?", "");
+        // parameters sorted by name, the order of the values of a parameter being significant
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) -> {
+            for (String value : values) {
+                query.add(URLEncoder.encode(name, StandardCharsets.UTF_8) + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8));
+            }
+        });
+        return query.toString();
+    }
+
+    private static boolean acceptsJson(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return accept == null || accept.contains("json") || accept.contains("*/*");
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (headers.hasMoreElements()) {
+            for (String coding : headers.nextElement().split(",")) {
+                String[] parts = coding.trim().split(";");
+                if (GZIP.equalsIgnoreCase(parts[0].trim()) && (parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(body);
+        }
+        return gzipped.toByteArray();
+    }
+
+    /**
+     * Buffers the body as {@link ContentCachingResponseWrapper} does, except the body written once the request went
+     * async, which is written straight to the client. Such a body is written to the output stream, as a
+     * {@link org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody} is.
+     */
+    private static final class AsyncWriteThroughResponseWrapper extends ContentCachingResponseWrapper {
+
+        private final HttpServletRequest request;
+
+        private ServletOutputStream outputStream;
+
+        AsyncWriteThroughResponseWrapper(HttpServletRequest request, HttpServletResponse response) {
+            super(response);
+            this.request = request;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new AsyncWriteThroughOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        private ServletOutputStream target(ServletOutputStream buffer) throws IOException {
+            if (!request.isAsyncStarted()) {
+                return buffer;
+            }
+            // whatever was buffered before the request went async is written first
+            copyBodyToResponse(false);
+            return getResponse().getOutputStream();
+        }
+
+        private final class AsyncWriteThroughOutputStream extends ServletOutputStream {
+
+            private final ServletOutputStream buffer;
+
+            AsyncWriteThroughOutputStream(ServletOutputStream buffer) {
+                this.buffer = buffer;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                target(buffer).write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                target(buffer).write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                target(buffer).flush();
+            }
+
+            @Override
+            public boolean isReady() {
+                return buffer.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                buffer.setWriteListener(writeListener);
+            }
+        }
+    }
+}
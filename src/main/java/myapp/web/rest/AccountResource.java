@@ -1,9 +1,11 @@
 package myapp.web.rest;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.util.*;
 import myapp.domain.User;
 import myapp.repository.UserRepository;
+import myapp.security.LoginThrottle;
 import myapp.security.SecurityUtils;
 import myapp.service.MailService;
 import myapp.service.UserService;
@@ -40,10 +42,13 @@ public class AccountResource {
 
     private final MailService mailService;
 
-    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService) {
+    private final LoginThrottle loginThrottle;
+
+    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService, LoginThrottle loginThrottle) {
         this.userRepository = userRepository;
         this.userService = userService;
         this.mailService = mailService;
+        this.loginThrottle = loginThrottle;
     }
 
     /**
@@ -138,9 +143,11 @@ public class AccountResource {
      * {@code POST   /account/reset-password/init} : Send an email to reset the password of the user.
      *
      * @param mail the mail of the user.
+     * @param request the HTTP request.
      */
     @PostMapping(path = "/account/reset-password/init")
-    public void requestPasswordReset(@RequestBody String mail) {
+    public void requestPasswordReset(@RequestBody String mail, HttpServletRequest request) {
+        loginThrottle.checkAttempt(mail, request);
         Optional<User> user = userService.requestPasswordReset(mail);
         if (user.isPresent()) {
             mailService.sendPasswordResetMail(user.orElseThrow());
@@ -4,12 +4,16 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import myapp.domain.Address;
 import myapp.repository.AddressRepository;
+import myapp.service.ListStreamingService;
+import myapp.service.util.AddressNormalizer;
 import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.rest.util.ETagUtil;
+import myapp.web.rest.util.StreamingUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -17,12 +21,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link myapp.domain.Address}.
@@ -41,15 +45,22 @@ public class AddressResource {
 
     private final AddressRepository addressRepository;
 
-    public AddressResource(AddressRepository addressRepository) {
+    private final ListStreamingService listStreamingService;
+
+    public AddressResource(AddressRepository addressRepository, ListStreamingService listStreamingService) {
         this.addressRepository = addressRepository;
+        this.listStreamingService = listStreamingService;
     }
 
     /**
      * {@code POST  /addresses} : Create a new address.
+     * <p>
+     * If the customer already has the same address, up to case and whitespace, it is reused instead of inserting a new one.
      *
      * @param address the address to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new address, or with status {@code 400 (Bad Request)} if the address has already an ID.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new address,
+     * or with status {@code 200 (OK)} and with body the existing address,
+     * or with status {@code 400 (Bad Request)} if the address has already an ID.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("")
@@ -58,6 +69,17 @@ public class AddressResource {
         if (address.getId() != null) {
             throw new BadRequestAlertException("A new address cannot already have an ID", ENTITY_NAME, "idexists");
         }
+        address.setNormalizedHash(AddressNormalizer.hash(address));
+        if (address.getCustomer() != null && address.getCustomer().getId() != null) {
+            Optional<Address> existingAddress = addressRepository.findFirstByCustomerIdAndNormalizedHashOrderByIdAsc(
+                address.getCustomer().getId(),
+                address.getNormalizedHash()
+            );
+            if (existingAddress.isPresent()) {
+                LOG.debug("Reusing Address : {}", existingAddress.get().getId());
+                return ResponseEntity.ok().location(new URI("/api/addresses/" + existingAddress.get().getId())).body(existingAddress.get());
+            }
+        }
         address = addressRepository.save(address);
         return ResponseEntity.created(new URI("/api/addresses/" + address.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, address.getId().toString()))
@@ -69,15 +91,37 @@ public class AddressResource {
      *
      * @param id the id of the address to save.
      * @param address the address to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated address,
      * or with status {@code 400 (Bad Request)} if the address is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the address changed since the {@code If-Match} version,
      * or with status {@code 500 (Internal Server Error)} if the address couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<Address> updateAddress(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody Address address
+        @Valid @RequestBody Address address,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
+        return updateAddress(id, address, ifMatch, addressRepository::findVersionById);
+    }
+
+    /**
+     * Updates an existing address, checking the {@code If-Match} version against {@code versionLookup}.
+     *
+     * @param id the id of the address to save.
+     * @param address the address to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
+     * @param versionLookup the lookup of the current version of an address by id.
+     * @return the {@link ResponseEntity} of the update.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    public ResponseEntity<Address> updateAddress(
+        Long id,
+        Address address,
+        String ifMatch,
+        Function<Long, Optional<Long>> versionLookup
     ) throws URISyntaxException {
         LOG.debug("REST request to update Address : {}, {}", id, address);
         if (address.getId() == null) {
@@ -87,13 +131,16 @@ public class AddressResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!addressRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Long version = versionLookup
+            .apply(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        address.setVersion(ETagUtil.checkIfMatch(ifMatch, version, address.getVersion()));
 
+        address.setNormalizedHash(AddressNormalizer.hash(address));
         address = addressRepository.save(address);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, address.getId().toString()))
+            .eTag(ETagUtil.eTag(address.getVersion()))
             .body(address);
     }
 
@@ -102,8 +149,10 @@ public class AddressResource {
      *
      * @param id the id of the address to save.
      * @param address the address to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated address,
      * or with status {@code 400 (Bad Request)} if the address is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the address changed since the {@code If-Match} version,
      * or with status {@code 404 (Not Found)} if the address is not found,
      * or with status {@code 500 (Internal Server Error)} if the address couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
@@ -111,7 +160,27 @@ public class AddressResource {
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Address> partialUpdateAddress(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Address address
+        @NotNull @RequestBody Address address,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
+        return partialUpdateAddress(id, address, ifMatch, addressRepository::findVersionById);
+    }
+
+    /**
+     * Partial updates given fields of an existing address, checking the {@code If-Match} version against {@code versionLookup}.
+     *
+     * @param id the id of the address to save.
+     * @param address the address to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
+     * @param versionLookup the lookup of the current version of an address by id.
+     * @return the {@link ResponseEntity} of the update.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    public ResponseEntity<Address> partialUpdateAddress(
+        Long id,
+        Address address,
+        String ifMatch,
+        Function<Long, Optional<Long>> versionLookup
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update Address partially : {}, {}", id, address);
         if (address.getId() == null) {
@@ -121,13 +190,17 @@ public class AddressResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!addressRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Long version = versionLookup
+            .apply(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        address.setVersion(ETagUtil.checkIfMatch(ifMatch, version, address.getVersion()));
 
         Optional<Address> result = addressRepository
             .findById(address.getId())
             .map(existingAddress -> {
+                if (address.getVersion() != null && !address.getVersion().equals(existingAddress.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Address.class, address.getId());
+                }
                 if (address.getAddress1() != null) {
                     existingAddress.setAddress1(address.getAddress1());
                 }
@@ -143,14 +216,16 @@ public class AddressResource {
                 if (address.getCountry() != null) {
                     existingAddress.setCountry(address.getCountry());
                 }
+                existingAddress.setNormalizedHash(AddressNormalizer.hash(existingAddress));
 
                 return existingAddress;
             })
             .map(addressRepository::save);
 
-        return ResponseUtil.wrapOrNotFound(
+        return ETagUtil.wrapOrNotFound(
             result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, address.getId().toString())
+            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, address.getId().toString()),
+            Address::getVersion
         );
     }
 
@@ -158,14 +233,21 @@ public class AddressResource {
      * {@code GET  /addresses} : get all the addresses.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of addresses in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of addresses in body, streamed for large pages.
      */
     @GetMapping("")
-    public ResponseEntity<List<Address>> getAllAddresses(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<?> getAllAddresses(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
         LOG.debug("REST request to get a page of Addresses");
+        if (listStreamingService.isStreamed(pageable)) {
+            return StreamingUtil.ok(
+                pageable,
+                addressRepository.count(),
+                outputStream -> listStreamingService.writeArray(() -> addressRepository.streamAllBy(pageable), outputStream)
+            );
+        }
         Page<Address> page = addressRepository.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return ETagUtil.ok(page.getContent(), page.getTotalElements(), headers, Address::getId, Address::getVersion);
     }
 
     /**
@@ -178,7 +260,7 @@ public class AddressResource {
     public ResponseEntity<Address> getAddress(@PathVariable("id") Long id) {
         LOG.debug("REST request to get Address : {}", id);
         Optional<Address> address = addressRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(address);
+        return ETagUtil.wrapOrNotFound(address, Address::getVersion);
     }
 
     /**
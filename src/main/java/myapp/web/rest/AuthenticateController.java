@@ -4,11 +4,17 @@ import static myapp.security.SecurityUtils.AUTHORITIES_KEY;
 import static myapp.security.SecurityUtils.JWT_ALGORITHM;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.security.Principal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.UUID;
 import java.util.stream.Collectors;
+import myapp.management.AuthenticationPhase;
+import myapp.management.SecurityMetersService;
+import myapp.security.LoginThrottle;
+import myapp.security.TokenRevocationRegistry;
 import myapp.web.rest.vm.LoginVM;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,8 +27,10 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
@@ -47,13 +55,39 @@ public class AuthenticateController {
 
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public AuthenticateController(JwtEncoder jwtEncoder, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    private final LoginThrottle loginThrottle;
+
+    private final SecurityMetersService securityMetersService;
+
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+
+    public AuthenticateController(
+        JwtEncoder jwtEncoder,
+        AuthenticationManagerBuilder authenticationManagerBuilder,
+        LoginThrottle loginThrottle,
+        SecurityMetersService securityMetersService,
+        TokenRevocationRegistry tokenRevocationRegistry
+    ) {
         this.jwtEncoder = jwtEncoder;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.loginThrottle = loginThrottle;
+        this.securityMetersService = securityMetersService;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
     }
 
+    /**
+     * {@code POST /authenticate} : authenticate a user, and return a JWT.
+     * <p>
+     * The password is checked on the password hashing pool, see {@link myapp.security.BoundedPasswordEncoder}.
+     *
+     * @param loginVM the credentials.
+     * @param request the HTTP request.
+     * @return the token, or status {@code 429 (Too Many Requests)} if the client or the user made too many attempts
+     * or the password hashing pool is saturated.
+     */
     @PostMapping("/authenticate")
-    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM) {
+    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM, HttpServletRequest request) {
+        loginThrottle.checkAttempt(loginVM.getUsername(), request);
         UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
             loginVM.getUsername(),
             loginVM.getPassword()
@@ -79,10 +113,23 @@ public class AuthenticateController {
         return principal == null ? null : principal.getName();
     }
 
+    /**
+     * {@code POST /logout} : revoke the token of the current request.
+     *
+     * @param jwt the token.
+     * @return the {@link ResponseEntity} with status {@code 204 (No Content)}.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@AuthenticationPrincipal Jwt jwt) {
+        LOG.debug("REST request to revoke the token of {}", jwt.getSubject());
+        tokenRevocationRegistry.revoke(jwt);
+        return ResponseEntity.noContent().build();
+    }
+
     public String createToken(Authentication authentication, boolean rememberMe) {
         String authorities = authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.joining(" "));
 
-        Instant now = Instant.now();
+        Instant now = tokenRevocationRegistry.issuedAt(authentication.getName(), Instant.now());
         Instant validity;
         if (rememberMe) {
             validity = now.plus(this.tokenValidityInSecondsForRememberMe, ChronoUnit.SECONDS);
@@ -95,11 +142,14 @@ public class AuthenticateController {
             .issuedAt(now)
             .expiresAt(validity)
             .subject(authentication.getName())
+            .id(UUID.randomUUID().toString())
             .claim(AUTHORITIES_KEY, authorities)
             .build();
 
         JwsHeader jwsHeader = JwsHeader.with(JWT_ALGORITHM).build();
-        return this.jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader, claims)).getTokenValue();
+        return securityMetersService.timeAuthenticationPhase(AuthenticationPhase.JWT_ENCODE, () ->
+            this.jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader, claims)).getTokenValue()
+        );
     }
 
     /**
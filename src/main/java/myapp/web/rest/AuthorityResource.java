@@ -7,6 +7,8 @@ import java.util.List;
 import java.util.Optional;
 import myapp.domain.Authority;
 import myapp.repository.AuthorityRepository;
+import myapp.security.AuthorityRegistry;
+import myapp.security.UserDetailsCache;
 import myapp.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,8 +37,14 @@ public class AuthorityResource {
 
     private final AuthorityRepository authorityRepository;
 
-    public AuthorityResource(AuthorityRepository authorityRepository) {
+    private final AuthorityRegistry authorityRegistry;
+
+    private final UserDetailsCache userDetailsCache;
+
+    public AuthorityResource(AuthorityRepository authorityRepository, AuthorityRegistry authorityRegistry, UserDetailsCache userDetailsCache) {
         this.authorityRepository = authorityRepository;
+        this.authorityRegistry = authorityRegistry;
+        this.userDetailsCache = userDetailsCache;
     }
 
     /**
@@ -50,10 +58,11 @@ public class AuthorityResource {
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
     public ResponseEntity<Authority> createAuthority(@Valid @RequestBody Authority authority) throws URISyntaxException {
         LOG.debug("REST request to save Authority : {}", authority);
-        if (authorityRepository.existsById(authority.getName())) {
+        if (authorityRegistry.contains(authority.getName())) {
             throw new BadRequestAlertException("authority already exists", ENTITY_NAME, "idexists");
         }
         authority = authorityRepository.save(authority);
+        authorityRegistry.refreshAfterCommit();
         return ResponseEntity.created(new URI("/api/authorities/" + authority.getName()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME, authority.getName()))
             .body(authority);
@@ -68,7 +77,7 @@ public class AuthorityResource {
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
     public List<Authority> getAllAuthorities() {
         LOG.debug("REST request to get all Authorities");
-        return authorityRepository.findAll();
+        return authorityRegistry.getNames().stream().map(AuthorityResource::toAuthority).toList();
     }
 
     /**
@@ -81,7 +90,7 @@ public class AuthorityResource {
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN')")
     public ResponseEntity<Authority> getAuthority(@PathVariable("id") String id) {
         LOG.debug("REST request to get Authority : {}", id);
-        Optional<Authority> authority = authorityRepository.findById(id);
+        Optional<Authority> authority = Optional.of(id).filter(authorityRegistry::contains).map(AuthorityResource::toAuthority);
         return ResponseUtil.wrapOrNotFound(authority);
     }
 
@@ -96,6 +105,13 @@ public class AuthorityResource {
     public ResponseEntity<Void> deleteAuthority(@PathVariable("id") String id) {
         LOG.debug("REST request to delete Authority : {}", id);
         authorityRepository.deleteById(id);
+        authorityRegistry.refreshAfterCommit();
+        // the users holding the authority lose it
+        userDetailsCache.evictAll();
         return ResponseEntity.noContent().headers(HeaderUtil.createEntityDeletionAlert(applicationName, false, ENTITY_NAME, id)).build();
     }
+
+    private static Authority toAuthority(String name) {
+        return new Authority().name(name).setIsPersisted();
+    }
 }
@@ -0,0 +1,456 @@
+package myapp.web.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import java.net.URISyntaxException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import myapp.config.ApplicationProperties;
+import myapp.domain.Address;
+import myapp.domain.Category;
+import myapp.domain.Customer;
+import myapp.domain.Order;
+import myapp.domain.Product;
+import myapp.domain.WishList;
+import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.rest.errors.ErrorConstants;
+import myapp.web.rest.errors.ExceptionTranslator;
+import myapp.web.rest.errors.FieldErrorVM;
+import myapp.web.rest.errors.PreconditionFailedException;
+import myapp.web.rest.util.ETagUtil;
+import myapp.web.rest.vm.BatchOperationVM;
+import myapp.web.rest.vm.BatchRequestVM;
+import myapp.web.rest.vm.BatchResultVM;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.ErrorResponseException;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import tech.jhipster.web.rest.errors.ProblemDetailWithCause.ProblemDetailWithCauseBuilder;
+
+/**
+ * REST controller running batches of operations on the entity resources, in one round trip.
+ * <p>
+ * Each operation is handed to the entity resource, so it behaves exactly as the equivalent request would, and gets
+ * the status, location, ETag and body of the equivalent response, or its problem. All the operations are parsed and
+ * validated before any of them runs, and an invalid one only fails itself.
+ * <p>
+ * An atomic batch runs in one transaction: its statements are flushed together, in JDBC batches, and none of them
+ * is committed unless all the operations succeed. The {@code If-Match} versions are checked against the entities
+ * loaded in the persistence context, not by queries, which would flush the pending statements: they are the
+ * versions from before the batch. An atomic batch therefore cannot operate twice on the same entity, whose second
+ * operation would be checked against a version the first one changed. The operations of a failed atomic batch that
+ * are not to blame get a {@code 424 (Failed Dependency)}. Otherwise each operation runs in its own transaction, and
+ * fails alone.
+ */
+@RestController
+@RequestMapping("/api")
+public class BatchResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BatchResource.class);
+
+    private static final String ENTITY_NAME = "batch";
+
+    private static final BatchResultVM FAILED_DEPENDENCY = new BatchResultVM(HttpStatus.FAILED_DEPENDENCY.value(), null, null, null);
+
+    private final Map<String, EntityOperations<?>> resources = new HashMap<>();
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExceptionTranslator exceptionTranslator;
+
+    private final ApplicationProperties.Batch properties;
+
+    public BatchResource(
+        AddressResource addressResource,
+        CategoryResource categoryResource,
+        CustomerResource customerResource,
+        OrderResource orderResource,
+        ProductResource productResource,
+        WishListResource wishListResource,
+        ObjectMapper objectMapper,
+        Validator validator,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        ExceptionTranslator exceptionTranslator,
+        ApplicationProperties applicationProperties
+    ) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.exceptionTranslator = exceptionTranslator;
+        this.properties = applicationProperties.getBatch();
+        resources.put(
+            "addresses",
+            new EntityOperations<>(
+                Address.class,
+                Address::getVersion,
+                entityManager,
+                addressResource::createAddress,
+                addressResource::updateAddress,
+                addressResource::partialUpdateAddress,
+                addressResource::deleteAddress
+            )
+        );
+        resources.put(
+            "categories",
+            new EntityOperations<>(
+                Category.class,
+                Category::getVersion,
+                entityManager,
+                categoryResource::createCategory,
+                categoryResource::updateCategory,
+                categoryResource::partialUpdateCategory,
+                categoryResource::deleteCategory
+            )
+        );
+        resources.put(
+            "customers",
+            new EntityOperations<>(
+                Customer.class,
+                Customer::getVersion,
+                entityManager,
+                customerResource::createCustomer,
+                customerResource::updateCustomer,
+                customerResource::partialUpdateCustomer,
+                customerResource::deleteCustomer
+            )
+        );
+        resources.put(
+            "orders",
+            new EntityOperations<>(
+                Order.class,
+                Order::getVersion,
+                entityManager,
+                orderResource::createOrder,
+                orderResource::updateOrder,
+                orderResource::partialUpdateOrder,
+                orderResource::deleteOrder
+            )
+        );
+        resources.put(
+            "products",
+            new EntityOperations<>(
+                Product.class,
+                Product::getVersion,
+                entityManager,
+                productResource::createProduct,
+                productResource::updateProduct,
+                productResource::partialUpdateProduct,
+                productResource::deleteProduct
+            )
+        );
+        resources.put(
+            "wish-lists",
+            new EntityOperations<>(
+                WishList.class,
+                WishList::getVersion,
+                entityManager,
+                wishListResource::createWishList,
+                wishListResource::updateWishList,
+                wishListResource::partialUpdateWishList,
+                wishListResource::deleteWishList
+            )
+        );
+    }
+
+    /**
+     * {@code POST  /_batch} : Run a batch of operations on the entity resources.
+     *
+     * @param batch the operations, and whether they run atomically.
+     * @param request the current request.
+     * @return the result of each operation, in the order of the operations,
+     * or with status {@code 400 (Bad Request)} if the batch has too many operations.
+     */
+    @PostMapping("/_batch")
+    public List<BatchResultVM> executeBatch(@Valid @RequestBody BatchRequestVM batch, NativeWebRequest request) {
+        LOG.debug("REST request to execute Batch : {}", batch);
+        if (batch.getOperations().size() > properties.getMaxOperations()) {
+            throw new BadRequestAlertException(
+                "A batch cannot have more than " + properties.getMaxOperations() + " operations",
+                ENTITY_NAME,
+                "toolarge"
+            );
+        }
+        List<PreparedOperation> operations = batch.getOperations().stream().map(operation -> prepare(operation, request)).toList();
+        if (!batch.isAtomic()) {
+            return executeIndependently(operations, request);
+        }
+        rejectDuplicateIds(operations, request);
+        return executeAtomically(operations, request);
+    }
+
+    private void rejectDuplicateIds(List<PreparedOperation> operations, NativeWebRequest request) {
+        Set<String> targets = new HashSet<>();
+        for (PreparedOperation operation : operations) {
+            if (operation.isFailed() || operation.operation.getId() == null) {
+                continue;
+            }
+            if (!targets.add(operation.operation.getResource() + "/" + operation.operation.getId())) {
+                BadRequestAlertException e = new BadRequestAlertException(
+                    "An atomic batch cannot operate twice on the same entity",
+                    operation.operation.getResource(),
+                    "idduplicate"
+                );
+                operation.fail(toResult(e, operation.operation, request));
+            }
+        }
+    }
+
+    private List<BatchResultVM> executeAtomically(List<PreparedOperation> operations, NativeWebRequest request) {
+        if (operations.stream().anyMatch(PreparedOperation::isFailed)) {
+            return operations.stream().map(operation -> operation.isFailed() ? operation.result : FAILED_DEPENDENCY).toList();
+        }
+        Boolean committed;
+        try {
+            committed = transactionTemplate.execute(status -> {
+                for (PreparedOperation operation : operations) {
+                    try {
+                        operation.execute();
+                    } catch (RuntimeException e) {
+                        operation.fail(toResult(e, operation.operation, request));
+                        status.setRollbackOnly();
+                        return false;
+                    }
+                }
+                return true;
+            });
+        } catch (RuntimeException e) {
+            // the batched statements are flushed on commit, where a failure cannot be told apart
+            BatchResultVM result = toResult(e, null, request);
+            return operations.stream().map(operation -> result).toList();
+        }
+        if (!Boolean.TRUE.equals(committed)) {
+            return operations.stream().map(operation -> operation.isFailed() ? operation.result : FAILED_DEPENDENCY).toList();
+        }
+        return operations.stream().map(PreparedOperation::succeed).toList();
+    }
+
+    private List<BatchResultVM> executeIndependently(List<PreparedOperation> operations, NativeWebRequest request) {
+        for (PreparedOperation operation : operations) {
+            if (operation.isFailed()) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> operation.execute());
+                operation.succeed();
+            } catch (RuntimeException e) {
+                operation.fail(toResult(e, operation.operation, request));
+            }
+        }
+        return operations.stream().map(operation -> operation.result).toList();
+    }
+
+    private PreparedOperation prepare(BatchOperationVM operation, NativeWebRequest request) {
+        try {
+            BatchOperationVM.Method method = parseMethod(operation.getMethod());
+            EntityOperations<?> entityOperations = resources.get(operation.getResource());
+            if (entityOperations == null) {
+                throw new BadRequestAlertException("Unknown resource", ENTITY_NAME, "resourceunknown");
+            }
+            if (method != BatchOperationVM.Method.CREATE && operation.getId() == null) {
+                throw new BadRequestAlertException("Invalid id", operation.getResource(), "idnull");
+            }
+            Object entity = method == BatchOperationVM.Method.DELETE ? null : read(operation, method, entityOperations.type);
+            return new PreparedOperation(operation, method, entityOperations, entity);
+        } catch (RuntimeException e) {
+            PreparedOperation prepared = new PreparedOperation(operation, null, null, null);
+            prepared.fail(toResult(e, operation, request));
+            return prepared;
+        }
+    }
+
+    private static BatchOperationVM.Method parseMethod(String name) {
+        for (BatchOperationVM.Method method : BatchOperationVM.Method.values()) {
+            if (method.name().equals(name)) {
+                return method;
+            }
+        }
+        throw new BadRequestAlertException("Invalid method", ENTITY_NAME, "methodinvalid");
+    }
+
+    private <T> T read(BatchOperationVM operation, BatchOperationVM.Method method, Class<T> type) {
+        if (operation.getBody() == null || operation.getBody().isNull()) {
+            throw new BadRequestAlertException("Missing body", operation.getResource(), "bodynull");
+        }
+        T entity;
+        try {
+            entity = objectMapper.treeToValue(operation.getBody(), type);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid body", operation.getResource(), "bodyinvalid");
+        }
+        // as the resources, which only validate the full representations
+        if (method != BatchOperationVM.Method.PATCH) {
+            validate(entity, type);
+        }
+        return entity;
+    }
+
+    private <T> void validate(T entity, Class<T> type) {
+        Set<ConstraintViolation<T>> violations = validator.validate(entity);
+        if (violations.isEmpty()) {
+            return;
+        }
+        String objectName = StringUtils.uncapitalize(type.getSimpleName());
+        List<FieldErrorVM> fieldErrors = violations
+            .stream()
+            .map(violation -> new FieldErrorVM(objectName, violation.getPropertyPath().toString(), violation.getMessage()))
+            .toList();
+        throw new ErrorResponseException(
+            HttpStatus.BAD_REQUEST,
+            ProblemDetailWithCauseBuilder.instance()
+                .withStatus(HttpStatus.BAD_REQUEST.value())
+                .withType(ErrorConstants.CONSTRAINT_VIOLATION_TYPE)
+                .withTitle("Method argument not valid")
+                .withProperty("message", ErrorConstants.ERR_VALIDATION)
+                .withProperty("fieldErrors", fieldErrors)
+                .build(),
+            null
+        );
+    }
+
+    private BatchResultVM toResult(Throwable e, BatchOperationVM operation, NativeWebRequest request) {
+        LOG.debug("Batch operation {} failed: {}", operation, e.toString());
+        Throwable error = e;
+        if (error instanceof ConcurrencyFailureException && operation != null && operation.getIfMatch() != null) {
+            error = new PreconditionFailedException();
+        }
+        ResponseEntity<Object> response = exceptionTranslator.handleAnyException(error, request);
+        return new BatchResultVM(response.getStatusCode().value(), null, null, response.getBody());
+    }
+
+    @FunctionalInterface
+    private interface Create<T> {
+        ResponseEntity<?> create(T entity) throws URISyntaxException;
+    }
+
+    @FunctionalInterface
+    private interface Update<T> {
+        ResponseEntity<?> update(Long id, T entity, String ifMatch, Function<Long, Optional<Long>> versionLookup) throws URISyntaxException;
+    }
+
+    /**
+     * The operations of an entity resource.
+     */
+    private static final class EntityOperations<T> {
+
+        final Class<T> type;
+
+        final Function<T, Long> version;
+
+        /**
+         * Reads the current version from the entity in the persistence context, loading it if need be.
+         */
+        final Function<Long, Optional<Long>> versionLookup;
+
+        final Create<T> create;
+
+        final Update<T> update;
+
+        final Update<T> patch;
+
+        final Function<Long, ResponseEntity<?>> delete;
+
+        EntityOperations(
+            Class<T> type,
+            Function<T, Long> version,
+            EntityManager entityManager,
+            Create<T> create,
+            Update<T> update,
+            Update<T> patch,
+            Function<Long, ResponseEntity<?>> delete
+        ) {
+            this.type = type;
+            this.version = version;
+            this.versionLookup = id -> Optional.ofNullable(entityManager.find(type, id)).map(version);
+            this.create = create;
+            this.update = update;
+            this.patch = patch;
+            this.delete = delete;
+        }
+
+        ResponseEntity<?> execute(BatchOperationVM.Method method, BatchOperationVM operation, Object entity) {
+            try {
+                return switch (method) {
+                    case CREATE -> create.create(type.cast(entity));
+                    case UPDATE -> update.update(operation.getId(), type.cast(entity), operation.getIfMatch(), versionLookup);
+                    case PATCH -> patch.update(operation.getId(), type.cast(entity), operation.getIfMatch(), versionLookup);
+                    case DELETE -> delete.apply(operation.getId());
+                };
+            } catch (URISyntaxException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        String eTag(Object body) {
+            return type.isInstance(body) ? ETagUtil.eTag(version.apply(type.cast(body))) : null;
+        }
+    }
+
+    /**
+     * An operation, parsed and validated, with its result once known.
+     */
+    private static final class PreparedOperation {
+
+        final BatchOperationVM operation;
+
+        final BatchOperationVM.Method method;
+
+        final EntityOperations<?> entityOperations;
+
+        final Object entity;
+
+        ResponseEntity<?> response;
+
+        BatchResultVM result;
+
+        PreparedOperation(BatchOperationVM operation, BatchOperationVM.Method method, EntityOperations<?> entityOperations, Object entity) {
+            this.operation = operation;
+            this.method = method;
+            this.entityOperations = entityOperations;
+            this.entity = entity;
+        }
+
+        boolean isFailed() {
+            return result != null && response == null;
+        }
+
+        void execute() {
+            response = entityOperations.execute(method, operation, entity);
+        }
+
+        void fail(BatchResultVM result) {
+            this.response = null;
+            this.result = result;
+        }
+
+        /**
+         * Build the result of the response, once committed, as the versions are only incremented on flush.
+         */
+        BatchResultVM succeed() {
+            Object body = response.getBody();
+            String location = response.getHeaders().getLocation() != null ? response.getHeaders().getLocation().toString() : null;
+            result = new BatchResultVM(response.getStatusCode().value(), location, entityOperations.eTag(body), body);
+            return result;
+        }
+    }
+}
@@ -4,13 +4,16 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import myapp.domain.Category;
 import myapp.repository.CategoryRepository;
 import myapp.service.CategoryService;
+import myapp.service.ListStreamingService;
 import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.rest.util.ETagUtil;
+import myapp.web.rest.util.StreamingUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -22,7 +25,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link myapp.domain.Category}.
@@ -42,9 +44,16 @@ public class CategoryResource {
 
     private final CategoryRepository categoryRepository;
 
-    public CategoryResource(CategoryService categoryService, CategoryRepository categoryRepository) {
+    private final ListStreamingService listStreamingService;
+
+    public CategoryResource(
+        CategoryService categoryService,
+        CategoryRepository categoryRepository,
+        ListStreamingService listStreamingService
+    ) {
         this.categoryService = categoryService;
         this.categoryRepository = categoryRepository;
+        this.listStreamingService = listStreamingService;
     }
 
     /**
@@ -71,15 +80,37 @@ public class CategoryResource {
      *
      * @param id the id of the category to save.
      * @param category the category to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated category,
      * or with status {@code 400 (Bad Request)} if the category is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the category changed since the {@code If-Match} version,
      * or with status {@code 500 (Internal Server Error)} if the category couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<Category> updateCategory(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody Category category
+        @Valid @RequestBody Category category,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
+        return updateCategory(id, category, ifMatch, categoryRepository::findVersionById);
+    }
+
+    /**
+     * Updates an existing category, checking the {@code If-Match} version against {@code versionLookup}.
+     *
+     * @param id the id of the category to save.
+     * @param category the category to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
+     * @param versionLookup the lookup of the current version of a category by id.
+     * @return the {@link ResponseEntity} of the update.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    public ResponseEntity<Category> updateCategory(
+        Long id,
+        Category category,
+        String ifMatch,
+        Function<Long, Optional<Long>> versionLookup
     ) throws URISyntaxException {
         LOG.debug("REST request to update Category : {}, {}", id, category);
         if (category.getId() == null) {
@@ -89,13 +120,15 @@ public class CategoryResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!categoryRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Long version = versionLookup
+            .apply(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        category.setVersion(ETagUtil.checkIfMatch(ifMatch, version, category.getVersion()));
 
         category = categoryService.update(category);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, category.getId().toString()))
+            .eTag(ETagUtil.eTag(category.getVersion()))
             .body(category);
     }
 
@@ -104,8 +137,10 @@ public class CategoryResource {
      *
      * @param id the id of the category to save.
      * @param category the category to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated category,
      * or with status {@code 400 (Bad Request)} if the category is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the category changed since the {@code If-Match} version,
      * or with status {@code 404 (Not Found)} if the category is not found,
      * or with status {@code 500 (Internal Server Error)} if the category couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
@@ -113,7 +148,27 @@ public class CategoryResource {
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Category> partialUpdateCategory(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Category category
+        @NotNull @RequestBody Category category,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
+        return partialUpdateCategory(id, category, ifMatch, categoryRepository::findVersionById);
+    }
+
+    /**
+     * Partial updates given fields of an existing category, checking the {@code If-Match} version against {@code versionLookup}.
+     *
+     * @param id the id of the category to save.
+     * @param category the category to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
+     * @param versionLookup the lookup of the current version of a category by id.
+     * @return the {@link ResponseEntity} of the update.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    public ResponseEntity<Category> partialUpdateCategory(
+        Long id,
+        Category category,
+        String ifMatch,
+        Function<Long, Optional<Long>> versionLookup
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update Category partially : {}, {}", id, category);
         if (category.getId() == null) {
@@ -123,15 +178,17 @@ public class CategoryResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!categoryRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Long version = versionLookup
+            .apply(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        category.setVersion(ETagUtil.checkIfMatch(ifMatch, version, category.getVersion()));
 
         Optional<Category> result = categoryService.partialUpdate(category);
 
-        return ResponseUtil.wrapOrNotFound(
+        return ETagUtil.wrapOrNotFound(
             result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, category.getId().toString())
+            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, category.getId().toString()),
+            Category::getVersion
         );
     }
 
@@ -140,14 +197,21 @@ public class CategoryResource {
      *
      * @param pageable the pagination information.
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of categories in body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of categories in body, streamed for large pages when not eager loading.
      */
     @GetMapping("")
-    public ResponseEntity<List<Category>> getAllCategories(
+    public ResponseEntity<?> getAllCategories(
         @org.springdoc.core.annotations.ParameterObject Pageable pageable,
         @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload
     ) {
         LOG.debug("REST request to get a page of Categories");
+        if (!eagerload && listStreamingService.isStreamed(pageable)) {
+            return StreamingUtil.ok(
+                pageable,
+                categoryRepository.count(),
+                outputStream -> listStreamingService.writeArray(() -> categoryRepository.streamAllBy(pageable), outputStream)
+            );
+        }
         Page<Category> page;
         if (eagerload) {
             page = categoryService.findAllWithEagerRelationships(pageable);
@@ -155,7 +219,7 @@ public class CategoryResource {
             page = categoryService.findAll(pageable);
         }
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return ETagUtil.ok(page.getContent(), page.getTotalElements(), headers, Category::getId, Category::getVersion);
     }
 
     /**
@@ -168,7 +232,7 @@ public class CategoryResource {
     public ResponseEntity<Category> getCategory(@PathVariable("id") Long id) {
         LOG.debug("REST request to get Category : {}", id);
         Optional<Category> category = categoryService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(category);
+        return ETagUtil.wrapOrNotFound(category, Category::getVersion);
     }
 
     /**
@@ -1,5 +1,6 @@
 package myapp.web.rest;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
@@ -7,22 +8,36 @@ import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import myapp.domain.Customer;
 import myapp.repository.CustomerRepository;
+import myapp.security.AuthoritiesConstants;
+import myapp.service.CustomerExportService;
 import myapp.service.CustomerService;
+import myapp.service.ListStreamingService;
+import myapp.service.SparseFieldsetService;
+import myapp.service.SuggestionService;
+import myapp.service.dto.SuggestionDTO;
 import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.rest.util.ETagUtil;
+import myapp.web.rest.util.SparseFieldsetUtil;
+import myapp.web.rest.util.StreamingUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link myapp.domain.Customer}.
@@ -35,6 +50,18 @@ public class CustomerResource {
 
     private static final String ENTITY_NAME = "customer";
 
+    /**
+     * Fields that can be requested with {@code ?fields=}, or sorted by along with them.
+     */
+    private static final List<String> ALLOWED_FIELDS = List.of(
+        "id",
+        "firstName",
+        "lastName",
+        "email",
+        "telephone",
+        "version"
+    );
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -42,9 +69,28 @@ public class CustomerResource {
 
     private final CustomerRepository customerRepository;
 
-    public CustomerResource(CustomerService customerService, CustomerRepository customerRepository) {
+    private final SuggestionService suggestionService;
+
+    private final CustomerExportService customerExportService;
+
+    private final ListStreamingService listStreamingService;
+
+    private final SparseFieldsetService sparseFieldsetService;
+
+    public CustomerResource(
+        CustomerService customerService,
+        CustomerRepository customerRepository,
+        SuggestionService suggestionService,
+        CustomerExportService customerExportService,
+        ListStreamingService listStreamingService,
+        SparseFieldsetService sparseFieldsetService
+    ) {
         this.customerService = customerService;
         this.customerRepository = customerRepository;
+        this.suggestionService = suggestionService;
+        this.customerExportService = customerExportService;
+        this.listStreamingService = listStreamingService;
+        this.sparseFieldsetService = sparseFieldsetService;
     }
 
     /**
@@ -71,15 +117,37 @@ public class CustomerResource {
      *
      * @param id the id of the customer to save.
      * @param customer the customer to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated customer,
      * or with status {@code 400 (Bad Request)} if the customer is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the customer changed since the {@code If-Match} version,
      * or with status {@code 500 (Internal Server Error)} if the customer couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<Customer> updateCustomer(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody Customer customer
+        @Valid @RequestBody Customer customer,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
+        return updateCustomer(id, customer, ifMatch, customerRepository::findVersionById);
+    }
+
+    /**
+     * Updates an existing customer, checking the {@code If-Match} version against {@code versionLookup}.
+     *
+     * @param id the id of the customer to save.
+     * @param customer the customer to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
+     * @param versionLookup the lookup of the current version of a customer by id.
+     * @return the {@link ResponseEntity} of the update.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    public ResponseEntity<Customer> updateCustomer(
+        Long id,
+        Customer customer,
+        String ifMatch,
+        Function<Long, Optional<Long>> versionLookup
     ) throws URISyntaxException {
         LOG.debug("REST request to update Customer : {}, {}", id, customer);
         if (customer.getId() == null) {
@@ -89,13 +157,15 @@ public class CustomerResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!customerRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Long version = versionLookup
+            .apply(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        customer.setVersion(ETagUtil.checkIfMatch(ifMatch, version, customer.getVersion()));
 
         customer = customerService.update(customer);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, customer.getId().toString()))
+            .eTag(ETagUtil.eTag(customer.getVersion()))
             .body(customer);
     }
 
@@ -104,8 +174,10 @@ public class CustomerResource {
      *
      * @param id the id of the customer to save.
      * @param customer the customer to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated customer,
      * or with status {@code 400 (Bad Request)} if the customer is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the customer changed since the {@code If-Match} version,
      * or with status {@code 404 (Not Found)} if the customer is not found,
      * or with status {@code 500 (Internal Server Error)} if the customer couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
@@ -113,7 +185,27 @@ public class CustomerResource {
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Customer> partialUpdateCustomer(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Customer customer
+        @NotNull @RequestBody Customer customer,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
+        return partialUpdateCustomer(id, customer, ifMatch, customerRepository::findVersionById);
+    }
+
+    /**
+     * Partial updates given fields of an existing customer, checking the {@code If-Match} version against {@code versionLookup}.
+     *
+     * @param id the id of the customer to save.
+     * @param customer the customer to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
+     * @param versionLookup the lookup of the current version of a customer by id.
+     * @return the {@link ResponseEntity} of the update.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    public ResponseEntity<Customer> partialUpdateCustomer(
+        Long id,
+        Customer customer,
+        String ifMatch,
+        Function<Long, Optional<Long>> versionLookup
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update Customer partially : {}, {}", id, customer);
         if (customer.getId() == null) {
@@ -123,15 +215,17 @@ public class CustomerResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!customerRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Long version = versionLookup
+            .apply(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        customer.setVersion(ETagUtil.checkIfMatch(ifMatch, version, customer.getVersion()));
 
         Optional<Customer> result = customerService.partialUpdate(customer);
 
-        return ResponseUtil.wrapOrNotFound(
+        return ETagUtil.wrapOrNotFound(
             result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, customer.getId().toString())
+            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, customer.getId().toString()),
+            Customer::getVersion
         );
     }
 
@@ -139,14 +233,42 @@ public class CustomerResource {
      * {@code GET  /customers} : get all the customers.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of customers in body.
+     * @param fields the fields to return besides the id, all of them if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of customers in body, streamed for large pages,
+     * or with status {@code 400 (Bad Request)} if a field or a sort property is not allowed.
      */
     @GetMapping("")
-    public ResponseEntity<List<Customer>> getAllCustomers(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<?> getAllCustomers(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = "fields", required = false) List<String> fields
+    ) {
         LOG.debug("REST request to get a page of Customers");
+        if (fields != null) {
+            List<String> selectedFields = SparseFieldsetUtil.selectedFields(fields, ALLOWED_FIELDS, pageable, ENTITY_NAME);
+            return SparseFieldsetUtil.ok(sparseFieldsetService.findAll(Customer.class, selectedFields, pageable));
+        }
+        if (listStreamingService.isStreamed(pageable)) {
+            return StreamingUtil.ok(
+                pageable,
+                customerRepository.count(),
+                outputStream -> listStreamingService.writeArray(() -> customerRepository.streamAllBy(pageable), outputStream)
+            );
+        }
         Page<Customer> page = customerService.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return ETagUtil.ok(page.getContent(), page.getTotalElements(), headers, Customer::getId, Customer::getVersion);
+    }
+
+    /**
+     * {@code GET  /customers/_suggest?prefix=:prefix} : get the first customers whose first name, last name or email starts with the prefix.
+     *
+     * @param prefix the prefix to complete, compared case-insensitively.
+     * @return at most {@value SuggestionService#SUGGESTION_LIMIT} suggestions, in alphabetical order of the matched value.
+     */
+    @GetMapping("/_suggest")
+    public List<SuggestionDTO> suggestCustomers(@RequestParam("prefix") String prefix) {
+        LOG.debug("REST request to suggest Customers for prefix : {}", prefix);
+        return suggestionService.suggestCustomers(prefix);
     }
 
     /**
@@ -159,7 +281,36 @@ public class CustomerResource {
     public ResponseEntity<Customer> getCustomer(@PathVariable("id") Long id) {
         LOG.debug("REST request to get Customer : {}", id);
         Optional<Customer> customer = customerService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(customer);
+        return ETagUtil.wrapOrNotFound(customer, Customer::getVersion);
+    }
+
+    /**
+     * {@code GET  /customers/:id/_export} : export all the data of the "id" customer.
+     * <p>
+     * The response is a ZIP archive of JSON lines files, one per entity type, streamed from a dedicated executor.
+     *
+     * @param id the id of the customer to export.
+     * @param response the response to stream the archive to.
+     * @return the task writing the archive, answering with status {@code 200 (OK)},
+     * or with status {@code 404 (Not Found)} if the customer does not exist,
+     * or with status {@code 503 (Service Unavailable)} if too many exports are already running.
+     */
+    @GetMapping("/{id}/_export")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public WebAsyncTask<Void> exportCustomer(@PathVariable("id") Long id, HttpServletResponse response) {
+        LOG.debug("REST request to export Customer : {}", id);
+        if (!customerRepository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        return new WebAsyncTask<>(customerExportService.getTimeout().toMillis(), customerExportService.getExecutor(), () -> {
+            response.setContentType("application/zip");
+            response.setHeader(
+                HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("customer-" + id + ".zip").build().toString()
+            );
+            customerExportService.export(id, response.getOutputStream());
+            return null;
+        });
     }
 
     /**
@@ -7,10 +7,16 @@ import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import myapp.domain.Order;
 import myapp.repository.OrderRepository;
+import myapp.service.ListStreamingService;
 import myapp.service.OrderService;
+import myapp.service.SparseFieldsetService;
 import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.rest.util.ETagUtil;
+import myapp.web.rest.util.SparseFieldsetUtil;
+import myapp.web.rest.util.StreamingUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -22,7 +28,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link myapp.domain.Order}.
@@ -35,6 +40,20 @@ public class OrderResource {
 
     private static final String ENTITY_NAME = "order";
 
+    /**
+     * Fields that can be requested with {@code ?fields=}, or sorted by along with them.
+     */
+    private static final List<String> ALLOWED_FIELDS = List.of(
+        "id",
+        "orderDate",
+        "shippedDate",
+        "status",
+        "totalAmount",
+        "shippingCost",
+        "trackingNumber",
+        "version"
+    );
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -42,9 +61,20 @@ public class OrderResource {
 
     private final OrderRepository orderRepository;
 
-    public OrderResource(OrderService orderService, OrderRepository orderRepository) {
+    private final ListStreamingService listStreamingService;
+
+    private final SparseFieldsetService sparseFieldsetService;
+
+    public OrderResource(
+        OrderService orderService,
+        OrderRepository orderRepository,
+        ListStreamingService listStreamingService,
+        SparseFieldsetService sparseFieldsetService
+    ) {
         this.orderService = orderService;
         this.orderRepository = orderRepository;
+        this.listStreamingService = listStreamingService;
+        this.sparseFieldsetService = sparseFieldsetService;
     }
 
     /**
@@ -71,14 +101,38 @@ public class OrderResource {
      *
      * @param id the id of the order to save.
      * @param order the order to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated order,
      * or with status {@code 400 (Bad Request)} if the order is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the order changed since the {@code If-Match} version,
      * or with status {@code 500 (Internal Server Error)} if the order couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Order> updateOrder(@PathVariable(value = "id", required = false) final Long id, @Valid @RequestBody Order order)
-        throws URISyntaxException {
+    public ResponseEntity<Order> updateOrder(
+        @PathVariable(value = "id", required = false) final Long id,
+        @Valid @RequestBody Order order,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
+        return updateOrder(id, order, ifMatch, orderRepository::findVersionById);
+    }
+
+    /**
+     * Updates an existing order, checking the {@code If-Match} version against {@code versionLookup}.
+     *
+     * @param id the id of the order to save.
+     * @param order the order to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
+     * @param versionLookup the lookup of the current version of an order by id.
+     * @return the {@link ResponseEntity} of the update.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    public ResponseEntity<Order> updateOrder(
+        Long id,
+        Order order,
+        String ifMatch,
+        Function<Long, Optional<Long>> versionLookup
+    ) throws URISyntaxException {
         LOG.debug("REST request to update Order : {}, {}", id, order);
         if (order.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
@@ -87,13 +141,15 @@ public class OrderResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!orderRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Long version = versionLookup
+            .apply(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        order.setVersion(ETagUtil.checkIfMatch(ifMatch, version, order.getVersion()));
 
         order = orderService.update(order);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, order.getId().toString()))
+            .eTag(ETagUtil.eTag(order.getVersion()))
             .body(order);
     }
 
@@ -102,8 +158,10 @@ public class OrderResource {
      *
      * @param id the id of the order to save.
      * @param order the order to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated order,
      * or with status {@code 400 (Bad Request)} if the order is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the order changed since the {@code If-Match} version,
      * or with status {@code 404 (Not Found)} if the order is not found,
      * or with status {@code 500 (Internal Server Error)} if the order couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
@@ -111,7 +169,27 @@ public class OrderResource {
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Order> partialUpdateOrder(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Order order
+        @NotNull @RequestBody Order order,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
+        return partialUpdateOrder(id, order, ifMatch, orderRepository::findVersionById);
+    }
+
+    /**
+     * Partial updates given fields of an existing order, checking the {@code If-Match} version against {@code versionLookup}.
+     *
+     * @param id the id of the order to save.
+     * @param order the order to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
+     * @param versionLookup the lookup of the current version of an order by id.
+     * @return the {@link ResponseEntity} of the update.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    public ResponseEntity<Order> partialUpdateOrder(
+        Long id,
+        Order order,
+        String ifMatch,
+        Function<Long, Optional<Long>> versionLookup
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update Order partially : {}, {}", id, order);
         if (order.getId() == null) {
@@ -121,15 +199,17 @@ public class OrderResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!orderRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Long version = versionLookup
+            .apply(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        order.setVersion(ETagUtil.checkIfMatch(ifMatch, version, order.getVersion()));
 
         Optional<Order> result = orderService.partialUpdate(order);
 
-        return ResponseUtil.wrapOrNotFound(
+        return ETagUtil.wrapOrNotFound(
             result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, order.getId().toString())
+            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, order.getId().toString()),
+            Order::getVersion
         );
     }
 
@@ -137,14 +217,30 @@ public class OrderResource {
      * {@code GET  /orders} : get all the orders.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of orders in body.
+     * @param fields the fields to return besides the id, all of them if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of orders in body, streamed for large pages,
+     * or with status {@code 400 (Bad Request)} if a field or a sort property is not allowed.
      */
     @GetMapping("")
-    public ResponseEntity<List<Order>> getAllOrders(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<?> getAllOrders(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = "fields", required = false) List<String> fields
+    ) {
         LOG.debug("REST request to get a page of Orders");
+        if (fields != null) {
+            List<String> selectedFields = SparseFieldsetUtil.selectedFields(fields, ALLOWED_FIELDS, pageable, ENTITY_NAME);
+            return SparseFieldsetUtil.ok(sparseFieldsetService.findAll(Order.class, selectedFields, pageable));
+        }
+        if (listStreamingService.isStreamed(pageable)) {
+            return StreamingUtil.ok(
+                pageable,
+                orderRepository.count(),
+                outputStream -> listStreamingService.writeArray(() -> orderRepository.streamAllBy(pageable), outputStream)
+            );
+        }
         Page<Order> page = orderService.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return ETagUtil.ok(page.getContent(), page.getTotalElements(), headers, Order::getId, Order::getVersion);
     }
 
     /**
@@ -157,7 +253,7 @@ public class OrderResource {
     public ResponseEntity<Order> getOrder(@PathVariable("id") Long id) {
         LOG.debug("REST request to get Order : {}", id);
         Optional<Order> order = orderService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(order);
+        return ETagUtil.wrapOrNotFound(order, Order::getVersion);
     }
 
     /**
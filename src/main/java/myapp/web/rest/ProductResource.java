@@ -7,10 +7,18 @@ import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import myapp.domain.Product;
 import myapp.repository.ProductRepository;
+import myapp.service.ListStreamingService;
 import myapp.service.ProductService;
+import myapp.service.SparseFieldsetService;
+import myapp.service.SuggestionService;
+import myapp.service.dto.SuggestionDTO;
 import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.rest.util.ETagUtil;
+import myapp.web.rest.util.SparseFieldsetUtil;
+import myapp.web.rest.util.StreamingUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -22,7 +30,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link myapp.domain.Product}.
@@ -35,6 +42,25 @@ public class ProductResource {
 
     private static final String ENTITY_NAME = "product";
 
+    /**
+     * Fields that can be requested with {@code ?fields=}, or sorted by along with them.
+     */
+    private static final List<String> ALLOWED_FIELDS = List.of(
+        "id",
+        "title",
+        "keywords",
+        "description",
+        "rating",
+        "price",
+        "quantityInStock",
+        "status",
+        "weight",
+        "dimensions",
+        "dateAdded",
+        "dateModified",
+        "version"
+    );
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -42,9 +68,24 @@ public class ProductResource {
 
     private final ProductRepository productRepository;
 
-    public ProductResource(ProductService productService, ProductRepository productRepository) {
+    private final SuggestionService suggestionService;
+
+    private final ListStreamingService listStreamingService;
+
+    private final SparseFieldsetService sparseFieldsetService;
+
+    public ProductResource(
+        ProductService productService,
+        ProductRepository productRepository,
+        SuggestionService suggestionService,
+        ListStreamingService listStreamingService,
+        SparseFieldsetService sparseFieldsetService
+    ) {
         this.productService = productService;
         this.productRepository = productRepository;
+        this.suggestionService = suggestionService;
+        this.listStreamingService = listStreamingService;
+        this.sparseFieldsetService = sparseFieldsetService;
     }
 
     /**
@@ -71,15 +112,37 @@ public class ProductResource {
      *
      * @param id the id of the product to save.
      * @param product the product to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated product,
      * or with status {@code 400 (Bad Request)} if the product is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the product changed since the {@code If-Match} version,
      * or with status {@code 500 (Internal Server Error)} if the product couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<Product> updateProduct(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody Product product
+        @Valid @RequestBody Product product,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
+        return updateProduct(id, product, ifMatch, productRepository::findVersionById);
+    }
+
+    /**
+     * Updates an existing product, checking the {@code If-Match} version against {@code versionLookup}.
+     *
+     * @param id the id of the product to save.
+     * @param product the product to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
+     * @param versionLookup the lookup of the current version of a product by id.
+     * @return the {@link ResponseEntity} of the update.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    public ResponseEntity<Product> updateProduct(
+        Long id,
+        Product product,
+        String ifMatch,
+        Function<Long, Optional<Long>> versionLookup
     ) throws URISyntaxException {
         LOG.debug("REST request to update Product : {}, {}", id, product);
         if (product.getId() == null) {
@@ -89,13 +152,15 @@ public class ProductResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!productRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Long version = versionLookup
+            .apply(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        product.setVersion(ETagUtil.checkIfMatch(ifMatch, version, product.getVersion()));
 
         product = productService.update(product);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, product.getId().toString()))
+            .eTag(ETagUtil.eTag(product.getVersion()))
             .body(product);
     }
 
@@ -104,8 +169,10 @@ public class ProductResource {
      *
      * @param id the id of the product to save.
      * @param product the product to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated product,
      * or with status {@code 400 (Bad Request)} if the product is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the product changed since the {@code If-Match} version,
      * or with status {@code 404 (Not Found)} if the product is not found,
      * or with status {@code 500 (Internal Server Error)} if the product couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
@@ -113,7 +180,27 @@ public class ProductResource {
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<Product> partialUpdateProduct(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody Product product
+        @NotNull @RequestBody Product product,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
+        return partialUpdateProduct(id, product, ifMatch, productRepository::findVersionById);
+    }
+
+    /**
+     * Partial updates given fields of an existing product, checking the {@code If-Match} version against {@code versionLookup}.
+     *
+     * @param id the id of the product to save.
+     * @param product the product to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
+     * @param versionLookup the lookup of the current version of a product by id.
+     * @return the {@link ResponseEntity} of the update.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    public ResponseEntity<Product> partialUpdateProduct(
+        Long id,
+        Product product,
+        String ifMatch,
+        Function<Long, Optional<Long>> versionLookup
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update Product partially : {}, {}", id, product);
         if (product.getId() == null) {
@@ -123,15 +210,17 @@ public class ProductResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!productRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Long version = versionLookup
+            .apply(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        product.setVersion(ETagUtil.checkIfMatch(ifMatch, version, product.getVersion()));
 
         Optional<Product> result = productService.partialUpdate(product);
 
-        return ResponseUtil.wrapOrNotFound(
+        return ETagUtil.wrapOrNotFound(
             result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, product.getId().toString())
+            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, product.getId().toString()),
+            Product::getVersion
         );
     }
 
@@ -139,14 +228,42 @@ public class ProductResource {
      * {@code GET  /products} : get all the products.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body.
+     * @param fields the fields to return besides the id, all of them if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body, streamed for large pages,
+     * or with status {@code 400 (Bad Request)} if a field or a sort property is not allowed.
      */
     @GetMapping("")
-    public ResponseEntity<List<Product>> getAllProducts(@org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+    public ResponseEntity<?> getAllProducts(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        @RequestParam(name = "fields", required = false) List<String> fields
+    ) {
         LOG.debug("REST request to get a page of Products");
+        if (fields != null) {
+            List<String> selectedFields = SparseFieldsetUtil.selectedFields(fields, ALLOWED_FIELDS, pageable, ENTITY_NAME);
+            return SparseFieldsetUtil.ok(sparseFieldsetService.findAll(Product.class, selectedFields, pageable));
+        }
+        if (listStreamingService.isStreamed(pageable)) {
+            return StreamingUtil.ok(
+                pageable,
+                productRepository.count(),
+                outputStream -> listStreamingService.writeArray(() -> productRepository.streamAllBy(pageable), outputStream)
+            );
+        }
         Page<Product> page = productService.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return ETagUtil.ok(page.getContent(), page.getTotalElements(), headers, Product::getId, Product::getVersion);
+    }
+
+    /**
+     * {@code GET  /products/_suggest?prefix=:prefix} : get the first products whose title starts with the prefix.
+     *
+     * @param prefix the prefix to complete, compared case-insensitively.
+     * @return at most {@value SuggestionService#SUGGESTION_LIMIT} suggestions, in alphabetical order of the matched value.
+     */
+    @GetMapping("/_suggest")
+    public List<SuggestionDTO> suggestProducts(@RequestParam("prefix") String prefix) {
+        LOG.debug("REST request to suggest Products for prefix : {}", prefix);
+        return suggestionService.suggestProducts(prefix);
     }
 
     /**
@@ -159,7 +276,7 @@ public class ProductResource {
     public ResponseEntity<Product> getProduct(@PathVariable("id") Long id) {
         LOG.debug("REST request to get Product : {}", id);
         Optional<Product> product = productService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(product);
+        return ETagUtil.wrapOrNotFound(product, Product::getVersion);
     }
 
     /**
@@ -8,7 +8,6 @@ import java.util.*;
 import java.util.Collections;
 import myapp.config.Constants;
 import myapp.domain.User;
-import myapp.repository.UserRepository;
 import myapp.security.AuthoritiesConstants;
 import myapp.service.MailService;
 import myapp.service.UserService;
@@ -83,13 +82,10 @@ public class UserResource {
 
     private final UserService userService;
 
-    private final UserRepository userRepository;
-
     private final MailService mailService;
 
-    public UserResource(UserService userService, UserRepository userRepository, MailService mailService) {
+    public UserResource(UserService userService, MailService mailService) {
         this.userService = userService;
-        this.userRepository = userRepository;
         this.mailService = mailService;
     }
 
@@ -112,10 +108,13 @@ public class UserResource {
 
         if (userDTO.getId() != null) {
             throw new BadRequestAlertException("A new user cannot already have an ID", "userManagement", "idexists");
-            // Lowercase the user login before comparing with database
-        } else if (userRepository.findOneByLogin(userDTO.getLogin().toLowerCase()).isPresent()) {
+        }
+        // Lowercase the user login before comparing with database
+        String login = userDTO.getLogin().toLowerCase();
+        List<User> existingUsers = userService.findUsersWithLoginOrEmail(login, userDTO.getEmail());
+        if (existingUsers.stream().anyMatch(existingUser -> existingUser.getLogin().equals(login))) {
             throw new LoginAlreadyUsedException();
-        } else if (userRepository.findOneByEmailIgnoreCase(userDTO.getEmail()).isPresent()) {
+        } else if (!existingUsers.isEmpty()) {
             throw new EmailAlreadyUsedException();
         } else {
             User newUser = userService.createUser(userDTO);
@@ -143,12 +142,19 @@ public class UserResource {
         @Valid @RequestBody AdminUserDTO userDTO
     ) {
         LOG.debug("REST request to update User : {}", userDTO);
-        Optional<User> existingUser = userRepository.findOneByEmailIgnoreCase(userDTO.getEmail());
-        if (existingUser.isPresent() && (!existingUser.orElseThrow().getId().equals(userDTO.getId()))) {
+        String lowercaseLogin = userDTO.getLogin().toLowerCase();
+        List<User> otherUsers = userService
+            .findUsersWithLoginOrEmail(lowercaseLogin, userDTO.getEmail())
+            .stream()
+            .filter(existingUser -> !existingUser.getId().equals(userDTO.getId()))
+            .toList();
+        if (
+            userDTO.getEmail() != null &&
+            otherUsers.stream().anyMatch(existingUser -> userDTO.getEmail().equalsIgnoreCase(existingUser.getEmail()))
+        ) {
             throw new EmailAlreadyUsedException();
         }
-        existingUser = userRepository.findOneByLogin(userDTO.getLogin().toLowerCase());
-        if (existingUser.isPresent() && (!existingUser.orElseThrow().getId().equals(userDTO.getId()))) {
+        if (!otherUsers.isEmpty()) {
             throw new LoginAlreadyUsedException();
         }
         Optional<AdminUserDTO> updatedUser = userService.updateUser(userDTO);
@@ -210,4 +216,18 @@ public class UserResource {
             .headers(HeaderUtil.createAlert(applicationName, "A user is deleted with identifier " + login, login))
             .build();
     }
+
+    /**
+     * {@code POST /admin/users/:login/_revoke-tokens} : revoke all the tokens issued so far to the "login" user.
+     *
+     * @param login the login of the user.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}.
+     */
+    @PostMapping("/users/{login}/_revoke-tokens")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> revokeTokens(@PathVariable("login") @Pattern(regexp = Constants.LOGIN_REGEX) String login) {
+        LOG.debug("REST request to revoke the tokens of User: {}", login);
+        userService.revokeTokens(login);
+        return ResponseEntity.noContent().build();
+    }
 }
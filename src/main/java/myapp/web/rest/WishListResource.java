@@ -7,17 +7,22 @@ import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import myapp.domain.WishList;
 import myapp.repository.WishListRepository;
+import myapp.security.AuthoritiesConstants;
+import myapp.security.SecurityUtils;
 import myapp.web.rest.errors.BadRequestAlertException;
+import myapp.web.rest.util.ETagUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.ResponseUtil;
 
 /**
  * REST controller for managing {@link myapp.domain.WishList}.
@@ -64,15 +69,37 @@ public class WishListResource {
      *
      * @param id the id of the wishList to save.
      * @param wishList the wishList to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated wishList,
      * or with status {@code 400 (Bad Request)} if the wishList is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the wishList changed since the {@code If-Match} version,
      * or with status {@code 500 (Internal Server Error)} if the wishList couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<WishList> updateWishList(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody WishList wishList
+        @Valid @RequestBody WishList wishList,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
+        return updateWishList(id, wishList, ifMatch, wishListRepository::findVersionById);
+    }
+
+    /**
+     * Updates an existing wish list, checking the {@code If-Match} version against {@code versionLookup}.
+     *
+     * @param id the id of the wish list to save.
+     * @param wishList the wish list to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
+     * @param versionLookup the lookup of the current version of a wish list by id.
+     * @return the {@link ResponseEntity} of the update.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    public ResponseEntity<WishList> updateWishList(
+        Long id,
+        WishList wishList,
+        String ifMatch,
+        Function<Long, Optional<Long>> versionLookup
     ) throws URISyntaxException {
         LOG.debug("REST request to update WishList : {}, {}", id, wishList);
         if (wishList.getId() == null) {
@@ -82,13 +109,15 @@ public class WishListResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!wishListRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Long version = versionLookup
+            .apply(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        wishList.setVersion(ETagUtil.checkIfMatch(ifMatch, version, wishList.getVersion()));
 
         wishList = wishListRepository.save(wishList);
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, wishList.getId().toString()))
+            .eTag(ETagUtil.eTag(wishList.getVersion()))
             .body(wishList);
     }
 
@@ -97,8 +126,10 @@ public class WishListResource {
      *
      * @param id the id of the wishList to save.
      * @param wishList the wishList to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated wishList,
      * or with status {@code 400 (Bad Request)} if the wishList is not valid,
+     * or with status {@code 412 (Precondition Failed)} if the wishList changed since the {@code If-Match} version,
      * or with status {@code 404 (Not Found)} if the wishList is not found,
      * or with status {@code 500 (Internal Server Error)} if the wishList couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
@@ -106,7 +137,27 @@ public class WishListResource {
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<WishList> partialUpdateWishList(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody WishList wishList
+        @NotNull @RequestBody WishList wishList,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) throws URISyntaxException {
+        return partialUpdateWishList(id, wishList, ifMatch, wishListRepository::findVersionById);
+    }
+
+    /**
+     * Partial updates given fields of an existing wish list, checking the {@code If-Match} version against {@code versionLookup}.
+     *
+     * @param id the id of the wish list to save.
+     * @param wishList the wish list to update.
+     * @param ifMatch the version the update is based on, as an ETag, if any.
+     * @param versionLookup the lookup of the current version of a wish list by id.
+     * @return the {@link ResponseEntity} of the update.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    public ResponseEntity<WishList> partialUpdateWishList(
+        Long id,
+        WishList wishList,
+        String ifMatch,
+        Function<Long, Optional<Long>> versionLookup
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update WishList partially : {}, {}", id, wishList);
         if (wishList.getId() == null) {
@@ -116,13 +167,17 @@ public class WishListResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!wishListRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
+        Long version = versionLookup
+            .apply(id)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        wishList.setVersion(ETagUtil.checkIfMatch(ifMatch, version, wishList.getVersion()));
 
         Optional<WishList> result = wishListRepository
             .findById(wishList.getId())
             .map(existingWishList -> {
+                if (wishList.getVersion() != null && !wishList.getVersion().equals(existingWishList.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(WishList.class, wishList.getId());
+                }
                 if (wishList.getTitle() != null) {
                     existingWishList.setTitle(wishList.getTitle());
                 }
@@ -134,34 +189,42 @@ public class WishListResource {
             })
             .map(wishListRepository::save);
 
-        return ResponseUtil.wrapOrNotFound(
+        return ETagUtil.wrapOrNotFound(
             result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, wishList.getId().toString())
+            HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME, wishList.getId().toString()),
+            WishList::getVersion
         );
     }
 
     /**
-     * {@code GET  /wish-lists} : get all the wishLists.
+     * {@code GET  /wish-lists} : get all the wishLists visible to the current user.
+     * <p>
+     * Administrators see every wishList, other users see the non-restricted ones and their own.
      *
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of wishLists in body.
      */
     @GetMapping("")
-    public List<WishList> getAllWishLists() {
+    public ResponseEntity<List<WishList>> getAllWishLists() {
         LOG.debug("REST request to get all WishLists");
-        return wishListRepository.findAll();
+        List<WishList> wishLists = SecurityUtils.hasCurrentUserThisAuthority(AuthoritiesConstants.ADMIN)
+            ? wishListRepository.findAll()
+            : wishListRepository.findAllVisibleTo(SecurityUtils.getCurrentUserLogin().orElse(null));
+        return ETagUtil.ok(wishLists, wishLists.size(), null, WishList::getId, WishList::getVersion);
     }
 
     /**
      * {@code GET  /wish-lists/:id} : get the "id" wishList.
      *
      * @param id the id of the wishList to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the wishList, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the wishList, or with status {@code 404 (Not Found)} if it does not exist or is not visible to the current user.
      */
     @GetMapping("/{id}")
     public ResponseEntity<WishList> getWishList(@PathVariable("id") Long id) {
         LOG.debug("REST request to get WishList : {}", id);
-        Optional<WishList> wishList = wishListRepository.findById(id);
-        return ResponseUtil.wrapOrNotFound(wishList);
+        Optional<WishList> wishList = SecurityUtils.hasCurrentUserThisAuthority(AuthoritiesConstants.ADMIN)
+            ? wishListRepository.findById(id)
+            : wishListRepository.findOneVisibleTo(id, SecurityUtils.getCurrentUserLogin().orElse(null));
+        return ETagUtil.wrapOrNotFound(wishList, WishList::getVersion);
     }
 
     /**
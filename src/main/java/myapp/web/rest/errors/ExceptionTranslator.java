@@ -9,9 +9,12 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import myapp.security.LoginThrottledException;
+import myapp.security.PasswordHashingRejectedException;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpHeaders;
@@ -59,6 +62,10 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
 
     @ExceptionHandler
     public ResponseEntity<Object> handleAnyException(Throwable ex, NativeWebRequest request) {
+        if (ex instanceof ConcurrencyFailureException && request.getHeader(HttpHeaders.IF_MATCH) != null) {
+            // the entity changed between the check of the precondition and the update
+            ex = new PreconditionFailedException();
+        }
         ProblemDetailWithCause pdCause = wrapAndCustomizeProblem(ex, request);
         return handleExceptionInternal((Exception) ex, pdCause, buildHeaders(ex), HttpStatusCode.valueOf(pdCause.getStatus()), request);
     }
@@ -209,6 +216,9 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
         if (err instanceof AccessDeniedException) return HttpStatus.FORBIDDEN;
         if (err instanceof ConcurrencyFailureException) return HttpStatus.CONFLICT;
         if (err instanceof BadCredentialsException) return HttpStatus.UNAUTHORIZED;
+        if (err instanceof TaskRejectedException) return HttpStatus.SERVICE_UNAVAILABLE;
+        if (err instanceof PasswordHashingRejectedException) return HttpStatus.TOO_MANY_REQUESTS;
+        if (err instanceof LoginThrottledException) return HttpStatus.TOO_MANY_REQUESTS;
         return null;
     }
 
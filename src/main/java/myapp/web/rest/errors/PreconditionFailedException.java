@@ -0,0 +1,27 @@
+package myapp.web.rest.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+import tech.jhipster.web.rest.errors.ProblemDetailWithCause.ProblemDetailWithCauseBuilder;
+
+/**
+ * Thrown when the {@code If-Match} precondition of an update does not hold, the entity having changed since.
+ */
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class PreconditionFailedException extends ErrorResponseException {
+
+    private static final long serialVersionUID = 1L;
+
+    public PreconditionFailedException() {
+        super(
+            HttpStatus.PRECONDITION_FAILED,
+            ProblemDetailWithCauseBuilder.instance()
+                .withStatus(HttpStatus.PRECONDITION_FAILED.value())
+                .withType(ErrorConstants.DEFAULT_TYPE)
+                .withTitle("The entity was modified since the version the request is based on")
+                .withProperty("message", ErrorConstants.ERR_PRECONDITION_FAILED)
+                .build(),
+            null
+        );
+    }
+}
@@ -0,0 +1,160 @@
+package myapp.web.rest.util;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import myapp.web.rest.errors.PreconditionFailedException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Utility class for the ETags of the entity resources, derived from the {@link jakarta.persistence.Version} of the
+ * entities.
+ * <p>
+ * An entity is tagged with its version, a strong ETag. A page of entities is tagged with a weak ETag, a hash of the
+ * ids and versions of its entities and of the total count, so it changes whenever an entity of the page does, or
+ * an entity is created or deleted, without serializing the page. When a response carries an ETag matching the
+ * {@code If-None-Match} header of a {@code GET}, Spring MVC answers {@code 304 (Not Modified)} without a body.
+ * <p>
+ * The version only changes with the columns of the entity itself: a representation embedding an association may
+ * change without its ETag changing.
+ */
+public final class ETagUtil {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final String ANY = "*";
+
+    /**
+     * Lets clients keep the responses, but only in their private cache and revalidated with their ETag on every use.
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ETagUtil() {}
+
+    /**
+     * Get the ETag of an entity version.
+     *
+     * @param version the version.
+     * @return the strong ETag.
+     */
+    public static String eTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Get the weak ETag of a list of entities.
+     *
+     * @param content the entities.
+     * @param total the total number of entities the list is a page of.
+     * @param id the id of an entity.
+     * @param version the version of an entity.
+     * @param <T> the type of the entities.
+     * @return the weak ETag.
+     */
+    public static <T> String weakETag(List<T> content, long total, Function<T, Long> id, Function<T, Long> version) {
+        long hash = mix(FNV_OFFSET_BASIS, total);
+        for (T entity : content) {
+            hash = mix(hash, valueOf(id.apply(entity)));
+            hash = mix(hash, valueOf(version.apply(entity)));
+        }
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Wrap an entity into a {@link ResponseEntity} with status {@link HttpStatus#OK} tagged with its version, or throw
+     * a {@link ResponseStatusException} with status {@link HttpStatus#NOT_FOUND}.
+     *
+     * @param maybeResponse the entity to return when present.
+     * @param version the version of the entity.
+     * @param <T> the type of the entity.
+     * @return the response.
+     */
+    public static <T> ResponseEntity<T> wrapOrNotFound(Optional<T> maybeResponse, Function<T, Long> version) {
+        return wrapOrNotFound(maybeResponse, null, version);
+    }
+
+    /**
+     * Wrap an entity into a {@link ResponseEntity} with status {@link HttpStatus#OK} tagged with its version, or throw
+     * a {@link ResponseStatusException} with status {@link HttpStatus#NOT_FOUND}.
+     *
+     * @param maybeResponse the entity to return when present.
+     * @param header the headers to add to the response.
+     * @param version the version of the entity.
+     * @param <T> the type of the entity.
+     * @return the response.
+     */
+    public static <T> ResponseEntity<T> wrapOrNotFound(Optional<T> maybeResponse, HttpHeaders header, Function<T, Long> version) {
+        return maybeResponse
+            .map(response ->
+                ResponseEntity.ok().headers(header).eTag(eTag(version.apply(response))).cacheControl(REVALIDATE).body(response)
+            )
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    /**
+     * Wrap a list of entities into a {@link ResponseEntity} with status {@link HttpStatus#OK} tagged with its weak ETag.
+     *
+     * @param content the entities.
+     * @param total the total number of entities the list is a page of.
+     * @param headers the headers to add to the response, such as the pagination ones.
+     * @param id the id of an entity.
+     * @param version the version of an entity.
+     * @param <T> the type of the entities.
+     * @return the response.
+     */
+    public static <T> ResponseEntity<List<T>> ok(
+        List<T> content,
+        long total,
+        HttpHeaders headers,
+        Function<T, Long> id,
+        Function<T, Long> version
+    ) {
+        return ResponseEntity.ok().headers(headers).eTag(weakETag(content, total, id, version)).cacheControl(REVALIDATE).body(content);
+    }
+
+    /**
+     * Check the {@code If-Match} header of an update.
+     * <p>
+     * The update is based on the current version when the precondition holds. Without precondition, it is based on
+     * the version of the request body if any, checked when the entity is saved, else on the current version, so it
+     * overwrites whatever changed in between.
+     *
+     * @param ifMatch the {@code If-Match} header, {@code null} if absent.
+     * @param currentVersion the current version of the entity.
+     * @param requestedVersion the version of the request body, {@code null} if absent.
+     * @return the version the update is based on.
+     * @throws PreconditionFailedException if the header matches neither the current version nor {@code *}.
+     */
+    public static Long checkIfMatch(String ifMatch, Long currentVersion, Long requestedVersion) {
+        if (ifMatch == null) {
+            return requestedVersion != null ? requestedVersion : currentVersion;
+        }
+        // a strong comparison: a weak ETag never matches
+        String currentETag = eTag(currentVersion);
+        for (String eTag : ifMatch.split(",")) {
+            String trimmed = eTag.trim();
+            if (ANY.equals(trimmed) || currentETag.equals(trimmed)) {
+                return currentVersion;
+            }
+        }
+        throw new PreconditionFailedException();
+    }
+
+    private static long valueOf(Long value) {
+        return value != null ? value : -1L;
+    }
+
+    private static long mix(long hash, long value) {
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            hash ^= (value >>> shift) & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+}
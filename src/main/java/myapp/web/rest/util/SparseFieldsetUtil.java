@@ -0,0 +1,68 @@
+package myapp.web.rest.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import myapp.web.rest.errors.BadRequestAlertException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * Utility class for the sparse fieldsets of the entity resources, requested with the {@code fields} query parameter,
+ * such as {@code ?fields=title,price}.
+ * <p>
+ * The fields are checked against a whitelist per entity, as are the sort properties, before being selected by
+ * {@link myapp.service.SparseFieldsetService}. The id is always selected, first. A sparse page carries no ETag, as it
+ * does not hold the versions of its entities.
+ */
+public final class SparseFieldsetUtil {
+
+    private static final String ID = "id";
+
+    private SparseFieldsetUtil() {}
+
+    /**
+     * Get the fields to select.
+     *
+     * @param fields the requested fields.
+     * @param allowedFields the fields that can be requested, or sorted by.
+     * @param pageable the pagination information.
+     * @param entityName the name of the entity, for the error.
+     * @return the id, then the requested fields without duplicates.
+     * @throws BadRequestAlertException if a field or a sort property is not allowed.
+     */
+    public static List<String> selectedFields(List<String> fields, List<String> allowedFields, Pageable pageable, String entityName) {
+        List<String> selectedFields = new ArrayList<>();
+        selectedFields.add(ID);
+        for (String field : fields) {
+            String name = field.trim();
+            if (!allowedFields.contains(name)) {
+                throw new BadRequestAlertException("Invalid field " + name, entityName, "fieldinvalid");
+            }
+            if (!selectedFields.contains(name)) {
+                selectedFields.add(name);
+            }
+        }
+        if (!pageable.getSort().stream().map(Sort.Order::getProperty).allMatch(allowedFields::contains)) {
+            throw new BadRequestAlertException("Invalid sort property", entityName, "sortinvalid");
+        }
+        return selectedFields;
+    }
+
+    /**
+     * Wrap a sparse page into a {@link ResponseEntity} with status {@link HttpStatus#OK}.
+     *
+     * @param page the sparse page.
+     * @return the response, with the pagination headers.
+     */
+    public static ResponseEntity<List<Map<String, Object>>> ok(Page<Map<String, Object>> page) {
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+    }
+}
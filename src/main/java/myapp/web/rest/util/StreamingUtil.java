@@ -0,0 +1,38 @@
+package myapp.web.rest.util;
+
+import java.util.List;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * Utility class for the pages of entities streamed by {@link myapp.service.ListStreamingService}.
+ * <p>
+ * A streamed page carries the same pagination headers as a loaded one, but no ETag: it is only known once the whole
+ * page is written.
+ */
+public final class StreamingUtil {
+
+    private StreamingUtil() {}
+
+    /**
+     * Wrap a streamed page into a {@link ResponseEntity} with status {@link org.springframework.http.HttpStatus#OK}.
+     *
+     * @param pageable the pagination information.
+     * @param total the total number of entities the page is a page of.
+     * @param body the writer of the page.
+     * @return the response, with the pagination headers.
+     */
+    public static ResponseEntity<StreamingResponseBody> ok(Pageable pageable, long total, StreamingResponseBody body) {
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            new PageImpl<>(List.of(), pageable, total)
+        );
+        return ResponseEntity.ok().headers(headers).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
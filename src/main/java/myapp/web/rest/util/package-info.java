@@ -0,0 +1,4 @@
+/**
+ * Utility classes for the REST controllers.
+ */
+package myapp.web.rest.util;
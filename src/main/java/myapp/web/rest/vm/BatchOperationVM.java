@@ -0,0 +1,100 @@
+package myapp.web.rest.vm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * View Model object for one operation of a batch, the equivalent of a request to an entity resource.
+ * <p>
+ * The method and the resource are bound as strings, and checked by the batch resource, so an invalid operation only
+ * fails itself rather than the whole batch.
+ */
+public class BatchOperationVM {
+
+    public enum Method {
+        /**
+         * {@code POST /api/:resource}
+         */
+        CREATE,
+        /**
+         * {@code PUT /api/:resource/:id}
+         */
+        UPDATE,
+        /**
+         * {@code PATCH /api/:resource/:id}
+         */
+        PATCH,
+        /**
+         * {@code DELETE /api/:resource/:id}
+         */
+        DELETE,
+    }
+
+    /**
+     * The name of a {@link Method}, such as {@code UPDATE}.
+     */
+    private String method;
+
+    /**
+     * The path of the entity resource, such as {@code products}.
+     */
+    private String resource;
+
+    private Long id;
+
+    /**
+     * The {@code If-Match} header of the operation, if any.
+     */
+    private String ifMatch;
+
+    private JsonNode body;
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public void setResource(String resource) {
+        this.resource = resource;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getIfMatch() {
+        return ifMatch;
+    }
+
+    public void setIfMatch(String ifMatch) {
+        this.ifMatch = ifMatch;
+    }
+
+    public JsonNode getBody() {
+        return body;
+    }
+
+    public void setBody(JsonNode body) {
+        this.body = body;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BatchOperationVM{" +
+            "method='" + method + '\'' +
+            ", resource='" + resource + '\'' +
+            ", id=" + id +
+            '}';
+    }
+}
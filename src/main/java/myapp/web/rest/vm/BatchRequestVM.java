@@ -0,0 +1,44 @@
+package myapp.web.rest.vm;
+
+import jakarta.validation.constraints.NotEmpty;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * View Model object for a batch of operations on the entity resources.
+ */
+public class BatchRequestVM {
+
+    /**
+     * Whether all the operations run in one transaction, committed only if all of them succeed, or each in its own.
+     */
+    private boolean atomic = true;
+
+    @NotEmpty
+    private List<BatchOperationVM> operations = new ArrayList<>();
+
+    public boolean isAtomic() {
+        return atomic;
+    }
+
+    public void setAtomic(boolean atomic) {
+        this.atomic = atomic;
+    }
+
+    public List<BatchOperationVM> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<BatchOperationVM> operations) {
+        this.operations = operations;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BatchRequestVM{" +
+            "atomic=" + atomic +
+            ", operations=" + operations.size() +
+            '}';
+    }
+}
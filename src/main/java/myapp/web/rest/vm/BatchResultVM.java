@@ -0,0 +1,48 @@
+package myapp.web.rest.vm;
+
+/**
+ * View Model object for the result of one operation of a batch, the equivalent of a response of an entity resource.
+ */
+public class BatchResultVM {
+
+    private final int status;
+
+    private final String location;
+
+    private final String etag;
+
+    private final Object body;
+
+    public BatchResultVM(int status, String location, String etag, Object body) {
+        this.status = status;
+        this.location = location;
+        this.etag = etag;
+        this.body = body;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public Object getBody() {
+        return body;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BatchResultVM{" +
+            "status=" + status +
+            ", location='" + location + '\'' +
+            ", etag='" + etag + '\'' +
+            '}';
+    }
+}
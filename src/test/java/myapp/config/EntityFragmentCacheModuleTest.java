@@ -0,0 +1,157 @@
+package myapp.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Version;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class EntityFragmentCacheModuleTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        objectMapper = new ObjectMapper().registerModule(new EntityFragmentCacheModule(100, meterRegistry));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("cache.gets").tag("result", result).counter().count();
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    @Test
+    @DisplayName("The JSON of an entity is cached on the first write, then served while its version is unchanged")
+    public void shouldServeCachedJsonWhileVersionUnchanged() throws Exception {
+        Item item = new Item(1L, 0L, "first");
+
+        String miss = objectMapper.writeValueAsString(item);
+        item.name = "changed without a new version";
+        String hit = objectMapper.writeValueAsString(item);
+
+        assertEquals("{\"id\":1,\"version\":0,\"name\":\"first\",\"parent\":null}", miss);
+        assertEquals(miss, hit);
+        assertEquals(1, count("miss"));
+        assertEquals(1, count("hit"));
+    }
+
+    @Test
+    @DisplayName("A new version of an entity is serialized again")
+    public void shouldSerializeNewVersion() throws Exception {
+        Item item = new Item(1L, 0L, "first");
+        objectMapper.writeValueAsString(item);
+
+        item.name = "second";
+        item.version = 1L;
+
+        assertEquals("{\"id\":1,\"version\":1,\"name\":\"second\",\"parent\":null}", objectMapper.writeValueAsString(item));
+        assertEquals("{\"id\":1,\"version\":1,\"name\":\"second\",\"parent\":null}", objectMapper.writeValueAsString(item));
+        assertEquals(2, count("miss"));
+        assertEquals(1, count("hit"));
+    }
+
+    @Test
+    @DisplayName("An entity with a loaded association is not cached")
+    public void shouldNotCacheEntityWithLoadedAssociation() throws Exception {
+        Item item = new Item(2L, 0L, "child");
+        item.parent = new Item(1L, 0L, "parent");
+
+        objectMapper.writeValueAsString(item);
+        objectMapper.writeValueAsString(item);
+
+        // only the parent, without association, is cached
+        assertEquals(1, count("miss"));
+        assertEquals(1, count("hit"));
+    }
+
+    @Test
+    @DisplayName("The cache is used in a read-only transaction")
+    public void shouldCacheInReadOnlyTransaction() throws Exception {
+        beginTransaction(true);
+        Item item = new Item(1L, 0L, "first");
+
+        objectMapper.writeValueAsString(item);
+        objectMapper.writeValueAsString(item);
+
+        assertEquals(1, count("miss"));
+        assertEquals(1, count("hit"));
+    }
+
+    @Test
+    @DisplayName("The cache is bypassed in a read-write transaction, where versions are only incremented on flush")
+    public void shouldNotCacheInReadWriteTransaction() throws Exception {
+        beginTransaction(false);
+        Item item = new Item(1L, 0L, "first");
+        objectMapper.writeValueAsString(item);
+
+        item.name = "changed, not flushed yet";
+
+        assertEquals(
+            "{\"id\":1,\"version\":0,\"name\":\"changed, not flushed yet\",\"parent\":null}",
+            objectMapper.writeValueAsString(item)
+        );
+        assertEquals(0, count("miss"));
+        assertEquals(0, count("hit"));
+    }
+
+    @Entity
+    public static class Item {
+
+        @Id
+        private Long id;
+
+        @Version
+        private Long version;
+
+        private String name;
+
+        @ManyToOne
+        private Item parent;
+
+        Item(Long id, Long version, String name) {
+            this.id = id;
+            this.version = version;
+            this.name = name;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public Long getVersion() {
+            return version;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Item getParent() {
+            return parent;
+        }
+    }
+}
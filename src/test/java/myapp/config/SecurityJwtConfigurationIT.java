@@ -0,0 +1,89 @@
+package myapp.config;
+
+import static myapp.security.SecurityUtils.JWT_ALGORITHM;
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import myapp.IntegrationTest;
+import myapp.management.SecurityMetersService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Integration tests for the classification of the invalid tokens by the {@link JwtDecoder} of {@link SecurityJwtConfiguration}.
+ */
+@IntegrationTest
+class SecurityJwtConfigurationIT {
+
+    @Autowired
+    private JwtEncoder jwtEncoder;
+
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String createToken(MacAlgorithm algorithm, Instant expiresAt) {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+            .issuedAt(expiresAt.minus(1, ChronoUnit.HOURS))
+            .expiresAt(expiresAt)
+            .subject("invalid-token-user")
+            .build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(JwsHeader.with(algorithm).build(), claims)).getTokenValue();
+    }
+
+    private double countInvalidTokens(String cause) {
+        return meterRegistry
+            .get(SecurityMetersService.INVALID_TOKENS_METER_NAME)
+            .tag(SecurityMetersService.INVALID_TOKENS_METER_CAUSE_DIMENSION, cause)
+            .counter()
+            .count();
+    }
+
+    private void assertRejectedAs(String cause, String token) {
+        double before = countInvalidTokens(cause);
+
+        assertThrows(JwtException.class, () -> jwtDecoder.decode(token));
+
+        assertEquals(before + 1, countInvalidTokens(cause));
+    }
+
+    @Test
+    @DisplayName("An expired token is counted as expired")
+    void shouldClassifyExpiredToken() {
+        assertRejectedAs("expired", createToken(JWT_ALGORITHM, Instant.now().minus(1, ChronoUnit.HOURS)));
+    }
+
+    @Test
+    @DisplayName("A token with a bad signature is counted as invalid signature")
+    void shouldClassifyInvalidSignature() {
+        String token = createToken(JWT_ALGORITHM, Instant.now().plus(1, ChronoUnit.HOURS));
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        String otherSignature = new StringBuilder(signature).reverse().toString();
+
+        assertRejectedAs("invalid-signature", token.substring(0, token.lastIndexOf('.') + 1) + otherSignature);
+    }
+
+    @Test
+    @DisplayName("A token that cannot be parsed is counted as malformed")
+    void shouldClassifyMalformedToken() {
+        assertRejectedAs("malformed", "not-a-token");
+    }
+
+    @Test
+    @DisplayName("A token signed with another algorithm is counted as unsupported")
+    void shouldClassifyUnsupportedAlgorithm() {
+        assertRejectedAs("unsupported", createToken(MacAlgorithm.HS256, Instant.now().plus(1, ChronoUnit.HOURS)));
+    }
+}
@@ -0,0 +1,52 @@
+package myapp.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import myapp.IntegrationTest;
+import myapp.security.AuthoritiesConstants;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Integration tests for the {@link StreamingConfiguration}.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.USER)
+@IntegrationTest
+class StreamingConfigurationIT {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private long streamingTasks() {
+        return meterRegistry.get("executor.wait").tag("name", "streaming").timer().count();
+    }
+
+    @Test
+    void streamedPageIsWrittenOnStreamingExecutor() throws Exception {
+        long tasks = streamingTasks();
+
+        MvcResult result = restMockMvc.perform(get("/api/customers?page=0&size=200")).andExpect(request().asyncStarted()).andReturn();
+
+        assertEquals(Duration.ofMinutes(5).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+        restMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isArray());
+        assertEquals(tasks + 1, streamingTasks());
+    }
+}
@@ -0,0 +1,109 @@
+package myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import myapp.IntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Integration tests for the executors of {@link TaskExecutorConfiguration}.
+ * <p>
+ * The saturating tests block every thread of an executor and fill its queue, then release them before returning.
+ */
+@IntegrationTest
+class TaskExecutorConfigurationIT {
+
+    @Autowired
+    @Qualifier(TaskExecutorConfiguration.MAIL_EXECUTOR)
+    private ThreadPoolTaskExecutor mailExecutor;
+
+    @Autowired
+    @Qualifier(TaskExecutorConfiguration.EXPORT_EXECUTOR)
+    private ThreadPoolTaskExecutor exportExecutor;
+
+    @Autowired
+    @Qualifier(TaskExecutorConfiguration.JOB_EXECUTOR)
+    private ThreadPoolTaskExecutor jobExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Fill every thread and the whole queue of an executor with tasks waiting for {@code release}.
+     */
+    private static void saturate(ThreadPoolTaskExecutor executor, CountDownLatch release) {
+        for (int i = 0; i < executor.getMaxPoolSize() + executor.getQueueCapacity(); i++) {
+            executor.execute(() -> {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+    }
+
+    @Test
+    void executorsAreBounded() {
+        assertThat(mailExecutor.getMaxPoolSize()).isEqualTo(2);
+        assertThat(mailExecutor.getCorePoolSize()).isEqualTo(2);
+        assertThat(mailExecutor.getQueueCapacity()).isEqualTo(100);
+        assertThat(exportExecutor.getMaxPoolSize()).isEqualTo(2);
+        assertThat(exportExecutor.getQueueCapacity()).isEqualTo(8);
+        assertThat(jobExecutor.getMaxPoolSize()).isEqualTo(2);
+        assertThat(jobExecutor.getQueueCapacity()).isEqualTo(16);
+        assertThat(jobExecutor.getThreadPoolExecutor().allowsCoreThreadTimeOut()).isTrue();
+    }
+
+    @Test
+    void tasksRunOnNamedThreadsAndRecordTheirWait() throws Exception {
+        long waits = meterRegistry.get("executor.wait").tag("name", "job").timer().count();
+        CompletableFuture<String> thread = new CompletableFuture<>();
+
+        jobExecutor.execute(() -> thread.complete(Thread.currentThread().getName()));
+
+        assertThat(thread.get(5, TimeUnit.SECONDS)).startsWith("job-task-");
+        assertThat(meterRegistry.get("executor.wait").tag("name", "job").timer().count()).isEqualTo(waits + 1);
+    }
+
+    @Test
+    void saturatedExportExecutorRejectsTasks() {
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            saturate(exportExecutor, release);
+
+            assertThatThrownBy(() -> exportExecutor.execute(() -> {})).isInstanceOf(TaskRejectedException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void saturatedMailExecutorDiscardsTasks() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean discardedTaskRan = new AtomicBoolean();
+        try {
+            saturate(mailExecutor, release);
+
+            mailExecutor.execute(() -> discardedTaskRan.set(true));
+        } finally {
+            release.countDown();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while ((mailExecutor.getQueueSize() > 0 || mailExecutor.getActiveCount() > 0) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(mailExecutor.getQueueSize()).isZero();
+        assertThat(discardedTaskRan).isFalse();
+    }
+}
@@ -0,0 +1,75 @@
+package myapp.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import myapp.IntegrationTest;
+import myapp.domain.User;
+import myapp.repository.UserRepository;
+import myapp.web.rest.vm.LoginVM;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link AuthenticationTimingsEndpoint}.
+ */
+@AutoConfigureMockMvc
+@IntegrationTest
+@Transactional
+class AuthenticationTimingsEndpointIT {
+
+    private static final String PASSWORD = "test-password";
+
+    @Autowired
+    private AuthenticationTimingsEndpoint authenticationTimingsEndpoint;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private static long countOf(Map<String, Map<String, Object>> timings, AuthenticationPhase phase) {
+        return ((Number) timings.get(phase.getTag()).get("count")).longValue();
+    }
+
+    @Test
+    void authenticationTimingsCountEachPhaseOfLogin() throws Exception {
+        String login = RandomStringUtils.randomAlphabetic(12).toLowerCase();
+        User user = new User();
+        user.setLogin(login);
+        user.setPassword(new BCryptPasswordEncoder(4).encode(PASSWORD));
+        user.setActivated(true);
+        user.setLangKey("en");
+        userRepository.saveAndFlush(user);
+        LoginVM loginVM = new LoginVM();
+        loginVM.setUsername(login);
+        loginVM.setPassword(PASSWORD);
+        Map<String, Map<String, Object>> before = authenticationTimingsEndpoint.authenticationTimings();
+
+        mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(loginVM)))
+            .andExpect(status().isOk());
+
+        Map<String, Map<String, Object>> after = authenticationTimingsEndpoint.authenticationTimings();
+        assertThat(after).containsKeys("authenticate", "user-lookup", "password-verification", "jwt-encode", "jwt-decode");
+        assertThat(countOf(after, AuthenticationPhase.USER_LOOKUP)).isEqualTo(countOf(before, AuthenticationPhase.USER_LOOKUP) + 1);
+        assertThat(countOf(after, AuthenticationPhase.PASSWORD_VERIFICATION)).isEqualTo(
+            countOf(before, AuthenticationPhase.PASSWORD_VERIFICATION) + 1
+        );
+        assertThat(countOf(after, AuthenticationPhase.JWT_ENCODE)).isEqualTo(countOf(before, AuthenticationPhase.JWT_ENCODE) + 1);
+        assertThat(after.get(AuthenticationPhase.USER_LOOKUP.getTag())).containsKeys("mean", "max", "p50", "p95", "p99");
+    }
+}
@@ -0,0 +1,73 @@
+package myapp.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import myapp.IntegrationTest;
+import myapp.domain.Authority;
+import myapp.domain.User;
+import myapp.security.AuthoritiesConstants;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the purge queries of the {@link UserRepository}.
+ */
+@IntegrationTest
+@Transactional
+class UserRepositoryIT {
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User createUser(boolean activated) {
+        User user = new User();
+        user.setLogin("user-" + RandomStringUtils.randomAlphanumeric(8).toLowerCase());
+        user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+        user.setActivated(activated);
+        user.setActivationKey(activated ? null : RandomStringUtils.randomNumeric(20));
+        user.setLangKey("en");
+        user.setAuthorities(Set.of(em.getReference(Authority.class, AuthoritiesConstants.USER)));
+        em.persist(user);
+        return user;
+    }
+
+    private long countUserAuthorities(Long userId) {
+        return ((Number) em
+                .createNativeQuery("select count(*) from jhi_user_authority where user_id = :userId")
+                .setParameter("userId", userId)
+                .getSingleResult()).longValue();
+    }
+
+    @Test
+    @DisplayName("The users of a range still not activated are locked, then deleted with their authorities")
+    void shouldDeleteLockedNotActivatedUsersWithTheirAuthorities() {
+        User first = createUser(false);
+        User activated = createUser(true);
+        User last = createUser(false);
+        em.flush();
+        em.clear();
+        Instant createdBefore = Instant.now().plus(1, ChronoUnit.DAYS);
+
+        List<Long> lockedIds = userRepository.lockNotActivatedUserIds(first.getId(), last.getId(), createdBefore);
+
+        assertEquals(List.of(first.getId(), last.getId()), lockedIds.stream().sorted().toList());
+        assertEquals(2, userRepository.deleteUserAuthoritiesByUserIdIn(lockedIds));
+        assertEquals(2, userRepository.deleteByIdIn(lockedIds));
+        assertTrue(userRepository.findById(first.getId()).isEmpty());
+        assertTrue(userRepository.findById(last.getId()).isEmpty());
+        assertTrue(userRepository.findById(activated.getId()).isPresent());
+        assertEquals(0, countUserAuthorities(first.getId()));
+        assertEquals(1, countUserAuthorities(activated.getId()));
+    }
+}
@@ -0,0 +1,100 @@
+package myapp.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import myapp.management.SecurityMetersService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+public class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        passwordEncoder = new BoundedPasswordEncoder(new BlockingPasswordEncoder(), 1, 1, new SecurityMetersService(meterRegistry));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        passwordEncoder.shutdown();
+    }
+
+    private Thread encodeInBackground(String rawPassword) {
+        Thread thread = new Thread(() -> passwordEncoder.encode(rawPassword));
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        // the caller parks on the hash once it is submitted
+        while (thread.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    @DisplayName("Hashes run on the hashing pool, and the caller gets their result")
+    public void shouldHashOnPool() {
+        release.countDown();
+
+        assertEquals("{password-hashing-1}secret", passwordEncoder.encode("secret"));
+        assertTrue(passwordEncoder.matches("secret", "{password-hashing-1}secret"));
+        assertEquals(
+            1,
+            meterRegistry.get(SecurityMetersService.PASSWORD_HASHING_DURATION_METER_NAME).tag("operation", "encode").timer().count()
+        );
+    }
+
+    @Test
+    @DisplayName("A hash beyond the pool and the queue is rejected")
+    public void shouldRejectHashWhenSaturated() throws Exception {
+        Thread running = encodeInBackground("running");
+        started.await();
+        Thread queued = encodeInBackground("queued");
+        awaitWaiting(queued);
+
+        assertThrows(PasswordHashingRejectedException.class, () -> passwordEncoder.matches("rejected", "hash"));
+        assertEquals(1, meterRegistry.get(SecurityMetersService.PASSWORD_HASHING_REJECTED_METER_NAME).counter().count());
+
+        release.countDown();
+        running.join();
+        queued.join();
+        assertTrue(passwordEncoder.matches("accepted", "{password-hashing-1}accepted"));
+    }
+
+    /**
+     * Prefixes the passwords with the name of the hashing thread, and blocks until released.
+     */
+    private final class BlockingPasswordEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "{" + Thread.currentThread().getName() + "}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package myapp.security;
+
+import static myapp.security.SecurityUtils.JWT_ALGORITHM;
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import myapp.IntegrationTest;
+import myapp.management.SecurityMetersService;
+import myapp.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+/**
+ * Integration tests for the {@link CachingJwtDecoder}, through the {@link JwtDecoder} of the application.
+ */
+@IntegrationTest
+class CachingJwtDecoderIT {
+
+    @Autowired
+    private JwtEncoder jwtEncoder;
+
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private String createToken() {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+            .issuedAt(now)
+            .expiresAt(now.plus(1, ChronoUnit.HOURS))
+            .subject("jwt-cache-user")
+            .id(UUID.randomUUID().toString())
+            .build();
+        return jwtEncoder.encode(JwtEncoderParameters.from(JwsHeader.with(JWT_ALGORITHM).build(), claims)).getTokenValue();
+    }
+
+    private double countLookups(String result) {
+        return meterRegistry
+            .get(SecurityMetersService.JWT_CACHE_METER_NAME)
+            .tag(SecurityMetersService.JWT_CACHE_RESULT_DIMENSION, result)
+            .counter()
+            .count();
+    }
+
+    @Test
+    @DisplayName("A verified token is served from the cache the next times, rebuilt around the token")
+    void shouldServeVerifiedTokenFromCache() {
+        String token = createToken();
+        double hits = countLookups("hit");
+        double misses = countLookups("miss");
+
+        Jwt verified = jwtDecoder.decode(token);
+        Jwt cached = jwtDecoder.decode(token);
+
+        assertEquals(hits + 1, countLookups("hit"));
+        assertEquals(misses + 1, countLookups("miss"));
+        assertEquals(token, cached.getTokenValue());
+        assertEquals(verified.getClaims(), cached.getClaims());
+        assertEquals(verified.getHeaders(), cached.getHeaders());
+    }
+
+    @Test
+    @DisplayName("A token with an invalid signature is never cached")
+    void shouldNotCacheInvalidToken() {
+        String token = createToken();
+        String tampered = token.substring(0, token.lastIndexOf('.') + 1) + "AAAA" + token.substring(token.lastIndexOf('.') + 5);
+        double hits = countLookups("hit");
+
+        assertThrows(BadJwtException.class, () -> jwtDecoder.decode(tampered));
+        assertThrows(BadJwtException.class, () -> jwtDecoder.decode(tampered));
+
+        assertEquals(hits, countLookups("hit"));
+    }
+
+    @Test
+    @DisplayName("A cached token is rejected as soon as it is revoked")
+    void shouldRejectRevokedCachedToken() {
+        String token = createToken();
+        Jwt jwt = jwtDecoder.decode(token);
+        try {
+            tokenRevocationRegistry.revoke(jwt);
+
+            assertThrows(BadJwtException.class, () -> jwtDecoder.decode(token));
+        } finally {
+            revokedTokenRepository.deleteById("jti:" + jwt.getId());
+        }
+    }
+}
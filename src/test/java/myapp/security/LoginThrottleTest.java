@@ -0,0 +1,94 @@
+package myapp.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import myapp.config.ApplicationProperties;
+import myapp.management.SecurityMetersService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+public class LoginThrottleTest {
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    public void setUp() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getLoginThrottle().setLoginCapacity(3);
+        applicationProperties.getLoginThrottle().setIpCapacity(5);
+        applicationProperties.getLoginThrottle().setTrustedProxies(List.of("10.0.0.0/8", "::1"));
+    }
+
+    private LoginThrottle createLoginThrottle() {
+        return new LoginThrottle(applicationProperties, new SecurityMetersService(new SimpleMeterRegistry()));
+    }
+
+    private static MockHttpServletRequest createRequest(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+
+    @Test
+    @DisplayName("The forwarded header of an untrusted client is ignored")
+    public void shouldIgnoreForwardedForFromUntrustedClient() {
+        LoginThrottle loginThrottle = createLoginThrottle();
+
+        assertEquals("203.0.113.7", loginThrottle.clientIp(createRequest("203.0.113.7", "198.51.100.1")));
+        assertEquals("203.0.113.7", loginThrottle.clientIp(createRequest("203.0.113.7", null)));
+    }
+
+    @Test
+    @DisplayName("Behind trusted proxies, the client is the first untrusted hop from the right")
+    public void shouldSkipTrustedProxies() {
+        LoginThrottle loginThrottle = createLoginThrottle();
+
+        assertEquals("198.51.100.1", loginThrottle.clientIp(createRequest("10.0.0.2", "198.51.100.1")));
+        assertEquals("198.51.100.1", loginThrottle.clientIp(createRequest("10.0.0.2", "198.51.100.1, 10.1.2.3")));
+        // the leftmost hops are sent by the client, and cannot be trusted
+        assertEquals("198.51.100.1", loginThrottle.clientIp(createRequest("10.0.0.2", "192.0.2.99, 198.51.100.1, 10.1.2.3")));
+        assertEquals("198.51.100.1", loginThrottle.clientIp(createRequest("0:0:0:0:0:0:0:1", "unknown, 198.51.100.1")));
+    }
+
+    @Test
+    @DisplayName("Behind trusted proxies only, the client is the leftmost hop")
+    public void shouldUseLeftmostHopWhenAllAreTrusted() {
+        LoginThrottle loginThrottle = createLoginThrottle();
+
+        assertEquals("10.9.9.9", loginThrottle.clientIp(createRequest("10.0.0.2", "10.9.9.9, 10.1.2.3")));
+        assertEquals("10.0.0.2", loginThrottle.clientIp(createRequest("10.0.0.2", " ")));
+    }
+
+    @Test
+    @DisplayName("Attempts are limited per login, in any case")
+    public void shouldThrottleLogin() {
+        LoginThrottle loginThrottle = createLoginThrottle();
+
+        loginThrottle.checkAttempt("john", createRequest("198.51.100.1", null));
+        loginThrottle.checkAttempt("John", createRequest("198.51.100.2", null));
+        loginThrottle.checkAttempt("JOHN", createRequest("198.51.100.3", null));
+
+        assertThrows(LoginThrottledException.class, () -> loginThrottle.checkAttempt("john", createRequest("198.51.100.4", null)));
+        loginThrottle.checkAttempt("jane", createRequest("198.51.100.4", null));
+    }
+
+    @Test
+    @DisplayName("Attempts are limited per client IP, as resolved behind the proxies")
+    public void shouldThrottleClientIp() {
+        LoginThrottle loginThrottle = createLoginThrottle();
+
+        for (int i = 0; i < 5; i++) {
+            loginThrottle.checkAttempt("user" + i, createRequest("10.0.0.2", "198.51.100.1"));
+        }
+
+        assertThrows(LoginThrottledException.class, () -> loginThrottle.checkAttempt("jane", createRequest("10.0.0.3", "198.51.100.1")));
+        loginThrottle.checkAttempt("jane", createRequest("10.0.0.2", "198.51.100.2"));
+    }
+}
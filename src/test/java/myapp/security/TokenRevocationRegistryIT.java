@@ -0,0 +1,82 @@
+package myapp.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import myapp.IntegrationTest;
+import myapp.domain.RevokedToken;
+import myapp.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link TokenRevocationRegistry}.
+ */
+@IntegrationTest
+@Transactional
+class TokenRevocationRegistryIT {
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    private static Jwt createJwt(String subject, Instant issuedAt) {
+        return Jwt.withTokenValue("token")
+            .header("alg", "HS512")
+            .subject(subject)
+            .issuedAt(issuedAt)
+            .expiresAt(issuedAt.plus(1, ChronoUnit.DAYS))
+            .build();
+    }
+
+    @Test
+    @DisplayName("A revocation made by another instance is applied by the next poll, and evicts the user details")
+    void shouldApplyRevocationOfAnotherInstanceOnPoll() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Jwt jwt = createJwt("poll-user", now.minus(1, ChronoUnit.MINUTES));
+        userDetailsCache.put(userDetailsCache.generation(), null, User.withUsername("poll-user").password("hash").build());
+        // the row another instance writes, without touching this registry
+        revokedTokenRepository.saveAndFlush(
+            new RevokedToken().tokenKey("sub:poll-user").revokedBefore(now).expiresAt(now.plus(1, ChronoUnit.DAYS)).revokedAt(now)
+        );
+
+        assertFalse(tokenRevocationRegistry.isRevoked(jwt));
+
+        tokenRevocationRegistry.poll();
+
+        assertTrue(tokenRevocationRegistry.isRevoked(jwt));
+        assertFalse(tokenRevocationRegistry.isRevoked(createJwt("poll-user", now.plus(1, ChronoUnit.SECONDS))));
+        assertNull(userDetailsCache.getByLogin("poll-user"));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Revoking the tokens of a user rejects those issued so far, but not the next one")
+    void shouldAcceptTokenIssuedRightAfterRevocation() {
+        Instant now = Instant.now();
+        Jwt issuedBefore = createJwt("revoked-user", now.truncatedTo(ChronoUnit.SECONDS));
+        try {
+            tokenRevocationRegistry.revokeAll("revoked-user");
+
+            Instant issuedAt = tokenRevocationRegistry.issuedAt("revoked-user", Instant.now());
+
+            assertTrue(tokenRevocationRegistry.isRevoked(issuedBefore));
+            assertFalse(tokenRevocationRegistry.isRevoked(createJwt("revoked-user", issuedAt)));
+            assertTrue(issuedAt.isBefore(Instant.now().plusSeconds(1)));
+            assertEquals(now, tokenRevocationRegistry.issuedAt("other-user", now));
+        } finally {
+            revokedTokenRepository.deleteById("sub:revoked-user");
+        }
+    }
+}
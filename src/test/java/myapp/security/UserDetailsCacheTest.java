@@ -0,0 +1,131 @@
+package myapp.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.stream.Stream;
+import myapp.config.ApplicationProperties;
+import myapp.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+public class UserDetailsCacheTest {
+
+    private UserRepository userRepository;
+
+    private UserDetailsCache userDetailsCache;
+
+    @BeforeEach
+    public void setUp() {
+        userRepository = mock(UserRepository.class);
+        userDetailsCache = new UserDetailsCache(userRepository, new ApplicationProperties());
+    }
+
+    private static UserDetails createUserDetails(String login, String password) {
+        return new User(login, password, List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER)));
+    }
+
+    @Test
+    @DisplayName("Details are cached by login and by email, in any case")
+    public void shouldGetByLoginAndByEmail() {
+        userDetailsCache.put(userDetailsCache.generation(), "John.Doe@example.com", createUserDetails("john", "hash"));
+
+        UserDetails byLogin = userDetailsCache.getByLogin("JOHN");
+        UserDetails byEmail = userDetailsCache.getByEmail("john.doe@EXAMPLE.com");
+
+        assertNotNull(byLogin);
+        assertEquals("john", byLogin.getUsername());
+        assertEquals("hash", byLogin.getPassword());
+        assertNotNull(byEmail);
+        assertEquals("john", byEmail.getUsername());
+    }
+
+    @Test
+    @DisplayName("A login looking like an email never matches the user owning that email")
+    public void shouldNotMatchLoginLookingLikeEmailByEmail() {
+        // user X has the login y@x.com, user Y has the email y@x.com
+        userDetailsCache.put(userDetailsCache.generation(), "x@other.com", createUserDetails("y@x.com", "hash-of-x"));
+
+        assertNull(userDetailsCache.getByEmail("y@x.com"));
+        assertEquals("hash-of-x", userDetailsCache.getByLogin("y@x.com").getPassword());
+
+        userDetailsCache.put(userDetailsCache.generation(), "y@x.com", createUserDetails("y", "hash-of-y"));
+
+        assertEquals("y", userDetailsCache.getByEmail("y@x.com").getUsername());
+        assertEquals("hash-of-y", userDetailsCache.getByEmail("y@x.com").getPassword());
+        assertEquals("hash-of-x", userDetailsCache.getByLogin("y@x.com").getPassword());
+    }
+
+    @Test
+    @DisplayName("Each lookup returns a new instance, so erasing its password does not affect the cache")
+    public void shouldReturnNewInstances() {
+        userDetailsCache.put(userDetailsCache.generation(), null, createUserDetails("john", "hash"));
+
+        ((User) userDetailsCache.getByLogin("john")).eraseCredentials();
+
+        assertEquals("hash", userDetailsCache.getByLogin("john").getPassword());
+    }
+
+    @Test
+    @DisplayName("Evicting a user removes both of its entries")
+    public void shouldEvictLoginAndEmail() {
+        userDetailsCache.put(userDetailsCache.generation(), "john@example.com", createUserDetails("john", "hash"));
+
+        userDetailsCache.evict("john", "john@example.com");
+
+        assertNull(userDetailsCache.getByLogin("john"));
+        assertNull(userDetailsCache.getByEmail("john@example.com"));
+    }
+
+    @Test
+    @DisplayName("Details loaded before an eviction are not cached")
+    public void shouldNotCacheDetailsLoadedBeforeEviction() {
+        long generation = userDetailsCache.generation();
+        userDetailsCache.evictAll();
+
+        userDetailsCache.put(generation, "john@example.com", createUserDetails("john", "stale-hash"));
+
+        assertNull(userDetailsCache.getByLogin("john"));
+        assertNull(userDetailsCache.getByEmail("john@example.com"));
+    }
+
+    @Test
+    @DisplayName("Evicting a login alone makes its email entry unusable too")
+    public void shouldEvictEmailWithLogin() {
+        userDetailsCache.put(userDetailsCache.generation(), "john@example.com", createUserDetails("john", "hash"));
+
+        userDetailsCache.evictNow("john", null);
+
+        assertNull(userDetailsCache.getByEmail("john@example.com"));
+    }
+
+    @Test
+    @DisplayName("Polling evicts the users modified by the other instances")
+    public void shouldEvictModifiedUsersOnPoll() {
+        userDetailsCache.put(userDetailsCache.generation(), "john@example.com", createUserDetails("john", "hash"));
+        userDetailsCache.put(userDetailsCache.generation(), "jane@example.com", createUserDetails("jane", "hash"));
+        when(userRepository.streamLoginsAndEmailsByLastModifiedDateAfter(any())).thenReturn(
+            Stream.<Object[]>of(new Object[] { "john", "john@example.com" })
+        );
+
+        userDetailsCache.poll();
+
+        assertNull(userDetailsCache.getByLogin("john"));
+        assertNull(userDetailsCache.getByEmail("john@example.com"));
+        assertNotNull(userDetailsCache.getByLogin("jane"));
+    }
+
+    @Test
+    @DisplayName("Polling an empty cache does not query the database")
+    public void shouldNotQueryOnPollWhenEmpty() {
+        userDetailsCache.poll();
+
+        verifyNoInteractions(userRepository);
+    }
+}
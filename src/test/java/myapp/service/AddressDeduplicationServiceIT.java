@@ -0,0 +1,92 @@
+package myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import myapp.IntegrationTest;
+import myapp.domain.Address;
+import myapp.domain.Customer;
+import myapp.domain.Order;
+import myapp.repository.AddressRepository;
+import myapp.repository.CustomerRepository;
+import myapp.repository.OrderRepository;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link AddressDeduplicationService}.
+ * <p>
+ * The addresses are saved without a normalized hash, like the rows predating it. The deduplication is run on the
+ * target bean, in the thread and the transaction of the test, instead of on the job executor.
+ */
+@IntegrationTest
+@Transactional
+class AddressDeduplicationServiceIT {
+
+    @Autowired
+    private AddressDeduplicationService addressDeduplicationService;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    private Customer createCustomer() {
+        String name = RandomStringUtils.randomAlphabetic(12).toLowerCase();
+        return customerRepository.save(new Customer().firstName(name).lastName(name).email(name + "@example.com"));
+    }
+
+    private Address createAddress(Customer customer, String address1, String postcode) {
+        return addressRepository.save(
+            new Address().address1(address1).city("Springfield").postcode(postcode).country("GB").customer(customer)
+        );
+    }
+
+    private Order createOrder(Customer customer, Address shippingAddress) {
+        return orderRepository.save(
+            new Order()
+                .orderDate(Instant.now())
+                .status("PENDING")
+                .totalAmount(BigDecimal.TEN)
+                .customer(customer)
+                .shippingAddress(shippingAddress)
+        );
+    }
+
+    @Test
+    @DisplayName("Duplicate addresses of a customer are merged into the oldest one, and their orders repointed")
+    void shouldMergeDuplicatesIntoOldestAddress() {
+        Customer customer = createCustomer();
+        Address keeper = createAddress(customer, "1 Main Street", "AB12 3CD");
+        Address duplicate = createAddress(customer, " 1 MAIN  street", "ab123cd");
+        Address other = createAddress(customer, "2 Main Street", "AB12 3CD");
+        Address otherCustomerAddress = createAddress(createCustomer(), "1 Main Street", "AB12 3CD");
+        Order order = createOrder(customer, duplicate);
+        em.flush();
+
+        AopTestUtils.<AddressDeduplicationService>getTargetObject(addressDeduplicationService).deduplicateAddresses();
+        em.clear();
+
+        assertThat(addressRepository.findById(duplicate.getId())).isEmpty();
+        assertThat(addressRepository.findAllById(List.of(keeper.getId(), other.getId(), otherCustomerAddress.getId())))
+            .hasSize(3)
+            .allSatisfy(address -> assertThat(address.getNormalizedHash()).isNotNull());
+        Order repointed = orderRepository.findById(order.getId()).orElseThrow();
+        assertThat(repointed.getShippingAddress().getId()).isEqualTo(keeper.getId());
+        assertThat(repointed.getVersion()).isEqualTo(order.getVersion() + 1);
+    }
+}
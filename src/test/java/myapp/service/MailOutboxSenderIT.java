@@ -0,0 +1,196 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import myapp.IntegrationTest;
+import myapp.config.TaskExecutorConfiguration;
+import myapp.domain.MailOutboxMessage;
+import myapp.domain.enumeration.MailStatus;
+import myapp.repository.MailOutboxMessageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for the {@link MailOutboxSender}, against the database and a mocked {@link JavaMailSender}.
+ * <p>
+ * The scheduled delivery is pushed back, so only the deliveries of the tests run. Those commit, so the outbox is
+ * emptied after each test.
+ */
+@IntegrationTest
+@TestPropertySource(properties = { "application.mail-outbox.poll-interval=PT1H", "application.mail-outbox.max-attempts=3" })
+class MailOutboxSenderIT {
+
+    @MockBean
+    private JavaMailSender javaMailSender;
+
+    @Autowired
+    private MailOutboxSender mailOutboxSender;
+
+    @Autowired
+    private MailOutboxMessageRepository mailOutboxMessageRepository;
+
+    @Autowired
+    @Qualifier(TaskExecutorConfiguration.MAIL_EXECUTOR)
+    private ThreadPoolTaskExecutor mailExecutor;
+
+    @BeforeEach
+    public void setUp() {
+        when(javaMailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        mailOutboxMessageRepository.deleteAll();
+    }
+
+    private MailOutboxMessage queue(String recipient, int attempts) {
+        Instant now = Instant.now();
+        return mailOutboxMessageRepository.save(
+            new MailOutboxMessage()
+                .recipient(recipient)
+                .subject("subject")
+                .content("content")
+                .multipart(false)
+                .html(false)
+                .status(MailStatus.PENDING)
+                .attempts(attempts)
+                .createdDate(now)
+                .nextAttemptAt(now)
+        );
+    }
+
+    private static String recipientOf(MimeMessage mimeMessage) throws Exception {
+        return ((InternetAddress) mimeMessage.getAllRecipients()[0]).getAddress();
+    }
+
+    @Test
+    @DisplayName("The scheduled poll sends the due messages on the mail executor")
+    void shouldDeliverOnMailExecutorWhenPolled() throws Exception {
+        queue("john@example.com", 0);
+        CompletableFuture<String> sendingThread = new CompletableFuture<>();
+        doAnswer(invocation -> sendingThread.complete(Thread.currentThread().getName()))
+            .when(javaMailSender)
+            .send(any(MimeMessage[].class));
+
+        mailOutboxSender.poll();
+
+        assertTrue(sendingThread.get(5, TimeUnit.SECONDS).startsWith("mail-task-"));
+        // let the delivery finish, so it does not hold up the deliveries of the next tests
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (mailExecutor.getActiveCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, mailExecutor.getActiveCount());
+        assertEquals(0, mailOutboxMessageRepository.count());
+    }
+
+    @Test
+    @DisplayName("Delivered messages are sent in one batch, then deleted")
+    void shouldDeleteDeliveredMessages() throws Exception {
+        queue("john@example.com", 0);
+        queue("jane@example.com", 0);
+
+        mailOutboxSender.deliver();
+
+        ArgumentCaptor<MimeMessage[]> captor = ArgumentCaptor.forClass(MimeMessage[].class);
+        verify(javaMailSender).send(captor.capture());
+        assertEquals(2, captor.getValue().length);
+        assertEquals(0, mailOutboxMessageRepository.count());
+    }
+
+    @Test
+    @DisplayName("On a partial failure, the delivered messages are deleted and the failed ones rescheduled with backoff")
+    void shouldRescheduleFailedMessagesWithBackoff() throws Exception {
+        queue("john@example.com", 0);
+        MailOutboxMessage failed = queue("jane@example.com", 1);
+        doAnswer(invocation -> {
+            for (Object argument : invocation.getArguments()) {
+                MimeMessage mimeMessage = (MimeMessage) argument;
+                if ("jane@example.com".equals(recipientOf(mimeMessage))) {
+                    throw new MailSendException(Map.of(mimeMessage, new IllegalStateException("mailbox unavailable")));
+                }
+            }
+            return null;
+        })
+            .when(javaMailSender)
+            .send(any(MimeMessage[].class));
+        Instant start = Instant.now();
+
+        mailOutboxSender.deliver();
+
+        assertEquals(1, mailOutboxMessageRepository.count());
+        MailOutboxMessage rescheduled = mailOutboxMessageRepository.findById(failed.getId()).orElseThrow();
+        assertEquals(MailStatus.PENDING, rescheduled.getStatus());
+        assertEquals(2, rescheduled.getAttempts());
+        assertTrue(rescheduled.getLastError().contains("mailbox unavailable"));
+        // second attempt: twice the initial backoff of 30 seconds
+        Duration backoff = Duration.between(start, rescheduled.getNextAttemptAt());
+        assertTrue(backoff.compareTo(Duration.ofSeconds(59)) >= 0 && backoff.compareTo(Duration.ofSeconds(61)) <= 0, backoff::toString);
+    }
+
+    @Test
+    @DisplayName("A message failing its last attempt is kept as dead")
+    void shouldKeepMessageAsDeadAfterMaxAttempts() throws Exception {
+        MailOutboxMessage message = queue("john@example.com", 2);
+        doThrow(new MailSendException("connection refused")).when(javaMailSender).send(any(MimeMessage[].class));
+
+        mailOutboxSender.deliver();
+
+        MailOutboxMessage dead = mailOutboxMessageRepository.findById(message.getId()).orElseThrow();
+        assertEquals(MailStatus.DEAD, dead.getStatus());
+        assertEquals(3, dead.getAttempts());
+        assertTrue(dead.getLastError().contains("connection refused"));
+
+        mailOutboxSender.deliver();
+
+        verify(javaMailSender, times(1)).send(any(MimeMessage[].class));
+    }
+
+    @Test
+    @DisplayName("A message claimed but never settled is claimed again once its lease expires")
+    void shouldReclaimMessageAfterLease() throws Exception {
+        MailOutboxMessage message = queue("john@example.com", 0);
+        // the sending instance dies after claiming the message
+        doThrow(new IllegalStateException("instance stopped")).when(javaMailSender).send(any(MimeMessage[].class));
+        assertThrows(IllegalStateException.class, mailOutboxSender::deliver);
+        MailOutboxMessage claimed = mailOutboxMessageRepository.findById(message.getId()).orElseThrow();
+        assertTrue(claimed.getNextAttemptAt().isAfter(Instant.now().plus(4, ChronoUnit.MINUTES)));
+        assertEquals(0, claimed.getAttempts());
+        reset(javaMailSender);
+        when(javaMailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+
+        mailOutboxSender.deliver();
+
+        verify(javaMailSender, never()).send(any(MimeMessage[].class));
+
+        mailOutboxMessageRepository.save(claimed.nextAttemptAt(Instant.now().minus(1, ChronoUnit.SECONDS)));
+        mailOutboxSender.deliver();
+
+        ArgumentCaptor<MimeMessage[]> captor = ArgumentCaptor.forClass(MimeMessage[].class);
+        verify(javaMailSender).send(captor.capture());
+        assertEquals(1, captor.getValue().length);
+        assertEquals("john@example.com", recipientOf(captor.getValue()[0]));
+        assertEquals(0, mailOutboxMessageRepository.count());
+    }
+}
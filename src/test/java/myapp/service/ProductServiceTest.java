@@ -36,6 +36,12 @@ public class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private SuggestionService suggestionService;
+
+    @Mock
+    private ResponseCacheService responseCacheService;
+
     @InjectMocks
     private ProductService productService;
 
@@ -0,0 +1,109 @@
+package myapp.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import myapp.config.ApplicationProperties;
+import myapp.service.ResponseCacheService.CachedResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ResponseCacheServiceTest {
+
+    private static final int MAX_ENTRIES = 100;
+
+    private static final long TIME_TO_LIVE = Duration.ofMinutes(10).toNanos();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ResponseCacheService responseCacheService;
+
+    @BeforeEach
+    public void setUp() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getResponseCache().setMaxEntries(MAX_ENTRIES);
+        meterRegistry = new SimpleMeterRegistry();
+        responseCacheService = new ResponseCacheService(applicationProperties, meterRegistry);
+    }
+
+    private static CachedResponse response(String tag, long timeToLive) {
+        return new CachedResponse(Set.of(tag), Map.of(), "application/json", null, new byte[0], null, timeToLive);
+    }
+
+    private void put(String key, CachedResponse response) {
+        responseCacheService.put(key, responseCacheService.stamp(), response);
+    }
+
+    private int size() {
+        return (int) meterRegistry.get("cache.size").gauge().value();
+    }
+
+    private double evictions() {
+        return meterRegistry.get("cache.evictions").counter().count();
+    }
+
+    @Test
+    @DisplayName("A full cache drops a tenth of its responses at once, keeping the new one")
+    public void shouldEvictSliceWhenFull() {
+        for (int i = 0; i < MAX_ENTRIES; i++) {
+            put("/api/products/" + i, response(ResponseCacheService.PRODUCT_TAG, TIME_TO_LIVE));
+        }
+
+        put("/api/products/new", response(ResponseCacheService.PRODUCT_TAG, TIME_TO_LIVE));
+
+        assertEquals(MAX_ENTRIES - MAX_ENTRIES / 10 + 1, size());
+        assertEquals(MAX_ENTRIES / 10, evictions());
+        assertNotNull(responseCacheService.get("/api/products/new"));
+
+        // the next puts fill the room left, without scanning the entries
+        for (int i = 0; i < MAX_ENTRIES / 10 - 1; i++) {
+            put("/api/products/more-" + i, response(ResponseCacheService.PRODUCT_TAG, TIME_TO_LIVE));
+        }
+
+        assertEquals(MAX_ENTRIES, size());
+        assertEquals(MAX_ENTRIES / 10, evictions());
+    }
+
+    @Test
+    @DisplayName("A full cache drops its expired responses before the others")
+    public void shouldEvictExpiredResponsesFirst() {
+        for (int i = 0; i < MAX_ENTRIES; i++) {
+            put("/api/products/" + i, response(ResponseCacheService.PRODUCT_TAG, i % 2 == 0 ? 0 : TIME_TO_LIVE));
+        }
+
+        put("/api/products/new", response(ResponseCacheService.PRODUCT_TAG, TIME_TO_LIVE));
+
+        assertEquals(MAX_ENTRIES / 2 + 1, size());
+        for (int i = 1; i < MAX_ENTRIES; i += 2) {
+            assertNotNull(responseCacheService.get("/api/products/" + i));
+        }
+    }
+
+    @Test
+    @DisplayName("Invalidating a tag evicts its responses, and the responses rendered meanwhile are not stored")
+    public void shouldInvalidateByTag() {
+        put("/api/products", response(ResponseCacheService.PRODUCT_TAG, TIME_TO_LIVE));
+        put("/api/categories", response(ResponseCacheService.CATEGORY_TAG, TIME_TO_LIVE));
+        long stamp = responseCacheService.stamp();
+
+        responseCacheService.invalidate(ResponseCacheService.PRODUCT_TAG);
+        responseCacheService.put("/api/products/1", stamp, response(ResponseCacheService.PRODUCT_TAG, TIME_TO_LIVE));
+
+        assertNull(responseCacheService.get("/api/products"));
+        assertNull(responseCacheService.get("/api/products/1"));
+        assertNotNull(responseCacheService.get("/api/categories"));
+    }
+
+    @Test
+    @DisplayName("An expired response is not served")
+    public void shouldNotServeExpiredResponse() {
+        put("/api/products", response(ResponseCacheService.PRODUCT_TAG, 0));
+
+        assertNull(responseCacheService.get("/api/products"));
+        assertEquals(0, size());
+    }
+}
@@ -0,0 +1,124 @@
+package myapp.service.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ExpiringLongMapTest {
+
+    private static final long NOW = 1_000;
+
+    private ExpiringLongMap map;
+
+    @BeforeEach
+    public void setUp() {
+        map = new ExpiringLongMap();
+    }
+
+    @Test
+    @DisplayName("A value is found by its key until it expires")
+    public void shouldGetValueUntilExpired() {
+        map.put(42, 7, NOW + 10, NOW);
+
+        assertEquals(7, map.get(42, NOW));
+        assertEquals(7, map.get(42, NOW + 9));
+        assertEquals(ExpiringLongMap.ABSENT, map.get(42, NOW + 10));
+        assertEquals(ExpiringLongMap.ABSENT, map.get(43, NOW));
+    }
+
+    @Test
+    @DisplayName("An entry already expired is not put")
+    public void shouldNotPutExpiredEntry() {
+        map.put(42, 7, NOW, NOW);
+
+        assertEquals(ExpiringLongMap.ABSENT, map.get(42, NOW - 1));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    @DisplayName("Putting a present key keeps the greatest value and expiration time")
+    public void shouldKeepGreatestValueAndExpiration() {
+        map.put(42, 7, NOW + 10, NOW);
+        map.put(42, 5, NOW + 20, NOW);
+
+        assertEquals(7, map.get(42, NOW));
+        assertEquals(7, map.get(42, NOW + 15));
+
+        map.put(42, 9, NOW + 5, NOW);
+
+        assertEquals(9, map.get(42, NOW + 15));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    @DisplayName("Putting an expired key replaces its value and expiration time")
+    public void shouldReplaceExpiredEntry() {
+        map.put(42, 7, NOW + 10, NOW);
+
+        map.put(42, 5, NOW + 30, NOW + 20);
+
+        assertEquals(5, map.get(42, NOW + 20));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    @DisplayName("Every entry is still found after the table is rebuilt to grow")
+    public void shouldGetAllEntriesAfterRebuild() {
+        for (long key = 1; key <= 1000; key++) {
+            map.put(key * 31, key, NOW + 10, NOW);
+        }
+
+        assertEquals(1000, map.size());
+        for (long key = 1; key <= 1000; key++) {
+            assertEquals(key, map.get(key * 31, NOW));
+        }
+    }
+
+    @Test
+    @DisplayName("A rebuild drops the expired entries")
+    public void shouldDropExpiredEntriesOnRebuild() {
+        for (long key = 1; key <= 100; key++) {
+            map.put(key, key, NOW + 10, NOW);
+        }
+
+        // puts made after the first entries expired, until the table is rebuilt
+        for (long key = 101; key <= 200; key++) {
+            map.put(key, key, NOW + 30, NOW + 20);
+        }
+
+        assertTrue(map.size() < 200);
+        assertEquals(ExpiringLongMap.ABSENT, map.get(1, NOW + 20));
+        for (long key = 101; key <= 200; key++) {
+            assertEquals(key, map.get(key, NOW + 20));
+        }
+    }
+
+    @Test
+    @DisplayName("A purge drops the expired entries only")
+    public void shouldPurgeExpiredEntries() {
+        map.put(1, 1, NOW + 10, NOW);
+        map.put(2, 2, NOW + 30, NOW);
+
+        map.purge(NOW + 20);
+
+        assertEquals(1, map.size());
+        assertEquals(ExpiringLongMap.ABSENT, map.get(1, NOW));
+        assertEquals(2, map.get(2, NOW + 20));
+    }
+
+    @Test
+    @DisplayName("The key zero is usable, as an alias of the key one")
+    public void shouldAliasKeyZeroToKeyOne() {
+        map.put(0, 7, NOW + 10, NOW);
+
+        assertEquals(7, map.get(0, NOW));
+        assertEquals(7, map.get(1, NOW));
+
+        map.put(1, 9, NOW + 10, NOW);
+
+        assertEquals(9, map.get(0, NOW));
+        assertEquals(1, map.size());
+    }
+}
@@ -0,0 +1,117 @@
+package myapp.service.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class KeyedRateLimiterTest {
+
+    private final AtomicLong nanoTime = new AtomicLong();
+
+    @BeforeEach
+    public void setUp() {
+        nanoTime.set(TimeUnit.HOURS.toNanos(1));
+    }
+
+    private KeyedRateLimiter createLimiter(int maximumKeys) {
+        // 5 tokens, one refilled every second
+        return new KeyedRateLimiter(maximumKeys, 5, Duration.ofSeconds(5), nanoTime::get);
+    }
+
+    private void advance(Duration duration) {
+        nanoTime.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    @DisplayName("A key gets its capacity, then is limited")
+    public void shouldLimitKeyAfterCapacity() {
+        KeyedRateLimiter limiter = createLimiter(100);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("john"));
+        }
+        assertFalse(limiter.tryAcquire("john"));
+    }
+
+    @Test
+    @DisplayName("A limited key gets one token back per emission interval")
+    public void shouldRefillOverTime() {
+        KeyedRateLimiter limiter = createLimiter(100);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("john");
+        }
+
+        advance(Duration.ofMillis(999));
+        assertFalse(limiter.tryAcquire("john"));
+        advance(Duration.ofMillis(1));
+        assertTrue(limiter.tryAcquire("john"));
+        assertFalse(limiter.tryAcquire("john"));
+
+        advance(Duration.ofSeconds(5));
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("john"));
+        }
+        assertFalse(limiter.tryAcquire("john"));
+    }
+
+    @Test
+    @DisplayName("Keys never share a bucket")
+    public void shouldNotLimitOtherKeys() {
+        KeyedRateLimiter limiter = createLimiter(100_000);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("john");
+        }
+
+        for (int i = 0; i < 50_000; i++) {
+            assertTrue(limiter.tryAcquire("user" + i));
+        }
+        assertFalse(limiter.tryAcquire("john"));
+        assertTrue(limiter.tryAcquire("jane"));
+    }
+
+    @Test
+    @DisplayName("A full limiter drops the refilled buckets first")
+    public void shouldDropRefilledBucketsFirst() {
+        KeyedRateLimiter limiter = createLimiter(10);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("john");
+        }
+        for (int i = 0; i < 9; i++) {
+            limiter.tryAcquire("user" + i);
+        }
+        assertEquals(10, limiter.size());
+
+        // the other buckets are full again, john's got a single token back
+        advance(Duration.ofSeconds(1));
+        assertTrue(limiter.tryAcquire("jane"));
+
+        assertEquals(2, limiter.size());
+        assertTrue(limiter.tryAcquire("john"));
+        assertFalse(limiter.tryAcquire("john"));
+    }
+
+    @Test
+    @DisplayName("A flood of distinct keys fails open rather than limiting every key")
+    public void shouldFailOpenWhenFlooded() {
+        KeyedRateLimiter limiter = createLimiter(1000);
+
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(limiter.tryAcquire("user" + i));
+        }
+        assertTrue(limiter.size() <= 1000);
+        assertTrue(limiter.tryAcquire("john"));
+    }
+
+    @Test
+    @DisplayName("Invalid settings are rejected")
+    public void shouldRejectInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new KeyedRateLimiter(0, 5, Duration.ofSeconds(5)));
+        assertThrows(IllegalArgumentException.class, () -> new KeyedRateLimiter(10, 0, Duration.ofSeconds(5)));
+        assertThrows(IllegalArgumentException.class, () -> new KeyedRateLimiter(10, 5, Duration.ZERO));
+    }
+}
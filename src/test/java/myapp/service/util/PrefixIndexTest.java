@@ -0,0 +1,110 @@
+package myapp.service.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+public class PrefixIndexTest {
+
+    private PrefixIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new PrefixIndex();
+    }
+
+    private static List<Long> ids(List<PrefixIndex.Match> matches) {
+        return matches.stream().map(PrefixIndex.Match::getId).toList();
+    }
+
+    @Test
+    @DisplayName("Matches are found case-insensitively, in term order, once per document")
+    public void shouldFindMatchesInTermOrder() {
+        index.put(1L, "Lamp", "lampshade");
+        index.put(2L, "  LAMB ");
+        index.put(3L, "Table");
+
+        List<PrefixIndex.Match> matches = index.search("lam", 10);
+
+        assertEquals(List.of(2L, 1L), ids(matches));
+        assertEquals("LAMB", matches.get(0).getTerm());
+        assertEquals(List.of(1L), ids(index.search("LAMPS", 10)));
+        assertEquals(List.of(2L), ids(index.search("lam", 1)));
+        assertTrue(index.search(" ", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Putting a document replaces its previous terms")
+    public void shouldReplaceTermsOfDocument() {
+        index.put(1L, "Lamp", "Desk");
+
+        index.put(1L, "Chair", null);
+
+        assertTrue(index.search("lamp", 10).isEmpty());
+        assertTrue(index.search("desk", 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("chair", 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    @DisplayName("Removing a document removes its terms and their memory")
+    public void shouldRemoveDocument() {
+        index.put(1L, "Lamp");
+        index.put(2L, "Lamb");
+        long footprint = index.getMemoryFootprint();
+
+        index.remove(1L);
+
+        assertEquals(List.of(2L), ids(index.search("lam", 10)));
+        assertEquals(1, index.size());
+        assertTrue(index.getMemoryFootprint() < footprint);
+
+        index.clear();
+
+        assertEquals(0, index.size());
+        assertEquals(0, index.getMemoryFootprint());
+    }
+
+    @Test
+    @DisplayName("A top-10 lookup among a million terms takes well under a millisecond")
+    @Timeout(value = 2, unit = TimeUnit.MINUTES)
+    public void shouldAnswerTopTenQuicklyAmongMillionTerms() {
+        SplittableRandom random = new SplittableRandom(42);
+        int documents = 1_000_000;
+        for (long id = 0; id < documents; id++) {
+            index.put(id, randomWord(random, 8));
+        }
+        String[] prefixes = new String[10_000];
+        for (int i = 0; i < prefixes.length; i++) {
+            prefixes[i] = randomWord(random, 1 + random.nextInt(3));
+        }
+        int found = 0;
+        // warm up, then measure
+        for (String prefix : prefixes) {
+            found += index.search(prefix, 10).size();
+        }
+        long start = System.nanoTime();
+        for (String prefix : prefixes) {
+            found += index.search(prefix, 10).size();
+        }
+        long averageNanos = (System.nanoTime() - start) / prefixes.length;
+
+        assertEquals(documents, index.size());
+        assertEquals(2 * 10 * prefixes.length, found);
+        assertTrue(averageNanos < 1_000_000, () -> "Average lookup took " + averageNanos + " ns");
+    }
+
+    private static String randomWord(SplittableRandom random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+}
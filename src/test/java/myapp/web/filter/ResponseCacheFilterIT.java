@@ -0,0 +1,55 @@
+package myapp.web.filter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import myapp.IntegrationTest;
+import myapp.security.AuthoritiesConstants;
+import myapp.service.ResponseCacheService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Integration tests for the {@link ResponseCacheFilter}.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.USER)
+@IntegrationTest
+class ResponseCacheFilterIT {
+
+    @Autowired
+    private ResponseCacheService responseCacheService;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    @Test
+    void pageIsStored() throws Exception {
+        restMockMvc
+            .perform(get("/api/products?size=20&page=0"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isArray());
+
+        assertNotNull(responseCacheService.get("/api/products?page=0&size=20"));
+    }
+
+    @Test
+    void streamedPageIsWrittenThroughAndNotStored() throws Exception {
+        MvcResult result = restMockMvc.perform(get("/api/products?page=0&size=200")).andExpect(request().asyncStarted()).andReturn();
+
+        restMockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isArray());
+
+        assertNull(responseCacheService.get("/api/products?page=0&size=200"));
+    }
+}
@@ -0,0 +1,102 @@
+package myapp.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import myapp.IntegrationTest;
+import myapp.domain.Address;
+import myapp.domain.Customer;
+import myapp.repository.AddressRepository;
+import myapp.repository.CustomerRepository;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link AddressResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@Transactional
+class AddressResourceIT {
+
+    private static final String DEFAULT_ADDRESS_1 = "1 Main Street";
+
+    private static final String DEFAULT_CITY = "Springfield";
+
+    private static final String DEFAULT_POSTCODE = "AB12 3CD";
+
+    private static final String DEFAULT_COUNTRY = "GB";
+
+    private static final String ENTITY_API_URL = "/api/addresses";
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private MockMvc restAddressMockMvc;
+
+    /**
+     * Create an entity for this test.
+     */
+    public static Address createEntity() {
+        return new Address().address1(DEFAULT_ADDRESS_1).city(DEFAULT_CITY).postcode(DEFAULT_POSTCODE).country(DEFAULT_COUNTRY);
+    }
+
+    private Customer createCustomer() {
+        String name = RandomStringUtils.randomAlphabetic(12).toLowerCase();
+        return customerRepository.saveAndFlush(new Customer().firstName(name).lastName(name).email(name + "@example.com"));
+    }
+
+    private Long createAddress(Address address) throws Exception {
+        String response = restAddressMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(address)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        return om.readValue(response, Address.class).getId();
+    }
+
+    @Test
+    void createAddressReusesDuplicateOfCustomer() throws Exception {
+        Customer customer = createCustomer();
+        Long id = createAddress(createEntity().customer(customer));
+        long databaseSizeBeforeCreate = addressRepository.count();
+
+        Address duplicate = createEntity().address1("  1 MAIN   street ").city("SPRINGFIELD").postcode("ab123cd").country("gb");
+        restAddressMockMvc
+            .perform(
+                post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(duplicate.customer(customer)))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string("Location", ENTITY_API_URL + "/" + id))
+            .andExpect(jsonPath("$.id").value(id.intValue()))
+            .andExpect(jsonPath("$.address1").value(DEFAULT_ADDRESS_1));
+
+        assertThat(addressRepository.count()).isEqualTo(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    void createAddressKeepsSameAddressOfOtherCustomer() throws Exception {
+        Long id = createAddress(createEntity().customer(createCustomer()));
+
+        Long otherId = createAddress(createEntity().customer(createCustomer()));
+
+        assertThat(otherId).isNotEqualTo(id);
+    }
+}
@@ -0,0 +1,92 @@
+package myapp.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import myapp.IntegrationTest;
+import myapp.domain.User;
+import myapp.repository.UserRepository;
+import myapp.security.BoundedPasswordEncoder;
+import myapp.security.PasswordHashingRejectedException;
+import myapp.web.rest.vm.LoginVM;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link AuthenticateController} REST controller.
+ */
+@AutoConfigureMockMvc
+@IntegrationTest
+@Transactional
+class AuthenticateControllerIT {
+
+    private static final String PASSWORD = "test-password";
+
+    @SpyBean
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private User createUser(String encodedPassword) {
+        String login = RandomStringUtils.randomAlphabetic(12).toLowerCase();
+        User user = new User();
+        user.setLogin(login);
+        user.setPassword(encodedPassword);
+        user.setEmail(login + "@example.com");
+        user.setActivated(true);
+        user.setLangKey("en");
+        return userRepository.saveAndFlush(user);
+    }
+
+    private static LoginVM login(User user) {
+        LoginVM loginVM = new LoginVM();
+        loginVM.setUsername(user.getLogin());
+        loginVM.setPassword(PASSWORD);
+        return loginVM;
+    }
+
+    @Test
+    void authorizeUpgradesWeakerPasswordHash() throws Exception {
+        User user = createUser(new BCryptPasswordEncoder(4).encode(PASSWORD));
+
+        mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(login(user))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id_token").isString());
+
+        String upgradedPassword = userRepository.findOneByLogin(user.getLogin()).orElseThrow().getPassword();
+        assertThat(upgradedPassword).startsWith("$2a$10$");
+        assertThat(new BCryptPasswordEncoder().matches(PASSWORD, upgradedPassword)).isTrue();
+    }
+
+    @Test
+    void authorizeWhenHashingPoolIsSaturated() throws Exception {
+        User user = createUser(new BCryptPasswordEncoder(4).encode(PASSWORD));
+        doThrow(new PasswordHashingRejectedException()).when(passwordEncoder).matches(any(), any());
+
+        mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(login(user))))
+            .andExpect(status().isTooManyRequests());
+
+        assertThat(userRepository.findOneByLogin(user.getLogin()).orElseThrow().getPassword()).startsWith("$2a$04$");
+    }
+}
@@ -0,0 +1,89 @@
+package myapp.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import myapp.IntegrationTest;
+import myapp.domain.Authority;
+import myapp.security.AuthoritiesConstants;
+import myapp.security.AuthorityRegistry;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link AuthorityResource} REST controller.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@IntegrationTest
+@Transactional
+class AuthorityResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/authorities";
+    private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+
+    @Autowired
+    private AuthorityRegistry authorityRegistry;
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private MockMvc restAuthorityMockMvc;
+
+    private static Authority createEntity() {
+        return new Authority().name("ROLE_" + RandomStringUtils.randomAlphabetic(12).toUpperCase());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void authorityRegistryFollowsCommittedWrites() throws Exception {
+        Authority authority = createEntity();
+
+        restAuthorityMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(authority)))
+            .andExpect(status().isCreated());
+
+        assertThat(authorityRegistry.contains(authority.getName())).isTrue();
+        restAuthorityMockMvc
+            .perform(get(ENTITY_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].name").value(hasItem(authority.getName())));
+        restAuthorityMockMvc
+            .perform(get(ENTITY_API_URL_ID, authority.getName()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value(authority.getName()));
+        restAuthorityMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(authority)))
+            .andExpect(status().isBadRequest());
+
+        restAuthorityMockMvc.perform(delete(ENTITY_API_URL_ID, authority.getName())).andExpect(status().isNoContent());
+
+        assertThat(authorityRegistry.contains(authority.getName())).isFalse();
+        restAuthorityMockMvc.perform(get(ENTITY_API_URL_ID, authority.getName())).andExpect(status().isNotFound());
+        restAuthorityMockMvc.perform(get(ENTITY_API_URL)).andExpect(jsonPath("$.[*].name").value(not(hasItem(authority.getName()))));
+    }
+
+    @Test
+    void authorityRegistryIgnoresUncommittedWrites() throws Exception {
+        Authority authority = createEntity();
+
+        restAuthorityMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(authority)))
+            .andExpect(status().isCreated());
+
+        // the authority is saved in the transaction of the test, which is rolled back
+        assertThat(authorityRegistry.contains(authority.getName())).isFalse();
+    }
+}
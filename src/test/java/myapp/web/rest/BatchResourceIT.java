@@ -0,0 +1,145 @@
+package myapp.web.rest;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import jakarta.persistence.EntityManager;
+import myapp.IntegrationTest;
+import myapp.domain.WishList;
+import myapp.security.AuthoritiesConstants;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link BatchResource} REST controller.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@IntegrationTest
+@Transactional
+class BatchResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/_batch";
+
+    private static final String CREATE_WISH_LIST = "{\"method\":\"CREATE\",\"resource\":\"wish-lists\",\"body\":{\"title\":\"Birthday\"}}";
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restBatchMockMvc;
+
+    @Test
+    void atomicBatchChecksVersionsOfUpdates() throws Exception {
+        WishList wishList = new WishList().title("Holidays");
+        em.persist(wishList);
+        em.flush();
+        String update =
+            "{\"method\":\"UPDATE\",\"resource\":\"wish-lists\",\"id\":" +
+            wishList.getId() +
+            ",\"ifMatch\":\"\\\"" +
+            wishList.getVersion() +
+            "\\\"\",\"body\":{\"id\":" +
+            wishList.getId() +
+            ",\"title\":\"Summer holidays\"}}";
+        String batch = "{\"atomic\":true,\"operations\":[" + CREATE_WISH_LIST + "," + update + "]}";
+
+        restBatchMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(batch))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].status").value(201))
+            .andExpect(jsonPath("$[1].status").value(200))
+            .andExpect(jsonPath("$[1].body.title").value("Summer holidays"));
+    }
+
+    @Test
+    void invalidOperationsFailAlone() throws Exception {
+        String batch =
+            "{\"atomic\":false,\"operations\":[" +
+            CREATE_WISH_LIST +
+            ",{\"method\":\"MERGE\",\"resource\":\"wish-lists\",\"id\":1,\"body\":{}}" +
+            ",{\"method\":\"DELETE\",\"resource\":\"wishes\",\"id\":1}" +
+            ",{\"resource\":\"wish-lists\",\"id\":1}" +
+            "]}";
+
+        restBatchMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(batch))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(4)))
+            .andExpect(jsonPath("$[0].status").value(201))
+            .andExpect(jsonPath("$[1].status").value(400))
+            .andExpect(jsonPath("$[1].body.message").value("error.methodinvalid"))
+            .andExpect(jsonPath("$[2].status").value(400))
+            .andExpect(jsonPath("$[2].body.message").value("error.resourceunknown"))
+            .andExpect(jsonPath("$[3].status").value(400))
+            .andExpect(jsonPath("$[3].body.message").value("error.methodinvalid"));
+    }
+
+    @Test
+    void invalidOperationFailsAtomicBatch() throws Exception {
+        String batch = "{\"atomic\":true,\"operations\":[" + CREATE_WISH_LIST + ",{\"method\":\"merge\",\"resource\":\"wish-lists\"}]}";
+
+        restBatchMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(batch))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].status").value(424))
+            .andExpect(jsonPath("$[1].status").value(400));
+    }
+
+    private static String updateWishList(WishList wishList, String title, String ifMatch) {
+        return (
+            "{\"method\":\"UPDATE\",\"resource\":\"wish-lists\",\"id\":" +
+            wishList.getId() +
+            ",\"ifMatch\":\"" +
+            ifMatch.replace("\"", "\\\"") +
+            "\",\"body\":{\"id\":" +
+            wishList.getId() +
+            ",\"title\":\"" +
+            title +
+            "\"}}"
+        );
+    }
+
+    @Test
+    void atomicBatchRejectsStaleVersions() throws Exception {
+        WishList wishList = new WishList().title("Holidays");
+        em.persist(wishList);
+        em.flush();
+        String update = updateWishList(wishList, "Summer holidays", "\"" + (wishList.getVersion() + 1) + "\"");
+        String batch = "{\"atomic\":true,\"operations\":[" + CREATE_WISH_LIST + "," + update + "]}";
+
+        restBatchMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(batch))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].status").value(424))
+            .andExpect(jsonPath("$[1].status").value(412));
+    }
+
+    @Test
+    void atomicBatchRejectsOperationsOnTheSameEntity() throws Exception {
+        WishList wishList = new WishList().title("Holidays");
+        em.persist(wishList);
+        em.flush();
+        String eTag = "\"" + wishList.getVersion() + "\"";
+        String batch =
+            "{\"atomic\":true,\"operations\":[" +
+            updateWishList(wishList, "Summer holidays", eTag) +
+            "," +
+            updateWishList(wishList, "Winter holidays", eTag) +
+            "]}";
+
+        restBatchMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(batch))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].status").value(424))
+            .andExpect(jsonPath("$[1].status").value(400))
+            .andExpect(jsonPath("$[1].body.message").value("error.idduplicate"));
+    }
+}
@@ -0,0 +1,294 @@
+package myapp.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import myapp.IntegrationTest;
+import myapp.domain.Address;
+import myapp.domain.Customer;
+import myapp.repository.AddressRepository;
+import myapp.repository.CustomerRepository;
+import myapp.security.AuthoritiesConstants;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link CustomerResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@Transactional
+class CustomerResourceIT {
+
+    private static final String DEFAULT_FIRST_NAME = "AAAAAAAAAA";
+
+    private static final String DEFAULT_LAST_NAME = "AAAAAAAAAA";
+
+    private static final String DEFAULT_EMAIL = "john.doe@example.com";
+
+    private static final String ENTITY_API_URL = "/api/customers";
+    private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restCustomerMockMvc;
+
+    /**
+     * Create an entity for this test.
+     */
+    public static Customer createEntity() {
+        return new Customer().firstName(DEFAULT_FIRST_NAME).lastName(DEFAULT_LAST_NAME).email(DEFAULT_EMAIL);
+    }
+
+    private Customer createCustomer(Customer customer) throws Exception {
+        String response = restCustomerMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(customer)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        return om.readValue(response, Customer.class);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void suggestCustomersFollowsCommittedWrites() throws Exception {
+        String lastName = RandomStringUtils.randomAlphabetic(12).toLowerCase();
+        String email = RandomStringUtils.randomAlphabetic(12).toLowerCase() + "@example.com";
+        Customer customer = createCustomer(createEntity().lastName(lastName));
+
+        restCustomerMockMvc
+            .perform(get(ENTITY_API_URL + "/_suggest").param("prefix", lastName.substring(0, 8)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].id").value(customer.getId().intValue()))
+            .andExpect(jsonPath("$[0].value").value(lastName));
+
+        customer.setEmail(email);
+        restCustomerMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, customer.getId()).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(customer))
+            )
+            .andExpect(status().isOk());
+
+        // every term of the customer is replaced, the unchanged ones included
+        restCustomerMockMvc.perform(get(ENTITY_API_URL + "/_suggest").param("prefix", lastName)).andExpect(jsonPath("$", hasSize(1)));
+        restCustomerMockMvc
+            .perform(get(ENTITY_API_URL + "/_suggest").param("prefix", email.substring(0, 8)))
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].value").value(email));
+
+        restCustomerMockMvc.perform(delete(ENTITY_API_URL_ID, customer.getId())).andExpect(status().isNoContent());
+
+        restCustomerMockMvc.perform(get(ENTITY_API_URL + "/_suggest").param("prefix", lastName)).andExpect(jsonPath("$", hasSize(0)));
+        restCustomerMockMvc.perform(get(ENTITY_API_URL + "/_suggest").param("prefix", email)).andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void exportCustomer() throws Exception {
+        String lastName = RandomStringUtils.randomAlphabetic(12).toLowerCase();
+        Customer customer = customerRepository.save(createEntity().lastName(lastName));
+        Address address = addressRepository.save(
+            new Address().address1("1 Main Street").city("Springfield").postcode("AB12 3CD").country("GB").customer(customer)
+        );
+        try {
+            MvcResult mvcResult = restCustomerMockMvc
+                .perform(get(ENTITY_API_URL_ID + "/_export", customer.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+            byte[] archive = restCustomerMockMvc
+                .perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/zip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"customer-" + customer.getId() + ".zip\""))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+            Map<String, String> entries = new HashMap<>();
+            try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive))) {
+                for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                    entries.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+                }
+            }
+            assertThat(entries).containsOnlyKeys("customer.jsonl", "addresses.jsonl", "wish-lists.jsonl", "orders.jsonl", "products.jsonl");
+            assertThat(entries.get("customer.jsonl").lines()).singleElement().asString().contains("\"lastName\":\"" + lastName + "\"");
+            assertThat(entries.get("addresses.jsonl").lines())
+                .singleElement()
+                .asString()
+                .contains("\"id\":" + address.getId(), "\"address1\":\"1 Main Street\"");
+            assertThat(entries.get("orders.jsonl")).isEmpty();
+        } finally {
+            addressRepository.delete(address);
+            customerRepository.delete(customer);
+        }
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void exportNonExistingCustomer() throws Exception {
+        restCustomerMockMvc.perform(get(ENTITY_API_URL_ID + "/_export", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void exportCustomerIsForAdmins() throws Exception {
+        Customer customer = customerRepository.saveAndFlush(createEntity());
+
+        restCustomerMockMvc.perform(get(ENTITY_API_URL_ID + "/_export", customer.getId())).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void getCustomerWithMatchingIfNoneMatchIsNotModified() throws Exception {
+        Customer customer = customerRepository.saveAndFlush(createEntity());
+        String eTag = "\"" + customer.getVersion() + "\"";
+
+        restCustomerMockMvc
+            .perform(get(ENTITY_API_URL_ID, customer.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+
+        restCustomerMockMvc
+            .perform(get(ENTITY_API_URL_ID, customer.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+        restCustomerMockMvc
+            .perform(get(ENTITY_API_URL_ID, customer.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"" + (customer.getVersion() + 1) + "\""))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void getAllCustomersWithMatchingIfNoneMatchIsNotModified() throws Exception {
+        customerRepository.saveAndFlush(createEntity());
+        String eTag = restCustomerMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/\"")))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restCustomerMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        // a new customer changes the total, hence the ETag of every page
+        customerRepository.saveAndFlush(createEntity().email("jane.doe@example.com"));
+        restCustomerMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
+    @Test
+    void updateCustomerWithStaleIfMatchFails() throws Exception {
+        Customer customer = customerRepository.saveAndFlush(createEntity());
+        em.detach(customer);
+        String staleETag = "\"" + (customer.getVersion() + 1) + "\"";
+
+        restCustomerMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, customer.getId())
+                    .header(HttpHeaders.IF_MATCH, staleETag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(createEntity().id(customer.getId()).firstName("BBBBBBBBBB")))
+            )
+            .andExpect(status().isPreconditionFailed());
+        // the comparison is strong: a weak ETag of the current version does not match either
+        restCustomerMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, customer.getId())
+                    .header(HttpHeaders.IF_MATCH, "W/\"" + customer.getVersion() + "\"")
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(new Customer().id(customer.getId()).firstName("BBBBBBBBBB")))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        assertThat(customerRepository.findById(customer.getId()).orElseThrow().getFirstName()).isEqualTo(DEFAULT_FIRST_NAME);
+    }
+
+    @Test
+    void updateCustomerWithCurrentIfMatch() throws Exception {
+        Customer customer = customerRepository.saveAndFlush(createEntity());
+        em.detach(customer);
+
+        restCustomerMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, customer.getId())
+                    .header(HttpHeaders.IF_MATCH, "\"" + customer.getVersion() + "\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(createEntity().id(customer.getId()).firstName("BBBBBBBBBB")))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.firstName").value("BBBBBBBBBB"));
+
+        em.flush();
+        em.clear();
+        Customer updated = customerRepository.findById(customer.getId()).orElseThrow();
+        assertThat(updated.getFirstName()).isEqualTo("BBBBBBBBBB");
+        assertThat(updated.getVersion()).isEqualTo(customer.getVersion() + 1);
+    }
+
+    @Test
+    void getAllCustomersWithFields() throws Exception {
+        Customer customer = customerRepository.saveAndFlush(createEntity());
+
+        restCustomerMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc&fields=lastName,email"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+            .andExpect(jsonPath("$[0].id").value(customer.getId().intValue()))
+            .andExpect(jsonPath("$[0].lastName").value(DEFAULT_LAST_NAME))
+            .andExpect(jsonPath("$[0].email").value(DEFAULT_EMAIL))
+            .andExpect(jsonPath("$[0].firstName").doesNotExist());
+    }
+
+    @Test
+    void getAllCustomersWithFieldOutsideWhitelist() throws Exception {
+        restCustomerMockMvc
+            .perform(get(ENTITY_API_URL + "?fields=lastName,addresses"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.fieldinvalid"));
+    }
+
+    @Test
+    void getAllCustomersWithFieldsSortedOutsideWhitelist() throws Exception {
+        restCustomerMockMvc
+            .perform(get(ENTITY_API_URL + "?fields=lastName&sort=addresses.city,asc"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.sortinvalid"));
+    }
+}
@@ -0,0 +1,192 @@
+package myapp.web.rest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.UUID;
+import myapp.IntegrationTest;
+import myapp.domain.Address;
+import myapp.domain.Authority;
+import myapp.domain.Category;
+import myapp.domain.Customer;
+import myapp.domain.Order;
+import myapp.domain.Product;
+import myapp.domain.User;
+import myapp.domain.WishList;
+import myapp.domain.enumeration.CategoryStatus;
+import myapp.domain.enumeration.ProductStatus;
+import myapp.security.AuthoritiesConstants;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests counting the SQL statements of the list endpoints.
+ * <p>
+ * Each endpoint is called on a page of a few linked entities, then on a page of more: the number of statements
+ * must not depend on the number of entities of the page. The persistence context is cleared before each call, so
+ * the associations are loaded as they would be in a request of its own.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@IntegrationTest
+@TestPropertySource(properties = { "spring.jpa.properties.hibernate.generate_statistics=true", "application.response-cache.enabled=false" })
+@Transactional
+class ListQueryCountIT {
+
+    private static final int FEW = 2;
+
+    private static final int MORE = 10;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private long countStatements(String url) throws Exception {
+        em.flush();
+        em.clear();
+        statistics.clear();
+        restMockMvc.perform(get(url)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void assertStatementCountIndependentOfPageSize(String url) throws Exception {
+        createEntities(FEW);
+        long fewStatements = countStatements(url);
+        createEntities(MORE - FEW);
+        long moreStatements = countStatements(url);
+
+        assertEquals(fewStatements, moreStatements, "Statements run by GET " + url);
+    }
+
+    private void createEntities(int count) {
+        Authority userAuthority = em.getReference(Authority.class, AuthoritiesConstants.USER);
+        for (int i = 0; i < count; i++) {
+            String suffix = RandomStringUtils.randomAlphanumeric(8).toLowerCase();
+
+            User user = new User();
+            user.setLogin("user-" + suffix);
+            user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+            user.setActivated(true);
+            user.setEmail(suffix + "@example.com");
+            user.setLangKey("en");
+            user.setAuthorities(Set.of(userAuthority));
+            em.persist(user);
+
+            Customer customer = new Customer().firstName("John").lastName("Doe").email("customer-" + suffix + "@example.com");
+            em.persist(customer);
+            Address address = new Address()
+                .address1("1 Main Street")
+                .city("Springfield")
+                .postcode("12345")
+                .country("US")
+                .customer(customer);
+            em.persist(address);
+            Order order = new Order()
+                .orderDate(Instant.now())
+                .status("PENDING")
+                .totalAmount(BigDecimal.TEN)
+                .shippingAddress(address)
+                .customer(customer);
+            em.persist(order);
+            WishList wishList = new WishList().title("Wishes " + suffix).customer(customer);
+            em.persist(wishList);
+            Product product = new Product()
+                .title("Product " + suffix)
+                .price(BigDecimal.TEN)
+                .status(ProductStatus.IN_STOCK)
+                .dateAdded(Instant.now().minus(1, ChronoUnit.DAYS))
+                .wishList(wishList)
+                .order(order);
+            em.persist(product);
+            Category category = new Category()
+                .description("Category " + UUID.randomUUID())
+                .dateAdded(Instant.now())
+                .status(CategoryStatus.AVAILABLE);
+            category.addProduct(product);
+            em.persist(category);
+        }
+    }
+
+    @Test
+    @DisplayName("Admin users are listed with their authorities in two statements")
+    void getAllUsers() throws Exception {
+        assertStatementCountIndependentOfPageSize("/api/admin/users?page=0&size=100&sort=login,asc");
+        // the page of ids, then the users of those ids with their authorities
+        assertEquals(2, countStatements("/api/admin/users?page=0&size=100&sort=login,asc"));
+    }
+
+    @Test
+    void getAllProducts() throws Exception {
+        assertStatementCountIndependentOfPageSize("/api/products?page=0&size=100&sort=id,desc");
+    }
+
+    @Test
+    void getAllProductsWithSparseFieldset() throws Exception {
+        assertStatementCountIndependentOfPageSize("/api/products?page=0&size=100&sort=id,desc&fields=title,price");
+    }
+
+    @Test
+    void getAllCategories() throws Exception {
+        assertStatementCountIndependentOfPageSize("/api/categories?page=0&size=100&sort=id,desc");
+    }
+
+    @Test
+    void getAllCategoriesWithoutEagerLoad() throws Exception {
+        assertStatementCountIndependentOfPageSize("/api/categories?page=0&size=100&sort=id,desc&eagerload=false");
+    }
+
+    @Test
+    void getAllCustomers() throws Exception {
+        assertStatementCountIndependentOfPageSize("/api/customers?page=0&size=100&sort=id,desc");
+    }
+
+    @Test
+    void getAllCustomersWithSparseFieldset() throws Exception {
+        assertStatementCountIndependentOfPageSize("/api/customers?page=0&size=100&sort=id,desc&fields=firstName,lastName");
+    }
+
+    @Test
+    void getAllOrders() throws Exception {
+        assertStatementCountIndependentOfPageSize("/api/orders?page=0&size=100&sort=id,desc");
+    }
+
+    @Test
+    void getAllOrdersWithSparseFieldset() throws Exception {
+        assertStatementCountIndependentOfPageSize("/api/orders?page=0&size=100&sort=id,desc&fields=status,totalAmount");
+    }
+
+    @Test
+    void getAllAddresses() throws Exception {
+        assertStatementCountIndependentOfPageSize("/api/addresses?page=0&size=100&sort=id,desc");
+    }
+
+    @Test
+    void getAllWishLists() throws Exception {
+        assertStatementCountIndependentOfPageSize("/api/wish-lists");
+    }
+}
@@ -0,0 +1,112 @@
+package myapp.web.rest;
+
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import myapp.IntegrationTest;
+import myapp.domain.Product;
+import myapp.domain.enumeration.ProductStatus;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link ProductResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@Transactional
+class ProductResourceIT {
+
+    private static final String DEFAULT_TITLE = "AAAAAAAAAA";
+
+    private static final BigDecimal DEFAULT_PRICE = new BigDecimal(10);
+
+    private static final ProductStatus DEFAULT_STATUS = ProductStatus.IN_STOCK;
+
+    private static final Instant DEFAULT_DATE_ADDED = Instant.now().minus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MILLIS);
+
+    private static final String ENTITY_API_URL = "/api/products";
+    private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restProductMockMvc;
+
+    /**
+     * Create an entity for this test.
+     */
+    public static Product createEntity() {
+        return new Product().title(DEFAULT_TITLE).price(DEFAULT_PRICE).status(DEFAULT_STATUS).dateAdded(DEFAULT_DATE_ADDED);
+    }
+
+    private Product createProduct(Product product) throws Exception {
+        String response = restProductMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(product)))
+            .andExpect(status().isCreated())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        return om.readValue(response, Product.class);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void suggestProductsFollowsCommittedWrites() throws Exception {
+        String prefix = RandomStringUtils.randomAlphabetic(12).toLowerCase();
+        String renamedPrefix = RandomStringUtils.randomAlphabetic(12).toLowerCase();
+        Product product = createProduct(createEntity().title(prefix + " lamp"));
+
+        restProductMockMvc
+            .perform(get(ENTITY_API_URL + "/_suggest").param("prefix", prefix.toUpperCase()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].id").value(product.getId().intValue()))
+            .andExpect(jsonPath("$[0].value").value(prefix + " lamp"));
+
+        product.setTitle(renamedPrefix + " lamp");
+        restProductMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, product.getId()).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(product))
+            )
+            .andExpect(status().isOk());
+
+        restProductMockMvc.perform(get(ENTITY_API_URL + "/_suggest").param("prefix", prefix)).andExpect(jsonPath("$", hasSize(0)));
+        restProductMockMvc
+            .perform(get(ENTITY_API_URL + "/_suggest").param("prefix", renamedPrefix))
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$[0].value").value(renamedPrefix + " lamp"));
+
+        restProductMockMvc.perform(delete(ENTITY_API_URL_ID, product.getId())).andExpect(status().isNoContent());
+
+        restProductMockMvc.perform(get(ENTITY_API_URL + "/_suggest").param("prefix", renamedPrefix)).andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void suggestProductsIgnoresUncommittedWrites() throws Exception {
+        String prefix = RandomStringUtils.randomAlphabetic(12).toLowerCase();
+        createProduct(createEntity().title(prefix + " lamp"));
+        em.flush();
+
+        // the product is saved in the transaction of the test, which is rolled back
+        restProductMockMvc.perform(get(ENTITY_API_URL + "/_suggest").param("prefix", prefix)).andExpect(jsonPath("$", hasSize(0)));
+    }
+}
@@ -0,0 +1,104 @@
+package myapp.web.rest;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Set;
+import myapp.IntegrationTest;
+import myapp.domain.User;
+import myapp.repository.UserRepository;
+import myapp.security.AuthoritiesConstants;
+import myapp.service.dto.AdminUserDTO;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link UserResource} REST controller.
+ * <p>
+ * The users taken in the tests are saved through the repository, like another instance would: the in-memory
+ * identity filter of this instance does not know them, and reports their login and email free.
+ */
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+@IntegrationTest
+@Transactional
+class UserResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/admin/users";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private MockMvc restUserMockMvc;
+
+    private User saveUserElsewhere() {
+        String login = RandomStringUtils.randomAlphabetic(12).toLowerCase();
+        User user = new User();
+        user.setLogin(login);
+        user.setPassword(RandomStringUtils.randomAlphanumeric(60));
+        user.setEmail(login + "@example.com");
+        user.setActivated(true);
+        user.setLangKey("en");
+        return userRepository.saveAndFlush(user);
+    }
+
+    private static AdminUserDTO newUser(String login, String email) {
+        AdminUserDTO userDTO = new AdminUserDTO();
+        userDTO.setLogin(login);
+        userDTO.setEmail(email);
+        userDTO.setLangKey("en");
+        return userDTO;
+    }
+
+    @Test
+    void createUserWithLoginTakenElsewhere() throws Exception {
+        User taken = saveUserElsewhere();
+        AdminUserDTO userDTO = newUser(taken.getLogin(), RandomStringUtils.randomAlphabetic(12).toLowerCase() + "@example.com");
+
+        restUserMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(userDTO)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.userexists"));
+    }
+
+    @Test
+    void createUserWithEmailTakenElsewhere() throws Exception {
+        User taken = saveUserElsewhere();
+        AdminUserDTO userDTO = newUser(RandomStringUtils.randomAlphabetic(12).toLowerCase(), taken.getEmail());
+
+        restUserMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(userDTO)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("error.emailexists"));
+    }
+
+    @Test
+    void createUserKeepsOnlyExistingAuthorities() throws Exception {
+        String login = RandomStringUtils.randomAlphabetic(12).toLowerCase();
+        AdminUserDTO userDTO = newUser(login, login + "@example.com");
+        userDTO.setAuthorities(Set.of(AuthoritiesConstants.USER, "ROLE_MISSING"));
+
+        restUserMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(userDTO)))
+            .andExpect(status().isCreated());
+
+        restUserMockMvc
+            .perform(get(ENTITY_API_URL + "/{login}", login))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.authorities").value(contains(AuthoritiesConstants.USER)));
+    }
+}